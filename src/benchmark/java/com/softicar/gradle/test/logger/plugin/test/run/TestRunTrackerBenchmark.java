@@ -0,0 +1,136 @@
+package com.softicar.gradle.test.logger.plugin.test.run;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Measures the throughput of the {@link TestRunTracker}, with millions of
+ * synthetic test events from many threads.
+ * <p>
+ * Each thread simulates a test worker that executes 1000 test classes with 20
+ * test methods each, repeatedly. With <i>distinct</i> names, each worker
+ * executes its own test classes. With <i>shared</i> names, all workers execute
+ * the same test classes, i.e. the same test methods run in several forks at
+ * once.
+ * <p>
+ * Arguments: the comma-separated thread counts, and the number of tests per
+ * thread. Defaults to <i>1,8,32</i> and <i>250000</i>.
+ * <p>
+ * The results depend on the number of available CPUs. On a single CPU, more
+ * threads only add contention, so the throughput cannot grow with the number
+ * of threads.
+ */
+public class TestRunTrackerBenchmark {
+
+	private static final int CLASS_COUNT = 1000;
+	private static final int METHOD_COUNT = 20;
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] arguments) throws InterruptedException {
+
+		String[] threadCounts = (arguments.length > 0? arguments[0] : "1,8,32").split(",");
+		int testsPerThread = arguments.length > 1? Integer.parseInt(arguments[1]) : 250000;
+
+		System.out.println(String.format("Available processors: %s", Runtime.getRuntime().availableProcessors()));
+		for (String threadCount: threadCounts) {
+			for (boolean shared: new boolean[] { false, true }) {
+				for (int round = 1; round <= ROUNDS; round++) {
+					run(Integer.parseInt(threadCount.trim()), testsPerThread, shared, round);
+				}
+			}
+		}
+	}
+
+	private static void run(int threadCount, int testsPerThread, boolean shared, int round) throws InterruptedException {
+
+		TestRunTracker tracker = new TestRunTracker(new TestMethodNameRegistry());
+		AtomicInteger failedThreads = new AtomicInteger();
+		List<Thread> threads = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int index = 0; index < threadCount; index++) {
+			TestDescriptor worker = new SyntheticTestDescriptor("Gradle Test Executor " + index, null, null);
+			String classPrefix = shared? "com.example.SomeTest" : "com.example.worker" + index + ".SomeTest";
+			Thread thread = new Thread(() -> {
+				try {
+					for (int test = 0; test < testsPerThread; test++) {
+						String className = classPrefix + (test / METHOD_COUNT % CLASS_COUNT);
+						TestDescriptor classDescriptor = new SyntheticTestDescriptor(className, className, worker);
+						TestDescriptor descriptor = new SyntheticTestDescriptor("test" + test % METHOD_COUNT, className, classDescriptor);
+						tracker.start(descriptor);
+						tracker.end(descriptor);
+					}
+				} catch (RuntimeException exception) {
+					failedThreads.incrementAndGet();
+					exception.printStackTrace();
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread: threads) {
+			thread.join();
+		}
+		long nanos = System.nanoTime() - start;
+
+		long events = 2L * threadCount * testsPerThread;
+		System.out
+			.println(
+				String
+					.format(//
+						"threads: %s  names: %s  round: %s  events: %s  time: %.2fs  throughput: %.2fM events/s  failed threads: %s",
+						threadCount,
+						shared? "shared" : "distinct",
+						round,
+						events,
+						nanos / 1e9,
+						events / (nanos / 1e3),
+						failedThreads.get()));
+	}
+
+	private static class SyntheticTestDescriptor implements TestDescriptor {
+
+		private final String name;
+		private final String className;
+		private final TestDescriptor parent;
+
+		public SyntheticTestDescriptor(String name, String className, TestDescriptor parent) {
+
+			this.name = name;
+			this.className = className;
+			this.parent = parent;
+		}
+
+		@Override
+		public String getName() {
+
+			return name;
+		}
+
+		@Override
+		public String getDisplayName() {
+
+			return name;
+		}
+
+		@Override
+		public String getClassName() {
+
+			return className;
+		}
+
+		@Override
+		public boolean isComposite() {
+
+			return className == null || name.equals(className);
+		}
+
+		@Override
+		public TestDescriptor getParent() {
+
+			return parent;
+		}
+	}
+}
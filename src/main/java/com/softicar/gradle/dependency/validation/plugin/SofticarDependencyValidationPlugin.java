@@ -43,6 +43,11 @@ import org.gradle.util.internal.VersionNumber;
  * crash the dependent code, and that we hence always want to use the highest
  * version of a dependency (among all versions transitively required by
  * artifacts in the classpath).
+ * <p>
+ * The configurations of a project are resolved one after another, since
+ * Gradle only allows the thread that holds the project lock to resolve them.
+ * With {@code --parallel}, the validation tasks of different projects are
+ * executed concurrently, each with its own validator.
  *
  * @author Alexander Schmidt
  */
@@ -0,0 +1,73 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunMetrics;
+import java.util.function.Predicate;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestDescriptor;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * An optional feature of the {@link TestLogger}, e.g. the duration history or
+ * the timeline.
+ * <p>
+ * A feature is only created if it is enabled by the
+ * {@link SofticarTestLoggerProperties}. The {@link TestLogger} forwards the
+ * events of the test task to its features, in the order in which they were
+ * created. By default, a feature ignores all events.
+ */
+abstract class AbstractTestLoggerFeature {
+
+	/**
+	 * Invoked before the test task is executed.
+	 *
+	 * @param testTask
+	 *            the test task (never <i>null</i>)
+	 * @param selection
+	 *            determines whether a test is selected for the execution, by
+	 *            the quarantine, the shard and the impact of changes (never
+	 *            <i>null</i>)
+	 */
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		// nothing to do by default
+	}
+
+	/**
+	 * Invoked after the test task was executed.
+	 */
+	public void executeAfterTestTask() {
+
+		// nothing to do by default
+	}
+
+	public void executeBeforeSuite(TestDescriptor descriptor) {
+
+		// nothing to do by default
+	}
+
+	public void executeAfterSuite(TestDescriptor descriptor) {
+
+		// nothing to do by default
+	}
+
+	public void executeBeforeTest(TestMethodName methodName, TestRunMetrics metrics) {
+
+		// nothing to do by default
+	}
+
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		// nothing to do by default
+	}
+
+	/**
+	 * Invoked after all test tasks of the project were executed, to stop
+	 * background activities and to log reports.
+	 */
+	public void executeOnTasksFinished() {
+
+		// nothing to do by default
+	}
+}
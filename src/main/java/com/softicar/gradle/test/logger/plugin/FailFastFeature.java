@@ -0,0 +1,31 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.failfast.FailFastCanceller;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Cancels the test task as soon as a threshold of failed tests above 1 is
+ * reached. A threshold of 1 is handled by the <i>failFast</i> option of the
+ * test task instead.
+ * <p>
+ * Must be the last feature, since it may throw from the test listener.
+ */
+class FailFastFeature extends AbstractTestLoggerFeature {
+
+	private final FailFastCanceller canceller;
+
+	public FailFastFeature(SofticarTestLoggerProperties properties, Logger logger, TestRunTracker testRunTracker) {
+
+		this.canceller = new FailFastCanceller(logger, testRunTracker, properties.getFailFastThreshold(), properties.getFailFastForkThreshold());
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		canceller.recordResult(metrics.getWorker(), result.getResultType());
+	}
+}
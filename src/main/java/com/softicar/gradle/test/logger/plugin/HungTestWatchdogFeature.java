@@ -0,0 +1,40 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import com.softicar.gradle.test.logger.plugin.test.watchdog.HungTestWatchdog;
+import java.util.function.Predicate;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+
+/**
+ * Reports tests that run longer than a threshold, along with a thread dump of
+ * their test worker process.
+ */
+class HungTestWatchdogFeature extends AbstractTestLoggerFeature {
+
+	private static final String THREAD_DUMP_DIRECTORY_NAME = "thread-dumps";
+
+	private final HungTestWatchdog watchdog;
+
+	public HungTestWatchdogFeature(TestLoggerConfiguration configuration, Logger logger, TestRunTracker testRunTracker) {
+
+		this.watchdog = new HungTestWatchdog(
+			logger,
+			testRunTracker,
+			configuration.getProperties().getWatchdogThreshold() * 1000L,
+			configuration.getOutputFile(THREAD_DUMP_DIRECTORY_NAME));
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		watchdog.start();
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		watchdog.close();
+	}
+}
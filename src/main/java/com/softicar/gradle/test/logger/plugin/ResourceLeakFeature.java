@@ -0,0 +1,75 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.leak.ResourceLeakDetector;
+import com.softicar.gradle.test.logger.plugin.test.leak.ResourceLeakLogger;
+import com.softicar.gradle.test.logger.plugin.test.leak.ResourceSnapshotRecording;
+import com.softicar.gradle.test.logger.plugin.test.leak.TestClassWindowTracker;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Snapshots the live threads and open files of the test worker processes, and
+ * reports the test classes that leave them behind.
+ */
+class ResourceLeakFeature extends AbstractTestLoggerFeature {
+
+	private static final String RESOURCE_SNAPSHOT_DIRECTORY_NAME = "resource-snapshots";
+
+	private final Logger logger;
+	private final ResourceSnapshotRecording recording;
+	private final TestClassWindowTracker classWindowTracker;
+
+	public ResourceLeakFeature(TestLoggerConfiguration configuration, Logger logger, TestRunTracker testRunTracker) {
+
+		this.logger = Objects.requireNonNull(logger);
+		this.recording = createRecording(configuration);
+		this.classWindowTracker = new TestClassWindowTracker(testRunTracker);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the resource snapshots in the test
+	 * worker processes.
+	 *
+	 * @param configuration
+	 *            the {@link TestLoggerConfiguration} (never <i>null</i>)
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public static String getJvmArgument(TestLoggerConfiguration configuration) {
+
+		return createRecording(configuration).getJvmArgument();
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		recording.prepare();
+	}
+
+	@Override
+	public void executeBeforeSuite(TestDescriptor descriptor) {
+
+		classWindowTracker.startSuite(descriptor);
+	}
+
+	@Override
+	public void executeAfterSuite(TestDescriptor descriptor) {
+
+		classWindowTracker.endSuite(descriptor);
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		new ResourceLeakLogger(logger).log(new ResourceLeakDetector().detect(classWindowTracker.getWindows(), recording.read()));
+	}
+
+	private static ResourceSnapshotRecording createRecording(TestLoggerConfiguration configuration) {
+
+		return new ResourceSnapshotRecording(configuration.getOutputFile(RESOURCE_SNAPSHOT_DIRECTORY_NAME));
+	}
+}
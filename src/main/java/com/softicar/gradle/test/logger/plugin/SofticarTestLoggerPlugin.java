@@ -1,27 +1,30 @@
 package com.softicar.gradle.test.logger.plugin;
 
 import com.softicar.gradle.AbstractSofticarProjectPlugin;
-import com.softicar.gradle.test.logger.plugin.test.closure.AfterTestClosure;
-import com.softicar.gradle.test.logger.plugin.test.closure.BeforeTestClosure;
-import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureLogger;
-import com.softicar.gradle.test.logger.plugin.test.log.TestLogPrinter;
-import com.softicar.gradle.test.logger.plugin.test.result.TestResultRecorder;
-import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
-import com.softicar.gradle.test.logger.plugin.test.run.RedundantTestRunLogger;
-import com.softicar.gradle.test.logger.plugin.test.run.TestRunMetrics;
-import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import com.softicar.gradle.test.logger.plugin.test.flaky.TestTaskCopier;
 import java.util.Collections;
 import java.util.Objects;
-import org.gradle.BuildResult;
+import javax.inject.Inject;
+import org.gradle.api.Action;
 import org.gradle.api.Project;
-import org.gradle.api.logging.Logger;
+import org.gradle.api.Task;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.specs.Specs;
 import org.gradle.api.tasks.TaskProvider;
 import org.gradle.api.tasks.testing.Test;
 import org.gradle.api.tasks.testing.TestDescriptor;
+import org.gradle.api.tasks.testing.TestListener;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.api.tasks.testing.TestOutputListener;
 import org.gradle.api.tasks.testing.TestResult;
 import org.gradle.api.tasks.testing.logging.TestExceptionFormat;
 import org.gradle.api.tasks.testing.logging.TestLogEvent;
 import org.gradle.api.tasks.testing.logging.TestLoggingContainer;
+import org.gradle.build.event.BuildEventsListenerRegistry;
+import org.gradle.language.base.plugins.LifecycleBasePlugin;
 
 /**
  * This Gradle plug-in enables verbose log output during test execution.
@@ -30,47 +33,146 @@ import org.gradle.api.tasks.testing.logging.TestLoggingContainer;
  * execution of <i>test</i> tasks will produce verbose log output. This output
  * enables real-time monitoring of executed test methods, their result status,
  * timing information, etc.
+ * <p>
+ * Optionally, test durations are recorded in a history file in the build
+ * directory, and the slowest tests are logged at the end of the build. Based
+ * on that history, the actual makespan of the test classes can be compared to
+ * a longest-first distribution over the available forks, and the progress of
+ * the test task can be logged periodically, with an estimate of the remaining
+ * time. See
+ * {@link SofticarTestLoggerProperties} for the available options.
+ * <p>
+ * Optionally, test durations are compared with a baseline, either from a
+ * baseline file or from previous builds, and the build warns or fails if
+ * tests, test classes or packages slowed down.
+ * <p>
+ * Optionally, a timeline of the test executions per fork is exported as a
+ * Chrome trace file, and the utilization of the forks is logged. A structured
+ * record per test event can be streamed to a compressed JSON Lines file. The
+ * fixture overhead of test classes, i.e. their time outside of test methods,
+ * can be logged. Test durations can be recorded in histograms, which are
+ * merged across builds, to log duration percentiles. Tests that
+ * run longer than a threshold can be reported, along with a thread dump of
+ * their test worker process. The test worker processes can be recorded with
+ * the Java Flight Recorder, to attribute allocations, garbage collections and
+ * CPU time to the individual tests.
+ * <p>
+ * Optionally, the test classes are split into shards, e.g. for several CI
+ * nodes that execute the same test task. The assignment is deterministic, and
+ * balanced by the class durations in the baseline file. Test classes can also be
+ * selected by the impact of changes: only test classes whose transitive class
+ * dependencies changed since the previous successful run are executed.
+ * <p>
+ * Optionally, the standard output and error of each running test are kept in a
+ * bounded buffer, and logged along with the details of failed tests.
+ * <p>
+ * Optionally, the test task is cancelled as soon as a given number of tests
+ * failed, in total or in a single fork.
+ * <p>
+ * Optionally, small Java agents in the test worker processes sample the heap
+ * after garbage collections, to recycle workers whose heap grew too much in
+ * subsequent builds, and snapshot the live threads and open files, to report
+ * test classes that leave them behind.
+ * <p>
+ * Optionally, failed tests are executed again by a separate <i>testRetry</i>
+ * task. Tests that succeed when executed again are considered flaky, and are
+ * added to a quarantine file in the project directory, which is meant to be
+ * committed. Quarantined tests are excluded from the <i>test</i> task, and
+ * executed serially by a separate <i>testQuarantine</i> task, whose failures
+ * do not fail the build. Tests that fail again fail the build, unless the
+ * <i>test</i> task ignores failures. The <i>testQuarantine</i> task is only
+ * registered if failed tests are retried, or if the quarantine file exists.
+ * <p>
+ * The plug-in supports the configuration cache: the tasks only refer to a
+ * {@link SofticarTestLoggerService}, which holds the state of the test logger
+ * during the build. The reports of a project are logged as soon as its test
+ * tasks completed, and the failures of all projects at the end of the build.
  *
  * @author Alexander Schmidt
  */
-public class SofticarTestLoggerPlugin extends AbstractSofticarProjectPlugin {
+public abstract class SofticarTestLoggerPlugin extends AbstractSofticarProjectPlugin {
 
-	private static final String VERBOSE_PROPERTY_NAME = "com.softicar.test.logger.verbose";
+	static final String TEST_TASK_NAME = "test";
+	private static final String RETRY_TASK_NAME = "testRetry";
+	static final String QUARANTINE_TASK_NAME = "testQuarantine";
+
+	@Inject
+	protected abstract BuildEventsListenerRegistry getEventsListenerRegistry();
 
 	@Override
 	public void apply(Project project) {
 
 		requirePlugin(project, "java");
 
-		if (project.getTasks().findByName("test") != null) {
-			new TestLogger(project).configureTestTask(project.getTasks().named("test", Test.class));
+		if (project.getTasks().findByName(TEST_TASK_NAME) != null) {
+			Provider<SofticarTestLoggerService> service = project//
+				.getGradle()
+				.getSharedServices()
+				.registerIfAbsent(SofticarTestLoggerService.NAME, SofticarTestLoggerService.class, dummy -> {});
+			getEventsListenerRegistry().onTaskCompletion(service);
+			new TestTaskConfigurer(project, service).configure(project.getTasks().named(TEST_TASK_NAME, Test.class));
 		}
 	}
 
-	private static class TestLogger {
+	/**
+	 * Configures the test tasks of a project.
+	 * <p>
+	 * Only used at configuration time. All actions, listeners and specs that
+	 * are added to the tasks merely refer to the {@link TestLogger} via a
+	 * {@link TestLoggerReference}.
+	 */
+	private static class TestTaskConfigurer {
 
-		private final TestRunTracker testRunTracker;
-		private final TestResultRecorder resultRecorder;
 		private final Project project;
-		private final Logger logger;
-		private final boolean verbose;
+		private final Provider<SofticarTestLoggerService> service;
+		private final TestLoggerConfiguration configuration;
+		private final SofticarTestLoggerProperties properties;
+		private final TestLoggerReference reference;
 
-		public TestLogger(Project project) {
+		public TestTaskConfigurer(Project project, Provider<SofticarTestLoggerService> service) {
 
-			this.testRunTracker = new TestRunTracker();
-			this.resultRecorder = new TestResultRecorder();
 			this.project = Objects.requireNonNull(project);
-			this.logger = Objects.requireNonNull(project.getLogger());
-			this.verbose = isVerbose(project);
+			this.service = Objects.requireNonNull(service);
+			this.configuration = new TestLoggerConfiguration(project, TEST_TASK_NAME);
+			this.properties = configuration.getProperties();
+			this.reference = new TestLoggerReference(service, configuration);
 		}
 
-		public void configureTestTask(TaskProvider<Test> testTask) {
+		public void configure(TaskProvider<Test> testTask) {
+
+			testTask.configure(this::configureTestTask);
+			if (configuration.isQuarantine()) {
+				// failed tests can only be retried along with the quarantine
+				TaskProvider<Test> quarantineTask = configureQuarantine(testTask);
+				configureRetry(testTask, quarantineTask);
+			}
+		}
 
-			testTask.configure(this::configureTestLogging);
-			testTask.configure(this::configureBeforeTest);
-			testTask.configure(this::configureAfterTest);
+		private void configureTestTask(Test testTask) {
 
-			project.getGradle().buildFinished(this::executeOnBuildFinished);
+			testTask.usesService(service);
+			configureTestLogging(testTask);
+			testTask.addTestListener(new TestLoggerListener(reference, TestLoggerListener.Role.TEST));
+			if (properties.getOutputLimit() > 0) {
+				testTask.addTestOutputListener(new TestLoggerListener(reference, TestLoggerListener.Role.TEST));
+			}
+			testTask.jvmArgs(TestLogger.getJvmArguments(configuration));
+			if (properties.getShardTotal() > 1) {
+				testTask.getInputs().property(SofticarTestLoggerProperties.SHARD_INDEX, properties.getShardIndex());
+				testTask.getInputs().property(SofticarTestLoggerProperties.SHARD_TOTAL, properties.getShardTotal());
+				testTask.getInputs().files(configuration.getProjectFile(TestLogger.BASELINE_FILE_NAME)).withPropertyName("shardBaseline");
+			}
+			if (properties.getShardTotal() > 1 || properties.isImpact()) {
+				testTask.exclude(new ClassFileExclusionSpec(reference, testTask.getTestClassesDirs(), testTask.getClasspath(), true));
+			}
+			if (properties.getFailFastThreshold() == 1 || properties.getFailFastForkThreshold() == 1) {
+				testTask.setFailFast(true);
+			}
+			if (configuration.isQuarantine()) {
+				testTask.getInputs().files(configuration.getProjectFile(properties.getRetryQuarantine())).withPropertyName("quarantine");
+			}
+			testTask.doFirst(new TestLoggerTaskAction(reference, TestLoggerTaskAction.Step.BEFORE_TEST_TASK));
+			testTask.doLast(new TestLoggerTaskAction(reference, TestLoggerTaskAction.Step.AFTER_TEST_TASK));
 		}
 
 		private void configureTestLogging(Test testTask) {
@@ -84,54 +186,218 @@ public class SofticarTestLoggerPlugin extends AbstractSofticarProjectPlugin {
 			testLogging.setShowStandardStreams(false);
 		}
 
-		private void configureBeforeTest(Test testTask) {
+		private void configureRetry(TaskProvider<Test> testTask, TaskProvider<Test> quarantineTask) {
+
+			if (properties.getRetryBudget() > 0) {
+				TaskProvider<Test> retryTask = project.getTasks().register(RETRY_TASK_NAME, Test.class, task -> {
+					task.setDescription("Executes the failed tests of the test task again.");
+					task.setGroup(testTask.get().getGroup());
+					new TestTaskCopier().copy(testTask.get(), task);
+					task.usesService(service);
+					task.getFilter().setFailOnNoMatchingTests(false);
+					task.getOutputs().upToDateWhen(Specs.satisfyNone());
+					task.onlyIf(new TestLoggerTaskSpec(reference, TestLoggerTaskSpec.Condition.HAS_RETRIED_TESTS));
+					task.mustRunAfter(testTask);
+					task.doFirst(new TestLoggerTaskAction(reference, TestLoggerTaskAction.Step.BEFORE_RETRY_TASK));
+					task.addTestListener(new TestLoggerListener(reference, TestLoggerListener.Role.RETRY));
+					if (properties.getOutputLimit() > 0) {
+						task.addTestOutputListener(new TestLoggerListener(reference, TestLoggerListener.Role.RETRY));
+					}
+				});
+				testTask.configure(task -> {
+					task.finalizedBy(retryTask);
+					// failures are ignored until the retry, so a successful execution is not necessarily up to date or reusable
+					task.getOutputs().upToDateWhen(new TestLoggerTaskSpec(reference, TestLoggerTaskSpec.Condition.HAS_NO_IGNORED_FAILURES));
+					task.getOutputs().doNotCacheIf("Failures of the test task are ignored until the retry", Specs.satisfyAll());
+				});
+				project.getTasks().named(LifecycleBasePlugin.CHECK_TASK_NAME).configure(task -> task.dependsOn(retryTask));
+				quarantineTask.configure(task -> task.mustRunAfter(retryTask));
+			}
+		}
+
+		private TaskProvider<Test> configureQuarantine(TaskProvider<Test> testTask) {
+
+			TaskProvider<Test> quarantineTask = project.getTasks().register(QUARANTINE_TASK_NAME, Test.class, task -> {
+				task.setDescription("Executes the quarantined tests serially.");
+				task.setGroup(testTask.get().getGroup());
+				new TestTaskCopier().copy(testTask.get(), task);
+				task.usesService(service);
+				task.setMaxParallelForks(1);
+				if (properties.getShardTotal() > 1) {
+					task.exclude(new ClassFileExclusionSpec(reference, task.getTestClassesDirs(), task.getClasspath(), false));
+				}
+				task.setIgnoreFailures(true);
+				task.getFilter().setFailOnNoMatchingTests(false);
+				task.getInputs().files(configuration.getProjectFile(properties.getRetryQuarantine())).withPropertyName("quarantine");
+				task.onlyIf(new TestLoggerTaskSpec(reference, TestLoggerTaskSpec.Condition.HAS_QUARANTINED_TESTS));
+				task.doFirst(new TestLoggerTaskAction(reference, TestLoggerTaskAction.Step.BEFORE_QUARANTINE_TASK));
+				task.mustRunAfter(testTask);
+				task.addTestListener(new TestLoggerListener(reference, TestLoggerListener.Role.QUARANTINE));
+			});
+			testTask.configure(task -> task.finalizedBy(quarantineTask));
+			return quarantineTask;
+		}
+	}
+
+	/**
+	 * Forwards the events of a test task to the {@link TestLogger}.
+	 */
+	private static class TestLoggerListener implements TestListener, TestOutputListener {
+
+		private enum Role {
+			TEST,
+			RETRY,
+			QUARANTINE
+		}
+
+		private final TestLoggerReference reference;
+		private final Role role;
 
-			testTask.beforeTest(new BeforeTestClosure(this, this::executeBeforeTest));
+		public TestLoggerListener(TestLoggerReference reference, Role role) {
+
+			this.reference = Objects.requireNonNull(reference);
+			this.role = Objects.requireNonNull(role);
 		}
 
-		private void configureAfterTest(Test testTask) {
+		@Override
+		public void beforeSuite(TestDescriptor suite) {
 
-			testTask.afterTest(new AfterTestClosure(this, this::executeAfterTest));
+			if (role == Role.TEST) {
+				reference.get().executeBeforeSuite(suite);
+			}
 		}
 
-		private void executeBeforeTest(TestDescriptor descriptor) {
+		@Override
+		public void afterSuite(TestDescriptor suite, TestResult result) {
 
-			TestRunMetrics metrics = testRunTracker.start(descriptor);
-			if (verbose) {
-				new TestLogPrinter(logger)
-					.printStart(//
-						metrics.getIndex(),
-						metrics.getRunningCount(),
-						descriptor.getName(),
-						descriptor.getClassName());
+			if (role == Role.TEST) {
+				reference.get().executeAfterSuite(suite);
 			}
 		}
 
-		private void executeAfterTest(TestDescriptor descriptor, TestResult result) {
+		@Override
+		public void beforeTest(TestDescriptor descriptor) {
 
-			FinishedTestRunMetrics metrics = testRunTracker.end(descriptor);
-			if (verbose) {
-				new TestLogPrinter(logger)//
-					.printResult(
-						metrics.getIndex(),
-						metrics.getRunningCount(),
-						descriptor.getName(),
-						descriptor.getClassName(),
-						result.getResultType(),
-						metrics.getDuration());
+			if (role == Role.TEST) {
+				reference.get().executeBeforeTest(descriptor);
+			} else if (role == Role.RETRY) {
+				reference.get().executeBeforeRetryTest(descriptor);
 			}
-			resultRecorder.recordResult(descriptor, result);
 		}
 
-		private void executeOnBuildFinished(@SuppressWarnings("unused") BuildResult buildResult) {
+		@Override
+		public void afterTest(TestDescriptor descriptor, TestResult result) {
+
+			if (role == Role.TEST) {
+				reference.get().executeAfterTest(descriptor, result);
+			} else if (role == Role.RETRY) {
+				reference.get().executeAfterRetryTest(descriptor, result);
+			} else {
+				reference.get().executeAfterQuarantineTest(descriptor, result);
+			}
+		}
+
+		@Override
+		public void onOutput(TestDescriptor descriptor, TestOutputEvent event) {
+
+			reference.get().executeOnOutput(descriptor, event.getMessage());
+		}
+	}
+
+	/**
+	 * Executes a step of the {@link TestLogger} before or after a task.
+	 */
+	private static class TestLoggerTaskAction implements Action<Task> {
+
+		private enum Step {
+			BEFORE_TEST_TASK,
+			AFTER_TEST_TASK,
+			BEFORE_RETRY_TASK,
+			BEFORE_QUARANTINE_TASK
+		}
+
+		private final TestLoggerReference reference;
+		private final Step step;
+
+		public TestLoggerTaskAction(TestLoggerReference reference, Step step) {
+
+			this.reference = Objects.requireNonNull(reference);
+			this.step = Objects.requireNonNull(step);
+		}
+
+		@Override
+		public void execute(Task task) {
+
+			TestLogger testLogger = reference.get();
+			if (step == Step.BEFORE_TEST_TASK) {
+				testLogger.executeBeforeTestTask((Test) task);
+			} else if (step == Step.AFTER_TEST_TASK) {
+				testLogger.executeAfterTestTask();
+			} else if (step == Step.BEFORE_RETRY_TASK) {
+				testLogger.executeBeforeRetryTask((Test) task);
+			} else {
+				testLogger.executeBeforeQuarantineTask((Test) task);
+			}
+		}
+	}
+
+	/**
+	 * Determines whether a task shall be executed, or whether it is up to date,
+	 * according to the {@link TestLogger}.
+	 */
+	private static class TestLoggerTaskSpec implements Spec<Task> {
+
+		private enum Condition {
+			HAS_RETRIED_TESTS,
+			HAS_QUARANTINED_TESTS,
+			HAS_NO_IGNORED_FAILURES
+		}
+
+		private final TestLoggerReference reference;
+		private final Condition condition;
+
+		public TestLoggerTaskSpec(TestLoggerReference reference, Condition condition) {
+
+			this.reference = Objects.requireNonNull(reference);
+			this.condition = Objects.requireNonNull(condition);
+		}
+
+		@Override
+		public boolean isSatisfiedBy(Task task) {
+
+			if (condition == Condition.HAS_RETRIED_TESTS) {
+				return reference.get().hasRetriedTests();
+			} else if (condition == Condition.HAS_NO_IGNORED_FAILURES) {
+				return !reference.get().hasIgnoredFailures();
+			} else {
+				return reference.get().hasQuarantinedTests();
+			}
+		}
+	}
+
+	/**
+	 * Excludes the class files of test classes that are not assigned to the
+	 * current shard, or that are not affected by changes.
+	 */
+	private static class ClassFileExclusionSpec implements Spec<FileTreeElement> {
+
+		private final TestLoggerReference reference;
+		private final FileCollection testClassesDirs;
+		private final FileCollection classpath;
+		private final boolean impact;
+
+		public ClassFileExclusionSpec(TestLoggerReference reference, FileCollection testClassesDirs, FileCollection classpath, boolean impact) {
 
-			new TestFailureLogger(logger).log(resultRecorder);
-			new RedundantTestRunLogger(logger).log(testRunTracker);
+			this.reference = Objects.requireNonNull(reference);
+			this.testClassesDirs = Objects.requireNonNull(testClassesDirs);
+			this.classpath = Objects.requireNonNull(classpath);
+			this.impact = impact;
 		}
 
-		private boolean isVerbose(Project project) {
+		@Override
+		public boolean isSatisfiedBy(FileTreeElement element) {
 
-			return Objects.equals(project.getProperties().get(VERBOSE_PROPERTY_NAME), "true");
+			return !reference.get().isClassFileIncluded(element, testClassesDirs, classpath, impact);
 		}
 	}
 }
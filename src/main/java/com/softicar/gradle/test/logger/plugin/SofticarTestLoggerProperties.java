@@ -0,0 +1,473 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.gradle.api.GradleException;
+import org.gradle.api.Project;
+
+/**
+ * Provides the project properties that control the
+ * {@link SofticarTestLoggerPlugin}.
+ * <p>
+ * All properties are optional, and are usually given on the command line,
+ * e.g. <code>-Pcom.softicar.test.logger.verbose=true</code>.
+ * <p>
+ * The property values are copied from the project upon construction, so that
+ * instances do not refer to the project, and can be stored in the
+ * configuration cache.
+ */
+public class SofticarTestLoggerProperties {
+
+	private static final String PREFIX = "com.softicar.test.logger.";
+
+	/**
+	 * Whether each test start and test result shall be logged. If set to
+	 * <i>summary</i>, an aggregated summary line is logged per interval
+	 * instead, and only the results of failed or slow tests are logged.
+	 */
+	public static final String VERBOSE = PREFIX + "verbose";
+
+	/**
+	 * The time in seconds between two summary lines, if {@link #VERBOSE} is
+	 * <i>summary</i>.
+	 */
+	public static final String VERBOSE_INTERVAL = PREFIX + "verbose.interval";
+
+	/**
+	 * The duration in seconds from which on the result of a test is logged,
+	 * if {@link #VERBOSE} is <i>summary</i>.
+	 */
+	public static final String VERBOSE_THRESHOLD = PREFIX + "verbose.threshold";
+
+	/**
+	 * Whether test durations shall be recorded in a history file, and the
+	 * slowest tests shall be logged at the end of the build.
+	 */
+	public static final String HISTORY = PREFIX + "history";
+
+	/**
+	 * The number of slowest tests and test classes to log. Also limits the
+	 * number of test classes logged with their fixture overhead or duration
+	 * percentiles.
+	 */
+	public static final String HISTORY_TOP = PREFIX + "history.top";
+
+	/**
+	 * The number of builds (including the current one) for which the duration
+	 * trend of the slowest tests shall be logged.
+	 */
+	public static final String HISTORY_BUILDS = PREFIX + "history.builds";
+
+	/**
+	 * Whether the actual makespan of the test classes shall be compared to a
+	 * longest-first distribution of the test classes over the available forks,
+	 * based on the durations recorded in previous builds. The distribution is
+	 * only reported, not applied. Implies recording of test durations in the
+	 * history file.
+	 */
+	public static final String SCHEDULE = PREFIX + "schedule";
+
+	/**
+	 * Whether the progress of the test task shall be logged periodically,
+	 * with an estimate of the remaining time based on the durations of the
+	 * recent builds. Implies recording of test durations in the history file.
+	 */
+	public static final String PROGRESS = PREFIX + "progress";
+
+	/**
+	 * The minimum time in seconds between two progress lines.
+	 */
+	public static final String PROGRESS_INTERVAL = PREFIX + "progress.interval";
+
+	/**
+	 * Whether test durations shall be compared with a baseline, and the
+	 * build shall <i>warn</i> or <i>fail</i> if tests, test classes or
+	 * packages slowed down. The baseline is read from a baseline file in the
+	 * project directory if it exists, and is derived from the durations of
+	 * previous builds otherwise. Implies recording of test durations in the
+	 * history file.
+	 */
+	public static final String REGRESSION = PREFIX + "regression";
+
+	/**
+	 * The ratio of the current to the baseline duration above which a test or
+	 * test class is considered to have slowed down.
+	 */
+	public static final String REGRESSION_RATIO = PREFIX + "regression.ratio";
+
+	/**
+	 * The difference in milliseconds between the current and the baseline
+	 * duration above which a test or test class is considered to have slowed
+	 * down.
+	 */
+	public static final String REGRESSION_DELTA = PREFIX + "regression.delta";
+
+	/**
+	 * Whether the baseline file shall be overwritten with the durations of
+	 * the current build. Package budgets in the baseline file are retained.
+	 */
+	public static final String REGRESSION_UPDATE = PREFIX + "regression.update";
+
+	/**
+	 * Whether a timeline of the test executions per fork shall be exported as
+	 * a Chrome trace file, and the utilization of the forks shall be logged at
+	 * the end of the build.
+	 */
+	public static final String TIMELINE = PREFIX + "timeline";
+
+	/**
+	 * Whether test durations shall be recorded in histograms per test class,
+	 * which are merged with the histograms of previous builds, and whether
+	 * duration percentiles shall be logged at the end of the build.
+	 */
+	public static final String HISTOGRAMS = PREFIX + "histograms";
+
+	/**
+	 * A comma-separated list of histogram files, e.g. from other CI nodes, to
+	 * merge into the logged duration percentiles of all builds.
+	 */
+	public static final String HISTOGRAMS_MERGE = PREFIX + "histograms.merge";
+
+	/**
+	 * Whether the fixture overhead of each test class shall be logged, i.e.
+	 * the wall-clock time of the test class minus the time of its test
+	 * methods.
+	 */
+	public static final String FIXTURES = PREFIX + "fixtures";
+
+	/**
+	 * Whether a structured record per test event shall be written to a
+	 * gzip-compressed JSON Lines file.
+	 */
+	public static final String EVENTS = PREFIX + "events";
+
+	/**
+	 * The running time in seconds after which a test is reported as hung, and
+	 * a thread dump of its test worker process is written. The watchdog is
+	 * disabled if this is not given, or not positive.
+	 */
+	public static final String WATCHDOG_THRESHOLD = PREFIX + "watchdog.threshold";
+
+	/**
+	 * The maximum number of failed tests to execute again, in a separate test
+	 * task. Tests that succeed when executed again are considered flaky, and
+	 * are added to the quarantine file. Failed tests are not executed again if
+	 * this is not given, or not positive, or if more tests failed.
+	 */
+	public static final String RETRY_BUDGET = PREFIX + "retry.budget";
+
+	/**
+	 * The path of the quarantine file, relative to the project directory. The
+	 * quarantine file is meant to be committed, so that flaky tests remain
+	 * quarantined in subsequent builds, e.g. on CI nodes with a fresh build
+	 * directory.
+	 */
+	public static final String RETRY_QUARANTINE = PREFIX + "retry.quarantine";
+
+	/**
+	 * Whether the test worker processes shall be recorded with the Java Flight
+	 * Recorder, and whether allocations, garbage collections and CPU time shall
+	 * be attributed to the individual tests. Requires test worker processes on
+	 * Java 15 or later.
+	 */
+	public static final String PROFILE = PREFIX + "profile";
+
+	/**
+	 * The index of the shard to execute, from 0 to the total number of shards
+	 * minus 1.
+	 */
+	public static final String SHARD_INDEX = PREFIX + "shard.index";
+
+	/**
+	 * The total number of shards, e.g. CI nodes that execute the same test
+	 * task. Each test class is executed by exactly one shard. Test classes are
+	 * balanced by their durations in the baseline file, if present. Sharding is
+	 * disabled if this is not given, or less than 2.
+	 */
+	public static final String SHARD_TOTAL = PREFIX + "shard.total";
+
+	/**
+	 * Whether only the test classes shall be executed whose transitive class
+	 * dependencies changed since the previous successful test run. All test
+	 * classes are executed if there is no previous run, or if build files,
+	 * resources or external libraries changed.
+	 */
+	public static final String IMPACT = PREFIX + "impact";
+
+	/**
+	 * The number of failed tests after which the test task is cancelled,
+	 * without executing further tests. Above 1, the test worker processes are
+	 * terminated. Disabled if this is not given, or not positive.
+	 */
+	public static final String FAIL_FAST_THRESHOLD = PREFIX + "failfast.threshold";
+
+	/**
+	 * The number of failed tests in a single test worker process (fork) after
+	 * which the test task is cancelled, like {@link #FAIL_FAST_THRESHOLD}.
+	 * Disabled if this is not given, or not positive.
+	 */
+	public static final String FAIL_FAST_FORK_THRESHOLD = PREFIX + "failfast.fork.threshold";
+
+	/**
+	 * The maximum number of characters of standard output and error to keep
+	 * per running test. The kept output of failed tests is logged along with
+	 * the failure details, while the output of other tests is discarded.
+	 * Disabled if this is not given, or not positive.
+	 */
+	public static final String OUTPUT_LIMIT = PREFIX + "output.limit";
+
+	/**
+	 * Whether the heap usage after garbage collections shall be sampled in the
+	 * test worker processes, to recycle test workers in the next build once
+	 * their heap or garbage collection time grew beyond a threshold.
+	 */
+	public static final String RECYCLE = PREFIX + "recycle";
+
+	/**
+	 * The share of the maximum heap size, in percent, that the heap retained
+	 * by a test worker must exceed for the worker to be recycled.
+	 */
+	public static final String RECYCLE_HEAP = PREFIX + "recycle.heap";
+
+	/**
+	 * The share of the test duration, in percent, that the garbage collection
+	 * time of a test worker must exceed for the worker to be recycled.
+	 */
+	public static final String RECYCLE_GC = PREFIX + "recycle.gc";
+
+	/**
+	 * Whether the live threads and open file descriptors of the test worker
+	 * processes shall be snapshot, to log the test classes that left
+	 * non-daemon threads or open files behind.
+	 */
+	public static final String LEAKS = PREFIX + "leaks";
+
+	private final Map<String, String> values;
+
+	public SofticarTestLoggerProperties(Project project) {
+
+		this.values = new TreeMap<>();
+		project//
+			.getProperties()
+			.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().startsWith(PREFIX) && entry.getValue() != null)
+			.forEach(entry -> values.put(entry.getKey(), entry.getValue().toString()));
+	}
+
+	public boolean isVerbose() {
+
+		return getBoolean(VERBOSE);
+	}
+
+	public boolean isVerboseSummary() {
+
+		return Objects.equals(getString(VERBOSE).orElse(null), "summary");
+	}
+
+	public int getVerboseInterval() {
+
+		return getInteger(VERBOSE_INTERVAL).orElse(10);
+	}
+
+	public int getVerboseThreshold() {
+
+		return getInteger(VERBOSE_THRESHOLD).orElse(10);
+	}
+
+	public boolean isHistory() {
+
+		return getBoolean(HISTORY);
+	}
+
+	public int getHistoryTop() {
+
+		return getInteger(HISTORY_TOP).orElse(10);
+	}
+
+	public int getHistoryBuilds() {
+
+		return getInteger(HISTORY_BUILDS).orElse(5);
+	}
+
+	public boolean isSchedule() {
+
+		return getBoolean(SCHEDULE);
+	}
+
+	public boolean isProgress() {
+
+		return getBoolean(PROGRESS);
+	}
+
+	public int getProgressInterval() {
+
+		return getInteger(PROGRESS_INTERVAL).orElse(10);
+	}
+
+	public Optional<String> getRegression() {
+
+		Optional<String> regression = getString(REGRESSION).map(String::trim);
+		regression.ifPresent(value -> {
+			if (!value.equals("warn") && !value.equals("fail")) {
+				throw new GradleException("Property '%s' must be 'warn' or 'fail' but was: '%s'".formatted(REGRESSION, value));
+			}
+		});
+		return regression;
+	}
+
+	public double getRegressionRatio() {
+
+		return getDouble(REGRESSION_RATIO).orElse(1.5);
+	}
+
+	public int getRegressionDelta() {
+
+		return getInteger(REGRESSION_DELTA).orElse(1000);
+	}
+
+	public boolean isRegressionUpdate() {
+
+		return getBoolean(REGRESSION_UPDATE);
+	}
+
+	public boolean isTimeline() {
+
+		return getBoolean(TIMELINE);
+	}
+
+	public boolean isHistograms() {
+
+		return getBoolean(HISTOGRAMS);
+	}
+
+	public List<String> getHistogramsMerge() {
+
+		return getString(HISTOGRAMS_MERGE)//
+			.map(value -> Arrays.stream(value.split(",")).map(String::trim).filter(it -> !it.isEmpty()).collect(Collectors.toList()))
+			.orElse(Collections.emptyList());
+	}
+
+	public boolean isFixtures() {
+
+		return getBoolean(FIXTURES);
+	}
+
+	public boolean isEvents() {
+
+		return getBoolean(EVENTS);
+	}
+
+	public int getWatchdogThreshold() {
+
+		return getInteger(WATCHDOG_THRESHOLD).orElse(0);
+	}
+
+	public int getRetryBudget() {
+
+		return getInteger(RETRY_BUDGET).orElse(0);
+	}
+
+	public String getRetryQuarantine() {
+
+		return getString(RETRY_QUARANTINE).map(String::trim).orElse("test-quarantine.txt");
+	}
+
+	public boolean isProfile() {
+
+		return getBoolean(PROFILE);
+	}
+
+	public int getShardIndex() {
+
+		int index = getInteger(SHARD_INDEX).orElse(0);
+		int total = getShardTotal();
+		if (index < 0 || index >= Math.max(1, total)) {
+			throw new GradleException("Property '%s' must be between 0 and %s but was: %s".formatted(SHARD_INDEX, Math.max(1, total) - 1, index));
+		}
+		return index;
+	}
+
+	public int getShardTotal() {
+
+		return getInteger(SHARD_TOTAL).orElse(1);
+	}
+
+	public boolean isImpact() {
+
+		return getBoolean(IMPACT);
+	}
+
+	public int getFailFastThreshold() {
+
+		return getInteger(FAIL_FAST_THRESHOLD).orElse(0);
+	}
+
+	public int getFailFastForkThreshold() {
+
+		return getInteger(FAIL_FAST_FORK_THRESHOLD).orElse(0);
+	}
+
+	public int getOutputLimit() {
+
+		return getInteger(OUTPUT_LIMIT).orElse(0);
+	}
+
+	public boolean isRecycle() {
+
+		return getBoolean(RECYCLE);
+	}
+
+	public int getRecycleHeap() {
+
+		return getInteger(RECYCLE_HEAP).orElse(70);
+	}
+
+	public int getRecycleGc() {
+
+		return getInteger(RECYCLE_GC).orElse(10);
+	}
+
+	public boolean isLeaks() {
+
+		return getBoolean(LEAKS);
+	}
+
+	private boolean getBoolean(String name) {
+
+		return Objects.equals(getString(name).orElse(null), "true");
+	}
+
+	private Optional<Integer> getInteger(String name) {
+
+		return getString(name).map(value -> {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException exception) {
+				throw new GradleException("Property '%s' must be an integer but was: '%s'".formatted(name, value), exception);
+			}
+		});
+	}
+
+	private Optional<Double> getDouble(String name) {
+
+		return getString(name).map(value -> {
+			try {
+				return Double.parseDouble(value.trim());
+			} catch (NumberFormatException exception) {
+				throw new GradleException("Property '%s' must be a number but was: '%s'".formatted(name, value), exception);
+			}
+		});
+	}
+
+	private Optional<String> getString(String name) {
+
+		return Optional.ofNullable(values.get(name));
+	}
+}
@@ -0,0 +1,90 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureLogger;
+import com.softicar.gradle.test.logger.plugin.test.run.RedundantTestRunLogger;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+
+/**
+ * A build service that aggregates the results of the test tasks of all
+ * projects, for the duration of a build.
+ * <p>
+ * The events of the test tasks of a project are recorded by a
+ * {@link TestLogger} of that project, since most of the recorded files, e.g.
+ * the duration history and the quarantine file, belong to a project. The
+ * service is registered as a task completion listener. As soon as the final
+ * test task of a project completed, the reports of that project are logged,
+ * and its background activities are stopped.
+ * <p>
+ * When the service is closed at the end of the build, the failures and the
+ * redundant test runs of all projects are logged as a single report, ordered
+ * by project path. Projects whose final test task was not executed are
+ * reported then as well.
+ */
+public abstract class SofticarTestLoggerService implements BuildService<BuildServiceParameters.None>, OperationCompletionListener, AutoCloseable {
+
+	static final String NAME = "softicarTestLogger";
+
+	private final Logger logger = Logging.getLogger(SofticarTestLoggerPlugin.class);
+	private final Map<String, TestLogger> runningTestLoggers = new ConcurrentSkipListMap<>();
+	private final Collection<TestLogger> finishedTestLoggers = new ConcurrentLinkedQueue<>();
+
+	TestLogger getTestLogger(TestLoggerConfiguration configuration) {
+
+		return runningTestLoggers.computeIfAbsent(configuration.getProjectPath(), dummy -> new TestLogger(configuration));
+	}
+
+	@Override
+	public void onFinish(FinishEvent event) {
+
+		if (event instanceof TaskFinishEvent) {
+			String taskPath = ((TaskFinishEvent) event).getDescriptor().getTaskPath();
+			runningTestLoggers//
+				.values()
+				.stream()
+				.filter(it -> it.getConfiguration().getFinalTaskPath().equals(taskPath))
+				.findFirst()
+				.ifPresent(this::finish);
+		}
+	}
+
+	@Override
+	public void close() {
+
+		runningTestLoggers.values().forEach(this::finish);
+		List<TestLogger> testLoggers = finishedTestLoggers//
+			.stream()
+			.sorted(Comparator.comparing(it -> it.getConfiguration().getProjectPath()))
+			.collect(Collectors.toList());
+		new TestFailureLogger(logger).log(testLoggers.stream().map(TestLogger::getResultRecorder).collect(Collectors.toList()));
+		new RedundantTestRunLogger(logger).log(testLoggers.stream().map(TestLogger::getTestRunTracker).collect(Collectors.toList()));
+		testLoggers.forEach(it -> it.getResultRecorder().close());
+		finishedTestLoggers.clear();
+	}
+
+	private void finish(TestLogger testLogger) {
+
+		String projectPath = testLogger.getConfiguration().getProjectPath();
+		if (runningTestLoggers.remove(projectPath, testLogger)) {
+			finishedTestLoggers.add(testLogger);
+			try {
+				testLogger.executeOnTasksFinished();
+			} catch (RuntimeException exception) {
+				// the reports of the other projects must still be logged
+				logger.warn(String.format("Failed to log the test reports of project %s.", projectPath), exception);
+			}
+		}
+	}
+}
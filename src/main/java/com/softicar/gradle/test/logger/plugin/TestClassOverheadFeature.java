@@ -0,0 +1,52 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.fixture.TestClassOverheadLogger;
+import com.softicar.gradle.test.logger.plugin.test.fixture.TestClassOverheadTracker;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import java.util.Objects;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestDescriptor;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Logs the fixture overhead of the test classes, i.e. their time outside of
+ * test methods.
+ */
+class TestClassOverheadFeature extends AbstractTestLoggerFeature {
+
+	private final SofticarTestLoggerProperties properties;
+	private final Logger logger;
+	private final TestClassOverheadTracker tracker;
+
+	public TestClassOverheadFeature(SofticarTestLoggerProperties properties, Logger logger) {
+
+		this.properties = Objects.requireNonNull(properties);
+		this.logger = Objects.requireNonNull(logger);
+		this.tracker = new TestClassOverheadTracker();
+	}
+
+	@Override
+	public void executeBeforeSuite(TestDescriptor descriptor) {
+
+		tracker.startSuite(descriptor);
+	}
+
+	@Override
+	public void executeAfterSuite(TestDescriptor descriptor) {
+
+		tracker.endSuite(descriptor);
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		tracker.recordMethod(methodName.getClassName(), metrics.getEndTimestamp() - metrics.getStartTimestamp());
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		new TestClassOverheadLogger(logger, properties.getHistoryTop()).log(tracker.getOverheads());
+	}
+}
@@ -0,0 +1,69 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.histogram.TestDurationHistogramLogger;
+import com.softicar.gradle.test.logger.plugin.test.histogram.TestDurationHistograms;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Records the test durations in histograms per test class, which are merged
+ * across builds, and logs their percentiles.
+ */
+class TestDurationHistogramFeature extends AbstractTestLoggerFeature {
+
+	private static final String HISTOGRAM_FILE_NAME = "test-duration-histograms.bin";
+
+	private final TestLoggerConfiguration configuration;
+	private final Logger logger;
+	private final TestDurationHistograms histograms;
+
+	public TestDurationHistogramFeature(TestLoggerConfiguration configuration, Logger logger) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.logger = Objects.requireNonNull(logger);
+		this.histograms = new TestDurationHistograms();
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		histograms.record(methodName.getClassName(), metrics.getEndTimestamp() - metrics.getStartTimestamp());
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		if (histograms.isEmpty()) {
+			return;
+		}
+
+		File file = configuration.getOutputFile(HISTOGRAM_FILE_NAME);
+		TestDurationHistograms merged = new TestDurationHistograms();
+		readHistograms(file).ifPresent(merged::merge);
+		merged.merge(histograms);
+		merged.write(file);
+		configuration//
+			.getProperties()
+			.getHistogramsMerge()
+			.forEach(path -> readHistograms(configuration.getProjectFile(path)).ifPresent(merged::merge));
+		new TestDurationHistogramLogger(logger, configuration.getProperties().getHistoryTop()).log(configuration.getProjectPath(), histograms, merged);
+	}
+
+	private Optional<TestDurationHistograms> readHistograms(File file) {
+
+		if (file.exists()) {
+			try {
+				return Optional.of(TestDurationHistograms.read(file));
+			} catch (IOException exception) {
+				logger.warn(String.format("Ignoring unreadable test duration histogram file %s: %s", file, exception.getMessage()));
+			}
+		}
+		return Optional.empty();
+	}
+}
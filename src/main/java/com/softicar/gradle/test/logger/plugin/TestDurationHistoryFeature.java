@@ -0,0 +1,140 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.history.SlowestTestLogger;
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistory;
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistoryBuild;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import com.softicar.gradle.test.logger.plugin.test.regression.TestDurationBaseline;
+import com.softicar.gradle.test.logger.plugin.test.regression.TestDurationRegression;
+import com.softicar.gradle.test.logger.plugin.test.regression.TestDurationRegressionDetector;
+import com.softicar.gradle.test.logger.plugin.test.regression.TestDurationRegressionLogger;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import com.softicar.gradle.test.logger.plugin.test.schedule.TestClassScheduleLogger;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Records the test durations in the {@link TestDurationHistory}, and logs the
+ * reports that are based on it: the slowest tests, the scheduling of the test
+ * classes, and the duration regressions.
+ */
+class TestDurationHistoryFeature extends AbstractTestLoggerFeature {
+
+	private static final String HISTORY_FILE_NAME = "test-duration-history.bin";
+
+	private final TestLoggerConfiguration configuration;
+	private final SofticarTestLoggerProperties properties;
+	private final Logger logger;
+	private final TestMethodNameRegistry methodNameRegistry;
+	private final TestRunTracker testRunTracker;
+	private final TestDurationHistory history;
+	private int maxParallelForks;
+
+	public TestDurationHistoryFeature(TestLoggerConfiguration configuration, Logger logger, TestMethodNameRegistry methodNameRegistry, TestRunTracker testRunTracker) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.properties = configuration.getProperties();
+		this.logger = Objects.requireNonNull(logger);
+		this.methodNameRegistry = Objects.requireNonNull(methodNameRegistry);
+		this.testRunTracker = Objects.requireNonNull(testRunTracker);
+		this.history = new TestDurationHistory(configuration.getOutputFile(HISTORY_FILE_NAME), properties.getHistoryBuilds() - 1);
+		this.maxParallelForks = 1;
+	}
+
+	/**
+	 * Determines whether this feature is enabled, i.e. whether any of the
+	 * reports that are based on the history is enabled.
+	 *
+	 * @param properties
+	 *            the {@link SofticarTestLoggerProperties} (never <i>null</i>)
+	 * @return <i>true</i> if enabled; <i>false</i> otherwise
+	 */
+	public static boolean isEnabled(SofticarTestLoggerProperties properties) {
+
+		return properties.isHistory() || properties.isSchedule() || properties.isProgress() || properties.getRegression().isPresent() || properties.isRegressionUpdate();
+	}
+
+	public TestDurationHistory getHistory() {
+
+		return history;
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		maxParallelForks = testTask.getMaxParallelForks();
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		history.record(methodName, metrics.getDuration());
+	}
+
+	@Override
+	public void executeAfterTestTask() {
+
+		if (properties.getRegression().isPresent() || properties.isRegressionUpdate()) {
+			checkRegressions();
+		}
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		history.close();
+		if (properties.isHistory()) {
+			new SlowestTestLogger(logger, properties.getHistoryTop()).log(history);
+		}
+		if (properties.isSchedule() && testRunTracker.getMakespan() > 0) {
+			new TestClassScheduleLogger(logger).log(history, maxParallelForks, testRunTracker.getMakespan());
+		}
+	}
+
+	private void checkRegressions() {
+
+		Optional<TestDurationHistoryBuild> currentBuild = history.getCurrentBuild();
+		if (currentBuild.isEmpty()) {
+			return;
+		}
+
+		Map<TestMethodName, Long> methodDurations = history.getMethodDurations(currentBuild.get());
+		Map<String, Long> classDurations = history.getClassDurations(currentBuild.get());
+		File baselineFile = configuration.getProjectFile(TestLogger.BASELINE_FILE_NAME);
+		if (properties.isRegressionUpdate()) {
+			Map<String, Long> packageBudgets = baselineFile.exists()? TestDurationBaseline.read(baselineFile, methodNameRegistry).getPackageBudgets() : Map.of();
+			new TestDurationBaseline(methodDurations, classDurations, packageBudgets).write(baselineFile);
+			logger.lifecycle(String.format("Test duration baseline updated: %s", baselineFile));
+			logger.lifecycle("");
+			return;
+		}
+
+		TestDurationBaseline baseline;
+		String baselineSource;
+		if (baselineFile.exists()) {
+			baseline = TestDurationBaseline.read(baselineFile, methodNameRegistry);
+			baselineSource = baselineFile.getName();
+		} else {
+			List<TestDurationHistoryBuild> builds = history.getBuilds();
+			baseline = TestDurationBaseline.fromHistory(history, builds.subList(0, builds.size() - 1));
+			baselineSource = String.format("the median of %s previous build(s)", builds.size() - 1);
+		}
+
+		List<TestDurationRegression> regressions = new TestDurationRegressionDetector(properties.getRegressionRatio(), properties.getRegressionDelta())//
+			.detect(baseline, methodDurations, classDurations);
+		new TestDurationRegressionLogger(logger).log(regressions, baselineSource);
+		if (!regressions.isEmpty() && properties.getRegression().filter("fail"::equals).isPresent()) {
+			throw new GradleException(String.format("%s test duration regression(s) detected, compared to %s.", regressions.size(), baselineSource));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.event.TestEventLogWriter;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunMetrics;
+import java.io.File;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Streams a structured record per test event to a compressed JSON Lines file.
+ */
+class TestEventLogFeature extends AbstractTestLoggerFeature {
+
+	private static final String EVENT_LOG_FILE_NAME = "test-events-%s.jsonl.gz";
+
+	private final TestEventLogWriter writer;
+
+	public TestEventLogFeature(TestLoggerConfiguration configuration, Logger logger) {
+
+		File file = configuration.getOutputFile(String.format(EVENT_LOG_FILE_NAME, SofticarTestLoggerPlugin.TEST_TASK_NAME));
+		this.writer = new TestEventLogWriter(file, configuration.getTestTaskPath(), logger);
+	}
+
+	@Override
+	public void executeBeforeTest(TestMethodName methodName, TestRunMetrics metrics) {
+
+		writer.writeStart(methodName, metrics);
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		writer.writeEnd(methodName, metrics, result);
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		writer.close();
+	}
+}
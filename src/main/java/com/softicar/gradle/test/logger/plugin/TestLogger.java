@@ -0,0 +1,509 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureSpool;
+import com.softicar.gradle.test.logger.plugin.test.flaky.FlakyTestDetector;
+import com.softicar.gradle.test.logger.plugin.test.flaky.FlakyTestLogger;
+import com.softicar.gradle.test.logger.plugin.test.flaky.TestQuarantineFile;
+import com.softicar.gradle.test.logger.plugin.test.flaky.TestRetryMarker;
+import com.softicar.gradle.test.logger.plugin.test.impact.TestImpactFilter;
+import com.softicar.gradle.test.logger.plugin.test.impact.TestImpactSelection;
+import com.softicar.gradle.test.logger.plugin.test.log.TestLogPrinter;
+import com.softicar.gradle.test.logger.plugin.test.log.TestLogSummaryPrinter;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import com.softicar.gradle.test.logger.plugin.test.output.TestOutputCapture;
+import com.softicar.gradle.test.logger.plugin.test.regression.TestDurationBaseline;
+import com.softicar.gradle.test.logger.plugin.test.result.TestResultRecorder;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import com.softicar.gradle.test.logger.plugin.test.shard.TestShardAssigner;
+import com.softicar.gradle.test.logger.plugin.test.shard.TestShardAssignment;
+import com.softicar.gradle.test.logger.plugin.test.shard.TestShardFilter;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestDescriptor;
+import org.gradle.api.tasks.testing.TestResult;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * The execution-time state of the {@link SofticarTestLoggerPlugin} for the
+ * test tasks of a single project.
+ * <p>
+ * Instances are created and owned by the {@link SofticarTestLoggerService}, and
+ * must not refer to the project, so that the test tasks can be stored in the
+ * configuration cache. The test tasks reach their instance through a
+ * {@link TestLoggerReference}.
+ */
+class TestLogger {
+
+	static final String BASELINE_FILE_NAME = "test-duration-baseline.txt";
+
+	private static final String FAILURE_SPOOL_FILE_NAME = "test-failures.spool";
+	private static final String IMPACT_INDEX_FILE_NAME = "test-impact-index.bin";
+	private static final String RETRY_MARKER_FILE_NAME = "test-retry-pending";
+
+	private final TestLoggerConfiguration configuration;
+	private final Logger logger;
+	private final SofticarTestLoggerProperties properties;
+	private final TestMethodNameRegistry methodNameRegistry;
+	private final TestRunTracker testRunTracker;
+	private final TestResultRecorder resultRecorder;
+	private final Optional<TestLogPrinter> printer;
+	private final Optional<TestLogSummaryPrinter> summaryPrinter;
+	private final Optional<TestOutputCapture> outputCapture;
+	private final List<AbstractTestLoggerFeature> features;
+	private final TestQuarantineFile quarantineFile;
+	private final FlakyTestDetector flakyTestDetector;
+	private final TestRetryMarker retryMarker;
+	private final Map<TestMethodName, ResultType> quarantineResultMap;
+	private TestShardFilter shardFilter;
+	private TestImpactFilter impactFilter;
+	private boolean ignoreFailures;
+
+	public TestLogger(TestLoggerConfiguration configuration) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.logger = Logging.getLogger(SofticarTestLoggerPlugin.class);
+		this.properties = configuration.getProperties();
+		this.methodNameRegistry = new TestMethodNameRegistry();
+		this.testRunTracker = new TestRunTracker(methodNameRegistry);
+		this.resultRecorder = new TestResultRecorder(methodNameRegistry, new TestFailureSpool(getOutputFile(FAILURE_SPOOL_FILE_NAME), methodNameRegistry));
+		this.printer = properties.isVerbose() || properties.isVerboseSummary()? Optional.of(new TestLogPrinter(logger)) : Optional.empty();
+		this.summaryPrinter = createSummaryPrinter();
+		this.outputCapture = properties.getOutputLimit() > 0? Optional.of(new TestOutputCapture(properties.getOutputLimit())) : Optional.empty();
+		this.features = createFeatures();
+		this.quarantineFile = new TestQuarantineFile(configuration.getProjectFile(properties.getRetryQuarantine()), methodNameRegistry);
+		this.flakyTestDetector = new FlakyTestDetector();
+		this.retryMarker = new TestRetryMarker(getOutputFile(RETRY_MARKER_FILE_NAME));
+		this.quarantineResultMap = Collections.synchronizedMap(new TreeMap<>());
+		this.shardFilter = null;
+		this.impactFilter = null;
+		this.ignoreFailures = false;
+	}
+
+	/**
+	 * Returns the JVM arguments that start the profile recording, the heap
+	 * sampling and the resource snapshots in the test worker processes, if
+	 * enabled.
+	 *
+	 * @param configuration
+	 *            the {@link TestLoggerConfiguration} (never <i>null</i>)
+	 * @return the JVM arguments (never <i>null</i>)
+	 */
+	static List<String> getJvmArguments(TestLoggerConfiguration configuration) {
+
+		List<String> arguments = new ArrayList<>();
+		if (configuration.getProperties().isProfile()) {
+			arguments.add(TestProfileFeature.getJvmArgument(configuration));
+		}
+		if (configuration.getProperties().isRecycle()) {
+			arguments.add(WorkerRecyclingFeature.getJvmArgument(configuration));
+		}
+		if (configuration.getProperties().isLeaks()) {
+			arguments.add(ResourceLeakFeature.getJvmArgument(configuration));
+		}
+		return arguments;
+	}
+
+	// -------------------- test task -------------------- //
+
+	public void executeBeforeTestTask(Test testTask) {
+
+		SortedSet<TestMethodName> quarantined = configuration.isQuarantine()? quarantineFile.load() : Collections.emptySortedSet();
+		quarantined.forEach(it -> testTask.getFilter().excludeTest(it.getClassName(), it.getMethodName()));
+		if (!quarantined.isEmpty()) {
+			// all tests of the task may be quarantined
+			testTask.getFilter().setFailOnNoMatchingTests(false);
+		}
+		if (properties.getRetryBudget() > 0) {
+			// whether failures shall fail the build is decided after the retries
+			ignoreFailures = testTask.getIgnoreFailures();
+			testTask.setIgnoreFailures(true);
+		}
+
+		summaryPrinter.ifPresent(TestLogSummaryPrinter::start);
+		if (properties.getShardTotal() > 1) {
+			logShardAssignment(getShardFilter(testTask.getTestClassesDirs()).getAssignment());
+		}
+		if (properties.isImpact()) {
+			logImpactSelection(getImpactFilter(testTask.getTestClassesDirs(), testTask.getClasspath()).getSelection());
+		}
+		Predicate<TestMethodName> selection = methodName -> !quarantined.contains(methodName) && isClassSelected(methodName.getClassName(), testTask);
+		features.forEach(it -> it.executeBeforeTestTask(testTask, selection));
+	}
+
+	public void executeAfterTestTask() {
+
+		summaryPrinter.ifPresent(TestLogSummaryPrinter::close);
+		if (impactFilter != null && resultRecorder.isEmpty()) {
+			impactFilter.writeIndex();
+		}
+		features.forEach(AbstractTestLoggerFeature::executeAfterTestTask);
+		int retryBudget = properties.getRetryBudget();
+		if (retryBudget > 0) {
+			retryMarker.update(!resultRecorder.isEmpty());
+			prepareRetry(retryBudget);
+		}
+	}
+
+	/**
+	 * Determines whether the given class file shall be considered by a test
+	 * task, according to the shard and the impact of changes.
+	 *
+	 * @param element
+	 *            the class file (never <i>null</i>)
+	 * @param testClassesDirs
+	 *            the test classes directories of the test task (never
+	 *            <i>null</i>)
+	 * @param classpath
+	 *            the classpath of the test task (never <i>null</i>)
+	 * @param impact
+	 *            whether the impact of changes shall be considered
+	 * @return <i>true</i> if the class file shall be considered; <i>false</i>
+	 *         otherwise
+	 */
+	public boolean isClassFileIncluded(FileTreeElement element, FileCollection testClassesDirs, FileCollection classpath, boolean impact) {
+
+		if (properties.getShardTotal() > 1 && !getShardFilter(testClassesDirs).isSatisfiedBy(element)) {
+			return false;
+		} else if (impact && properties.isImpact()) {
+			return getImpactFilter(testClassesDirs, classpath).isSatisfiedBy(element);
+		} else {
+			return true;
+		}
+	}
+
+	public void executeBeforeSuite(TestDescriptor descriptor) {
+
+		features.forEach(it -> it.executeBeforeSuite(descriptor));
+	}
+
+	public void executeAfterSuite(TestDescriptor descriptor) {
+
+		features.forEach(it -> it.executeAfterSuite(descriptor));
+	}
+
+	public void executeBeforeTest(TestDescriptor descriptor) {
+
+		TestRunMetrics metrics = testRunTracker.start(descriptor);
+		printer
+			.filter(dummy -> summaryPrinter.isEmpty())
+			.ifPresent(
+				it -> it
+					.printStart(//
+						metrics.getIndex(),
+						metrics.getRunningCount(),
+						descriptor.getName(),
+						descriptor.getClassName()));
+		outputCapture.ifPresent(it -> it.start(descriptor));
+		if (!features.isEmpty()) {
+			TestMethodName methodName = methodNameRegistry.get(descriptor);
+			features.forEach(it -> it.executeBeforeTest(methodName, metrics));
+		}
+	}
+
+	public void executeAfterTest(TestDescriptor descriptor, TestResult result) {
+
+		FinishedTestRunMetrics metrics = testRunTracker.end(descriptor);
+		summaryPrinter.ifPresent(it -> it.printResult(metrics, descriptor.getName(), descriptor.getClassName(), result.getResultType()));
+		printer
+			.filter(dummy -> summaryPrinter.isEmpty())
+			.ifPresent(
+				it -> it
+					.printResult(//
+						metrics.getIndex(),
+						metrics.getRunningCount(),
+						descriptor.getName(),
+						descriptor.getClassName(),
+						result.getResultType(),
+						metrics.getDuration()));
+		resultRecorder.recordResult(descriptor, result, getCapturedOutput(descriptor, result));
+		if (!features.isEmpty()) {
+			TestMethodName methodName = methodNameRegistry.get(descriptor);
+			features.forEach(it -> it.executeAfterTest(methodName, metrics, result));
+		}
+	}
+
+	public void executeOnOutput(TestDescriptor descriptor, String message) {
+
+		outputCapture.ifPresent(it -> it.append(descriptor, message));
+	}
+
+	// -------------------- retry task -------------------- //
+
+	/**
+	 * Determines whether the last execution of the test task ignored
+	 * failures, in order to retry them. Such an execution must not be
+	 * considered up to date.
+	 *
+	 * @return <i>true</i> if failures were ignored; <i>false</i> otherwise
+	 */
+	public boolean hasIgnoredFailures() {
+
+		return retryMarker.exists();
+	}
+
+	public boolean hasRetriedTests() {
+
+		return !flakyTestDetector.getRetriedMethodNames().isEmpty();
+	}
+
+	public void executeBeforeRetryTask(Test retryTask) {
+
+		retryTask.setIgnoreFailures(ignoreFailures);
+		flakyTestDetector//
+			.getRetriedMethodNames()
+			.forEach(it -> retryTask.getFilter().includeTest(it.getClassName(), it.getMethodName()));
+	}
+
+	public void executeBeforeRetryTest(TestDescriptor descriptor) {
+
+		outputCapture.ifPresent(it -> it.start(descriptor));
+	}
+
+	public void executeAfterRetryTest(TestDescriptor descriptor, TestResult result) {
+
+		flakyTestDetector.recordRetryResult(methodNameRegistry.get(descriptor), result.getResultType());
+		resultRecorder.recordResult(descriptor, result, getCapturedOutput(descriptor, result));
+	}
+
+	// -------------------- quarantine task -------------------- //
+
+	public boolean hasQuarantinedTests() {
+
+		return !quarantineFile.load().isEmpty();
+	}
+
+	public void executeBeforeQuarantineTask(Test quarantineTask) {
+
+		quarantineFile.load().forEach(it -> quarantineTask.getFilter().includeTest(it.getClassName(), it.getMethodName()));
+	}
+
+	public void executeAfterQuarantineTest(TestDescriptor descriptor, TestResult result) {
+
+		quarantineResultMap.put(methodNameRegistry.get(descriptor), result.getResultType());
+	}
+
+	// -------------------- tasks finished -------------------- //
+
+	/**
+	 * Stops all background activities, and logs the reports of the project.
+	 * <p>
+	 * The failures and the redundant test runs are not logged here, since
+	 * the {@link SofticarTestLoggerService} logs them for all projects at the
+	 * end of the build, see {@link #getResultRecorder()} and
+	 * {@link #getTestRunTracker()}.
+	 */
+	public void executeOnTasksFinished() {
+
+		summaryPrinter.ifPresent(TestLogSummaryPrinter::close);
+		printer.ifPresent(TestLogPrinter::close);
+		logRetriesAndQuarantine();
+		features.forEach(AbstractTestLoggerFeature::executeOnTasksFinished);
+	}
+
+	public TestLoggerConfiguration getConfiguration() {
+
+		return configuration;
+	}
+
+	public TestResultRecorder getResultRecorder() {
+
+		return resultRecorder;
+	}
+
+	public TestRunTracker getTestRunTracker() {
+
+		return testRunTracker;
+	}
+
+	// -------------------- private -------------------- //
+
+	private boolean isClassSelected(String className, Test testTask) {
+
+		int nestedIndex = className.indexOf('$');
+		String topLevelClassName = nestedIndex >= 0? className.substring(0, nestedIndex) : className;
+		if (properties.getShardTotal() > 1 && !getShardFilter(testTask.getTestClassesDirs()).getAssignment().contains(topLevelClassName)) {
+			return false;
+		} else if (properties.isImpact()) {
+			return getImpactFilter(testTask.getTestClassesDirs(), testTask.getClasspath()).getSelection().contains(topLevelClassName);
+		} else {
+			return true;
+		}
+	}
+
+	private void logShardAssignment(TestShardAssignment assignment) {
+
+		logger
+			.lifecycle(
+				String
+					.format(//
+						"Test shard %s of %s (index %s): %s of %s class(es), expected duration: %.2fs of %.2fs",
+						assignment.getIndex() + 1,
+						assignment.getTotal(),
+						assignment.getIndex(),
+						assignment.getClassNames().size(),
+						assignment.getTotalClassCount(),
+						assignment.getExpectedDuration() / 1000d,
+						assignment.getTotalExpectedDuration() / 1000d));
+	}
+
+	private void logImpactSelection(TestImpactSelection selection) {
+
+		Optional<String> fullRunReason = selection.getFullRunReason();
+		if (fullRunReason.isPresent()) {
+			logger.lifecycle(String.format("Test impact: executing all %s test class(es), since %s", selection.getTestClassNames().size(), fullRunReason.get()));
+		} else {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Test impact: executing %s of %s test class(es), affected by %s changed class(es)",
+							selection.getSelectedTestClassNames().size(),
+							selection.getTestClassNames().size(),
+							selection.getChangedClassCount()));
+		}
+	}
+
+	private void prepareRetry(int retryBudget) {
+
+		List<TestMethodName> failed = resultRecorder.getFailedMethodNames();
+		if (failed.size() <= retryBudget) {
+			flakyTestDetector.setRetriedMethodNames(failed);
+		} else {
+			String message = String.format("%s test(s) failed, which exceeds the retry budget of %s test(s).", failed.size(), retryBudget);
+			if (ignoreFailures) {
+				logger.warn(message);
+			} else {
+				throw new GradleException(message);
+			}
+		}
+	}
+
+	private String getCapturedOutput(TestDescriptor descriptor, TestResult result) {
+
+		if (outputCapture.isPresent() && result.getResultType() == ResultType.FAILURE) {
+			return outputCapture.get().end(descriptor);
+		} else {
+			outputCapture.ifPresent(it -> it.discard(descriptor));
+			return "";
+		}
+	}
+
+	private void logRetriesAndQuarantine() {
+
+		FlakyTestLogger flakyTestLogger = new FlakyTestLogger(logger);
+		if (!flakyTestDetector.getRetriedMethodNames().isEmpty()) {
+			List<TestMethodName> newlyQuarantined = quarantineFile.addAll(flakyTestDetector.getFlakyMethodNames());
+			flakyTestLogger.logRetries(flakyTestDetector, newlyQuarantined, quarantineFile.getFile());
+		}
+		flakyTestLogger.logQuarantine(quarantineResultMap);
+	}
+
+	private Optional<TestLogSummaryPrinter> createSummaryPrinter() {
+
+		if (properties.isVerboseSummary()) {
+			return Optional
+				.of(
+					new TestLogSummaryPrinter(
+						logger,
+						printer.get(),
+						testRunTracker,
+						properties.getVerboseInterval() * 1000L,
+						properties.getVerboseThreshold() * 1000L));
+		} else {
+			return Optional.empty();
+		}
+	}
+
+	private List<AbstractTestLoggerFeature> createFeatures() {
+
+		List<AbstractTestLoggerFeature> features = new ArrayList<>();
+		if (properties.getWatchdogThreshold() > 0) {
+			features.add(new HungTestWatchdogFeature(configuration, logger, testRunTracker));
+		}
+		if (properties.isEvents()) {
+			features.add(new TestEventLogFeature(configuration, logger));
+		}
+		if (TestDurationHistoryFeature.isEnabled(properties)) {
+			TestDurationHistoryFeature historyFeature = new TestDurationHistoryFeature(configuration, logger, methodNameRegistry, testRunTracker);
+			features.add(historyFeature);
+			if (properties.isProgress()) {
+				features.add(new TestProgressFeature(properties, logger, historyFeature.getHistory()));
+			}
+		}
+		if (properties.isLeaks()) {
+			features.add(new ResourceLeakFeature(configuration, logger, testRunTracker));
+		}
+		if (properties.isHistograms()) {
+			features.add(new TestDurationHistogramFeature(configuration, logger));
+		}
+		if (properties.isFixtures()) {
+			features.add(new TestClassOverheadFeature(properties, logger));
+		}
+		if (properties.isTimeline() || properties.isProfile() || properties.isRecycle()) {
+			TestTimelineFeature timelineFeature = new TestTimelineFeature(configuration, logger);
+			features.add(timelineFeature);
+			if (properties.isProfile()) {
+				features.add(new TestProfileFeature(configuration, logger, timelineFeature.getTimeline()));
+			}
+			if (properties.isRecycle()) {
+				features.add(new WorkerRecyclingFeature(configuration, logger, timelineFeature.getTimeline()));
+			}
+		}
+		if (properties.getFailFastThreshold() > 1 || properties.getFailFastForkThreshold() > 1) {
+			// must be the last feature, since it may throw
+			features.add(new FailFastFeature(properties, logger, testRunTracker));
+		}
+		return features;
+	}
+
+	private synchronized TestShardFilter getShardFilter(FileCollection testClassesDirs) {
+
+		if (shardFilter == null) {
+			TestShardAssigner assigner = new TestShardAssigner(properties.getShardIndex(), properties.getShardTotal());
+			shardFilter = new TestShardFilter(assigner, () -> testClassesDirs, this::getBaselineClassDurations);
+		}
+		return shardFilter;
+	}
+
+	private synchronized TestImpactFilter getImpactFilter(FileCollection testClassesDirs, FileCollection classpath) {
+
+		if (impactFilter == null) {
+			impactFilter = new TestImpactFilter(
+				getOutputFile(IMPACT_INDEX_FILE_NAME),
+				configuration.getRootDirectory(),
+				configuration::getBuildFiles,
+				() -> classpath,
+				() -> testClassesDirs,
+				logger);
+		}
+		return impactFilter;
+	}
+
+	private Map<String, Long> getBaselineClassDurations() {
+
+		File baselineFile = configuration.getProjectFile(BASELINE_FILE_NAME);
+		return baselineFile.exists()? TestDurationBaseline.read(baselineFile, methodNameRegistry).getClassDurations() : Map.of();
+	}
+
+	private File getOutputFile(String name) {
+
+		return configuration.getOutputFile(name);
+	}
+}
@@ -0,0 +1,137 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import java.io.File;
+import java.util.List;
+import org.gradle.api.Project;
+
+/**
+ * The project-specific values that a {@link TestLogger} needs at execution
+ * time.
+ * <p>
+ * All values are determined at configuration time, so that no reference to
+ * the {@link Project} is kept, and instances can be stored in the
+ * configuration cache.
+ */
+class TestLoggerConfiguration {
+
+	private static final String OUTPUT_DIRECTORY_NAME = "softicar-test-logger";
+
+	private final String projectPath;
+	private final String testTaskPath;
+	private final String finalTaskPath;
+	private final File projectDirectory;
+	private final File rootDirectory;
+	private final File outputDirectory;
+	private final List<File> buildFiles;
+	private final SofticarTestLoggerProperties properties;
+	private final boolean quarantine;
+
+	public TestLoggerConfiguration(Project project, String testTaskName) {
+
+		this.projectPath = project.getPath();
+		this.testTaskPath = project.absoluteProjectPath(testTaskName);
+		this.projectDirectory = project.getProjectDir();
+		this.rootDirectory = project.getRootDir();
+		this.outputDirectory = project.getLayout().getBuildDirectory().dir(OUTPUT_DIRECTORY_NAME).get().getAsFile();
+		this.buildFiles = List
+			.of(//
+				project.getBuildFile(),
+				project.getRootProject().getBuildFile(),
+				new File(rootDirectory, "settings.gradle"),
+				new File(rootDirectory, "settings.gradle.kts"),
+				new File(rootDirectory, "gradle.properties"),
+				new File(rootDirectory, "gradle/libs.versions.toml"),
+				new File(projectDirectory, "gradle.properties"));
+		this.properties = new SofticarTestLoggerProperties(project);
+		this.quarantine = properties.getRetryBudget() > 0 || getProjectFile(properties.getRetryQuarantine()).exists();
+		this.finalTaskPath = project.absoluteProjectPath(quarantine? SofticarTestLoggerPlugin.QUARANTINE_TASK_NAME : testTaskName);
+	}
+
+	public String getProjectPath() {
+
+		return projectPath;
+	}
+
+	public String getTestTaskPath() {
+
+		return testTaskPath;
+	}
+
+	/**
+	 * Returns the path of the task that is executed last among the test tasks
+	 * of the project, i.e. the task after which the reports of the project
+	 * are logged.
+	 *
+	 * @return the task path (never <i>null</i>)
+	 */
+	public String getFinalTaskPath() {
+
+		return finalTaskPath;
+	}
+
+	/**
+	 * Determines whether tests can be quarantined, i.e. whether failed tests
+	 * are retried, or whether the quarantine file exists.
+	 * <p>
+	 * Otherwise, neither the quarantine file nor the <i>testQuarantine</i>
+	 * task are used.
+	 *
+	 * @return <i>true</i> if tests can be quarantined; <i>false</i> otherwise
+	 */
+	public boolean isQuarantine() {
+
+		return quarantine;
+	}
+
+	public File getRootDirectory() {
+
+		return rootDirectory;
+	}
+
+	/**
+	 * Returns the build files whose changes may affect the results of any
+	 * test, e.g. because they define dependency versions.
+	 *
+	 * @return the build files, which need not exist (never <i>null</i>)
+	 */
+	public List<File> getBuildFiles() {
+
+		return buildFiles;
+	}
+
+	public SofticarTestLoggerProperties getProperties() {
+
+		return properties;
+	}
+
+	/**
+	 * Resolves the given path relative to the project directory.
+	 *
+	 * @param path
+	 *            the path to resolve (never <i>null</i>)
+	 * @return the resolved file (never <i>null</i>)
+	 */
+	public File getProjectFile(String path) {
+
+		return projectDirectory.toPath().resolve(path).toFile();
+	}
+
+	/**
+	 * Returns a file in the output directory of the plugin, within the build
+	 * directory of the project.
+	 *
+	 * @param name
+	 *            the name of the file (never <i>null</i>)
+	 * @return the output file (never <i>null</i>)
+	 */
+	public File getOutputFile(String name) {
+
+		return new File(outputDirectory, name);
+	}
+
+	@Override
+	public String toString() {
+
+		return projectPath;
+	}
+}
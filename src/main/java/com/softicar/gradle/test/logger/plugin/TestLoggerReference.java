@@ -0,0 +1,28 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import java.util.Objects;
+import org.gradle.api.provider.Provider;
+
+/**
+ * Refers to the {@link TestLogger} of a project, from within the test tasks.
+ * <p>
+ * In contrast to the {@link TestLogger} itself, instances can be stored in the
+ * configuration cache. The {@link TestLogger} is obtained from the
+ * {@link SofticarTestLoggerService} of the current build when needed.
+ */
+class TestLoggerReference {
+
+	private final Provider<SofticarTestLoggerService> service;
+	private final TestLoggerConfiguration configuration;
+
+	public TestLoggerReference(Provider<SofticarTestLoggerService> service, TestLoggerConfiguration configuration) {
+
+		this.service = Objects.requireNonNull(service);
+		this.configuration = Objects.requireNonNull(configuration);
+	}
+
+	public TestLogger get() {
+
+		return service.get().getTestLogger(configuration);
+	}
+}
@@ -0,0 +1,78 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.profile.TestProfile;
+import com.softicar.gradle.test.logger.plugin.test.profile.TestProfileAnalyzer;
+import com.softicar.gradle.test.logger.plugin.test.profile.TestProfileLogger;
+import com.softicar.gradle.test.logger.plugin.test.profile.TestProfileRecording;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+
+/**
+ * Records the test worker processes with the Java Flight Recorder, and
+ * attributes allocations, garbage collections and CPU time to the tests of
+ * the {@link TestTimeline}.
+ */
+class TestProfileFeature extends AbstractTestLoggerFeature {
+
+	private static final String RECORDING_DIRECTORY_NAME = "jfr";
+	private static final String PROFILE_FILE_NAME = "test-profile.csv";
+
+	private final TestLoggerConfiguration configuration;
+	private final Logger logger;
+	private final TestTimeline timeline;
+	private final TestProfileRecording recording;
+
+	public TestProfileFeature(TestLoggerConfiguration configuration, Logger logger, TestTimeline timeline) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.logger = Objects.requireNonNull(logger);
+		this.timeline = Objects.requireNonNull(timeline);
+		this.recording = createRecording(configuration);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the recording in the test worker
+	 * processes.
+	 *
+	 * @param configuration
+	 *            the {@link TestLoggerConfiguration} (never <i>null</i>)
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public static String getJvmArgument(TestLoggerConfiguration configuration) {
+
+		return createRecording(configuration).getJvmArgument();
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		recording.prepare();
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		List<File> recordingFiles = recording.getRecordingFiles();
+		if (!recordingFiles.isEmpty()) {
+			try {
+				List<TestProfile> profiles = new TestProfileAnalyzer(timeline).analyze(recordingFiles);
+				new TestProfileLogger(logger, configuration.getProperties().getHistoryTop())
+					.log(profiles, recordingFiles.size(), configuration.getOutputFile(PROFILE_FILE_NAME));
+			} catch (IOException exception) {
+				logger.warn(String.format("Failed to analyze test profile recordings in %s: %s", recording.getDirectory(), exception.getMessage()));
+			}
+		}
+	}
+
+	private static TestProfileRecording createRecording(TestLoggerConfiguration configuration) {
+
+		return new TestProfileRecording(configuration.getOutputFile(RECORDING_DIRECTORY_NAME));
+	}
+}
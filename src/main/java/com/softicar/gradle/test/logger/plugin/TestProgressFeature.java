@@ -0,0 +1,40 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistory;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.progress.ExpectedTestDurationCollector;
+import com.softicar.gradle.test.logger.plugin.test.progress.TestProgressReporter;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Periodically logs the progress of the test task, with an estimate of the
+ * remaining time, based on the durations in the {@link TestDurationHistory}.
+ */
+class TestProgressFeature extends AbstractTestLoggerFeature {
+
+	private final TestDurationHistory history;
+	private final TestProgressReporter reporter;
+
+	public TestProgressFeature(SofticarTestLoggerProperties properties, Logger logger, TestDurationHistory history) {
+
+		this.history = Objects.requireNonNull(history);
+		this.reporter = new TestProgressReporter(logger, properties.getProgressInterval() * 1000L);
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		reporter.start(new ExpectedTestDurationCollector(history).collect(selection));
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		reporter.testFinished(methodName, metrics.getDuration());
+	}
+}
@@ -0,0 +1,59 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.timeline.ForkUtilizationLogger;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimelineTraceWriter;
+import java.io.File;
+import java.util.Objects;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult;
+
+/**
+ * Records the test executions per fork in a {@link TestTimeline}.
+ * <p>
+ * If the timeline is enabled, it is exported as a Chrome trace file, and the
+ * utilization of the forks is logged. The timeline is also recorded for the
+ * {@link TestProfileFeature} and the {@link WorkerRecyclingFeature}, which
+ * attribute their samples to the tests.
+ */
+class TestTimelineFeature extends AbstractTestLoggerFeature {
+
+	private static final String TIMELINE_FILE_NAME = "test-timeline.json";
+
+	private final TestLoggerConfiguration configuration;
+	private final Logger logger;
+	private final TestTimeline timeline;
+
+	public TestTimelineFeature(TestLoggerConfiguration configuration, Logger logger) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.logger = Objects.requireNonNull(logger);
+		this.timeline = new TestTimeline();
+	}
+
+	public TestTimeline getTimeline() {
+
+		return timeline;
+	}
+
+	@Override
+	public void executeAfterTest(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		timeline.add(metrics.getWorker(), methodName, metrics.getStartTimestamp(), metrics.getEndTimestamp());
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		if (configuration.getProperties().isTimeline() && !timeline.isEmpty()) {
+			String taskPath = configuration.getTestTaskPath();
+			File file = configuration.getOutputFile(TIMELINE_FILE_NAME);
+			new TestTimelineTraceWriter(taskPath).write(timeline, file);
+			new ForkUtilizationLogger(logger).log(taskPath, timeline);
+			logger.lifecycle(String.format("Timeline: %s", file));
+			logger.lifecycle("");
+		}
+	}
+}
@@ -0,0 +1,102 @@
+package com.softicar.gradle.test.logger.plugin;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.recycle.HeapSample;
+import com.softicar.gradle.test.logger.plugin.test.recycle.HeapSampleRecording;
+import com.softicar.gradle.test.logger.plugin.test.recycle.WorkerHeapProfile;
+import com.softicar.gradle.test.logger.plugin.test.recycle.WorkerRecyclingAnalyzer;
+import com.softicar.gradle.test.logger.plugin.test.recycle.WorkerRecyclingLogger;
+import com.softicar.gradle.test.logger.plugin.test.recycle.WorkerRecyclingState;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.Test;
+
+/**
+ * Samples the heap of the test worker processes after garbage collections,
+ * and determines the <i>forkEvery</i> value that the next build applies to
+ * the test task, to recycle workers whose heap grew too much.
+ */
+class WorkerRecyclingFeature extends AbstractTestLoggerFeature {
+
+	private static final String HEAP_SAMPLE_DIRECTORY_NAME = "heap-samples";
+	private static final String RECYCLING_FILE_NAME = "test-worker-recycling.txt";
+
+	private final TestLoggerConfiguration configuration;
+	private final Logger logger;
+	private final TestTimeline timeline;
+	private final HeapSampleRecording heapRecording;
+	private int maxParallelForks;
+	private long appliedForkEvery;
+
+	public WorkerRecyclingFeature(TestLoggerConfiguration configuration, Logger logger, TestTimeline timeline) {
+
+		this.configuration = Objects.requireNonNull(configuration);
+		this.logger = Objects.requireNonNull(logger);
+		this.timeline = Objects.requireNonNull(timeline);
+		this.heapRecording = createRecording(configuration);
+		this.maxParallelForks = 1;
+		this.appliedForkEvery = 0;
+	}
+
+	/**
+	 * Returns the JVM argument that starts the heap sampling in the test
+	 * worker processes.
+	 *
+	 * @param configuration
+	 *            the {@link TestLoggerConfiguration} (never <i>null</i>)
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public static String getJvmArgument(TestLoggerConfiguration configuration) {
+
+		return createRecording(configuration).getJvmArgument();
+	}
+
+	@Override
+	public void executeBeforeTestTask(Test testTask, Predicate<TestMethodName> selection) {
+
+		maxParallelForks = testTask.getMaxParallelForks();
+		heapRecording.prepare();
+		long forkEvery = WorkerRecyclingState.read(getRecyclingFile()).map(WorkerRecyclingState::getForkEvery).orElse(0L);
+		if (forkEvery > 0 && testTask.getForkEvery() == 0) {
+			testTask.setForkEvery(forkEvery);
+			appliedForkEvery = forkEvery;
+			logger.lifecycle(String.format("Worker recycling: applying forkEvery %s, based on the heap growth of the test workers in the previous build", forkEvery));
+		}
+	}
+
+	@Override
+	public void executeOnTasksFinished() {
+
+		Map<String, List<HeapSample>> samples = heapRecording.read();
+		if (samples.isEmpty()) {
+			return;
+		}
+
+		SofticarTestLoggerProperties properties = configuration.getProperties();
+		WorkerRecyclingAnalyzer analyzer = new WorkerRecyclingAnalyzer(properties.getRecycleHeap(), properties.getRecycleGc());
+		List<WorkerHeapProfile> profiles = analyzer.analyze(timeline, samples);
+		if (profiles.isEmpty()) {
+			return;
+		}
+		long forkEvery = analyzer.determineForkEvery(profiles, appliedForkEvery);
+		int recycledWorkers = appliedForkEvery > 0? Math.max(0, profiles.size() - maxParallelForks) : 0;
+
+		new WorkerRecyclingState(forkEvery).write(getRecyclingFile());
+		new WorkerRecyclingLogger(logger).log(profiles, appliedForkEvery, recycledWorkers, forkEvery);
+	}
+
+	private File getRecyclingFile() {
+
+		return configuration.getOutputFile(RECYCLING_FILE_NAME);
+	}
+
+	private static HeapSampleRecording createRecording(TestLoggerConfiguration configuration) {
+
+		return new HeapSampleRecording(configuration.getOutputFile(HEAP_SAMPLE_DIRECTORY_NAME));
+	}
+}
@@ -0,0 +1,69 @@
+package com.softicar.gradle.test.logger.plugin.test.agent;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * A JAR file that contains a single Java agent class, to be passed to test
+ * worker processes via the <i>-javaagent</i> JVM argument.
+ * <p>
+ * Since the plug-in itself is not necessarily loaded from a JAR file, the
+ * agent class is copied into a separate JAR file. Hence, the agent class must
+ * only refer to classes of the JDK, and must not contain nested, anonymous or
+ * local classes. The agent class must provide a <i>premain</i> method.
+ */
+public class JavaAgentJar {
+
+	private final Class<?> agentClass;
+	private final File file;
+
+	public JavaAgentJar(Class<?> agentClass, File file) {
+
+		this.agentClass = Objects.requireNonNull(agentClass);
+		this.file = Objects.requireNonNull(file);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the agent.
+	 *
+	 * @param agentArgument
+	 *            the argument to pass to the <i>premain</i> method (never
+	 *            <i>null</i>)
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public String getJvmArgument(String agentArgument) {
+
+		return String.format("-javaagent:%s=%s", file.getAbsolutePath(), agentArgument);
+	}
+
+	/**
+	 * Writes the JAR file.
+	 */
+	public void write() {
+
+		file.getParentFile().mkdirs();
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().put(new Attributes.Name("Premain-Class"), agentClass.getName());
+		String entryName = agentClass.getName().replace('.', '/') + ".class";
+		try (JarOutputStream output = new JarOutputStream(new FileOutputStream(file), manifest);
+				InputStream input = agentClass.getClassLoader().getResourceAsStream(entryName)) {
+			if (input == null) {
+				throw new IOException("Missing class file: " + entryName);
+			}
+			output.putNextEntry(new JarEntry(entryName));
+			input.transferTo(output);
+			output.closeEntry();
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package com.softicar.gradle.test.logger.plugin.test.event;
+
+import com.softicar.gradle.test.logger.plugin.test.json.JsonStrings;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunMetrics;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * Writes one JSON record per test event to a gzip-compressed JSON Lines file.
+ * <p>
+ * Records are written incrementally while the tests are running. The calling
+ * thread only puts a lightweight entry into a bounded queue, and a single
+ * consumer thread formats, compresses and writes the queued entries. In
+ * contrast to {@link com.softicar.gradle.test.logger.plugin.test.log.TestLogPrinter},
+ * no entries are dropped: if the queue is full, the calling thread waits. It
+ * stops waiting if writing the file failed, or if the consumer thread ended,
+ * in which case the entry is discarded.
+ * <p>
+ * Each record contains the <code>event</code> (<i>start</i> or <i>end</i>),
+ * the <code>task</code> path, the wall-clock <code>time</code> in epoch
+ * milliseconds, the <code>index</code> of the test, the number of
+ * <code>running</code> tests, the <code>worker</code>, the <code>class</code>
+ * and the <code>method</code>. End records additionally contain the
+ * <code>result</code>, the <code>duration</code> in milliseconds, the
+ * <code>start</code> and <code>end</code> timestamps in epoch microseconds,
+ * and the <code>exceptions</code> of failures.
+ * <p>
+ * {@link #close()} must be called to write all pending entries, and to
+ * complete the file.
+ */
+public class TestEventLogWriter implements AutoCloseable {
+
+	private static final int QUEUE_CAPACITY = 16384;
+	private static final int MAX_BATCH_SIZE = 1024;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+
+	private final File file;
+	private final String taskPath;
+	private final Logger logger;
+	private final BlockingQueue<Entry> queue;
+	private volatile Thread consumer;
+	private volatile boolean closed;
+	private volatile Exception failure;
+
+	public TestEventLogWriter(File file, String taskPath, Logger logger) {
+
+		this.file = Objects.requireNonNull(file);
+		this.taskPath = Objects.requireNonNull(taskPath);
+		this.logger = Objects.requireNonNull(logger);
+		this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		this.consumer = null;
+		this.closed = false;
+		this.failure = null;
+	}
+
+	public File getFile() {
+
+		return file;
+	}
+
+	public void writeStart(TestMethodName methodName, TestRunMetrics metrics) {
+
+		enqueue(new Entry(System.currentTimeMillis(), methodName, metrics, null, Collections.emptyList()));
+	}
+
+	public void writeEnd(TestMethodName methodName, FinishedTestRunMetrics metrics, TestResult result) {
+
+		List<String> exceptions = result.getResultType() == ResultType.FAILURE? getExceptions(result) : Collections.emptyList();
+		enqueue(new Entry(System.currentTimeMillis(), methodName, metrics, result.getResultType(), exceptions));
+	}
+
+	/**
+	 * Writes all pending entries, completes the file, and stops the consumer
+	 * thread.
+	 */
+	@Override
+	public void close() {
+
+		Thread consumer;
+		synchronized (this) {
+			closed = true;
+			consumer = this.consumer;
+		}
+		if (consumer != null) {
+			try {
+				consumer.join();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (failure != null) {
+			logger.warn(String.format("Failed to write test event log %s.", file), failure);
+		}
+	}
+
+	private void enqueue(Entry entry) {
+
+		startConsumerIfNecessary();
+		try {
+			while (failure == null && !queue.offer(entry, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				Thread consumer = this.consumer;
+				if (consumer == null || !consumer.isAlive()) {
+					return;
+				}
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void startConsumerIfNecessary() {
+
+		if (consumer == null) {
+			synchronized (this) {
+				if (consumer == null && !closed) {
+					consumer = new Thread(this::consume, "SoftiCAR Test Event Log Writer");
+					consumer.setDaemon(true);
+					consumer.start();
+				}
+			}
+		}
+	}
+
+	private void consume() {
+
+		try {
+			file.getParentFile().mkdirs();
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+				List<Entry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+				StringBuilder builder = new StringBuilder();
+				while (!closed || !queue.isEmpty()) {
+					Entry first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+					if (first != null) {
+						batch.add(first);
+						queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+						for (Entry entry: batch) {
+							builder.setLength(0);
+							format(entry, builder);
+							writer.append(builder).append('\n');
+						}
+						batch.clear();
+					}
+				}
+			}
+		} catch (IOException | RuntimeException exception) {
+			// waiting producers must not block on a queue that is never drained
+			failure = exception;
+			queue.clear();
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void format(Entry entry, StringBuilder builder) {
+
+		builder.append("{\"event\":").append(entry.resultType == null? "\"start\"" : "\"end\"");
+		builder.append(",\"task\":");
+		JsonStrings.appendQuoted(taskPath, builder);
+		builder.append(",\"time\":").append(entry.timestamp);
+		builder.append(",\"index\":").append(entry.metrics.getIndex());
+		builder.append(",\"running\":").append(entry.metrics.getRunningCount());
+		builder.append(",\"worker\":");
+		JsonStrings.appendQuoted(entry.metrics.getWorker(), builder);
+		builder.append(",\"class\":");
+		JsonStrings.appendQuoted(entry.methodName.getClassName(), builder);
+		builder.append(",\"method\":");
+		JsonStrings.appendQuoted(entry.methodName.getMethodName(), builder);
+		if (entry.resultType != null) {
+			FinishedTestRunMetrics metrics = (FinishedTestRunMetrics) entry.metrics;
+			builder.append(",\"result\":\"").append(entry.resultType).append('"');
+			builder.append(",\"duration\":").append(metrics.getDuration());
+			builder.append(",\"start\":").append(metrics.getStartTimestamp());
+			builder.append(",\"end\":").append(metrics.getEndTimestamp());
+			if (!entry.exceptions.isEmpty()) {
+				builder.append(",\"exceptions\":[");
+				for (int index = 0; index < entry.exceptions.size(); index++) {
+					if (index > 0) {
+						builder.append(',');
+					}
+					JsonStrings.appendQuoted(entry.exceptions.get(index), builder);
+				}
+				builder.append(']');
+			}
+		}
+		builder.append('}');
+	}
+
+	private List<String> getExceptions(TestResult result) {
+
+		return result.getExceptions().stream().map(Throwable::toString).collect(Collectors.toList());
+	}
+
+	private static class Entry {
+
+		private final long timestamp;
+		private final TestMethodName methodName;
+		private final TestRunMetrics metrics;
+		private final ResultType resultType;
+		private final List<String> exceptions;
+
+		public Entry(long timestamp, TestMethodName methodName, TestRunMetrics metrics, ResultType resultType, List<String> exceptions) {
+
+			this.timestamp = timestamp;
+			this.methodName = methodName;
+			this.metrics = metrics;
+			this.resultType = resultType;
+			this.exceptions = exceptions;
+		}
+	}
+}
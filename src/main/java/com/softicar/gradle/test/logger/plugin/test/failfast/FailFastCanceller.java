@@ -0,0 +1,106 @@
+package com.softicar.gradle.test.logger.plugin.test.failfast;
+
+import com.softicar.gradle.test.logger.plugin.test.run.RunningTest;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import com.softicar.gradle.test.logger.plugin.test.watchdog.TestWorkerProcessFinder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * Cancels a test run as soon as a given number of tests failed, either in
+ * total or in a single test worker process (fork).
+ * <p>
+ * Gradle offers no public API to stop a running test task after more than one
+ * failure. Hence, the test run is cancelled by terminating the test worker
+ * processes of the test task, which makes the test task fail without
+ * executing further test classes. In addition, a {@link GradleException} that
+ * names the reached threshold is thrown from the test listener, so that the
+ * test task fails even if a test worker process could not be found. To stop
+ * at the first failure, the <i>failFast</i> option of the test task is used
+ * instead.
+ */
+public class FailFastCanceller {
+
+	private final Logger logger;
+	private final TestRunTracker testRunTracker;
+	private final int totalThreshold;
+	private final int forkThreshold;
+	private final TestWorkerProcessFinder processFinder;
+	private final Set<String> workers;
+	private final Map<String, Integer> forkFailureCounts;
+	private int failureCount;
+	private boolean cancelled;
+
+	/**
+	 * @param logger
+	 *            the logger (never <i>null</i>)
+	 * @param testRunTracker
+	 *            the tracker of the running tests (never <i>null</i>)
+	 * @param totalThreshold
+	 *            the number of failures in total after which the test run is
+	 *            cancelled, or 0 for no limit
+	 * @param forkThreshold
+	 *            the number of failures in a single fork after which the test
+	 *            run is cancelled, or 0 for no limit
+	 */
+	public FailFastCanceller(Logger logger, TestRunTracker testRunTracker, int totalThreshold, int forkThreshold) {
+
+		this.logger = Objects.requireNonNull(logger);
+		this.testRunTracker = Objects.requireNonNull(testRunTracker);
+		this.totalThreshold = totalThreshold;
+		this.forkThreshold = forkThreshold;
+		this.processFinder = new TestWorkerProcessFinder();
+		this.workers = new TreeSet<>();
+		this.forkFailureCounts = new HashMap<>();
+		this.failureCount = 0;
+		this.cancelled = false;
+	}
+
+	/**
+	 * Records the result of a test, and cancels the test run if a threshold is
+	 * reached for the first time.
+	 *
+	 * @param worker
+	 *            the name of the test worker that executed the test (never
+	 *            <i>null</i>)
+	 * @param resultType
+	 *            the result of the test (never <i>null</i>)
+	 * @throws GradleException
+	 *             if a threshold was reached
+	 */
+	public synchronized void recordResult(String worker, ResultType resultType) {
+
+		workers.add(worker);
+		if (resultType == ResultType.FAILURE && !cancelled) {
+			failureCount++;
+			int forkFailureCount = forkFailureCounts.merge(worker, 1, Integer::sum);
+			if (isReached(totalThreshold, failureCount)) {
+				cancel(String.format("%s test(s) failed (threshold: %s)", failureCount, totalThreshold));
+			} else if (isReached(forkThreshold, forkFailureCount)) {
+				cancel(String.format("%s test(s) failed in %s (fork threshold: %s)", forkFailureCount, worker, forkThreshold));
+			}
+		}
+	}
+
+	private boolean isReached(int threshold, int count) {
+
+		return threshold > 0 && count >= threshold;
+	}
+
+	private void cancel(String reason) {
+
+		cancelled = true;
+		testRunTracker.getRunningTests().stream().map(RunningTest::getWorker).forEach(workers::add);
+		logger.lifecycle(String.format("Fail-fast: cancelling the test run, since %s. Terminating %s test worker(s).", reason, workers.size()));
+		for (String worker: workers) {
+			processFinder.find(worker).ifPresent(ProcessHandle::destroyForcibly);
+		}
+		throw new GradleException(String.format("Fail-fast: cancelled the test run, since %s.", reason));
+	}
+}
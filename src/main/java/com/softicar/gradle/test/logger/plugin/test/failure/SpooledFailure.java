@@ -0,0 +1,27 @@
+package com.softicar.gradle.test.logger.plugin.test.failure;
+
+/**
+ * Locates a failure record in a {@link TestFailureSpool}, along with the
+ * fingerprint of the failure, as computed by {@link TestFailureFingerprinter}.
+ */
+public class SpooledFailure {
+
+	private final long offset;
+	private final String fingerprint;
+
+	public SpooledFailure(long offset, String fingerprint) {
+
+		this.offset = offset;
+		this.fingerprint = fingerprint;
+	}
+
+	public long getOffset() {
+
+		return offset;
+	}
+
+	public String getFingerprint() {
+
+		return fingerprint;
+	}
+}
@@ -1,27 +1,45 @@
 package com.softicar.gradle.test.logger.plugin.test.failure;
 
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
 import java.util.List;
-import org.gradle.api.tasks.testing.TestDescriptor;
-import org.gradle.api.tasks.testing.TestResult;
 
 public class TestFailure {
 
-	private final TestDescriptor descriptor;
-	private final List<Throwable> exceptions;
+	private final TestMethodName methodName;
+	private final List<String> stackTraces;
+	private final String output;
 
-	public TestFailure(TestDescriptor descriptor, TestResult result) {
+	public TestFailure(TestMethodName methodName, List<String> stackTraces, String output) {
 
-		this.descriptor = descriptor;
-		this.exceptions = result.getExceptions();
+		this.methodName = methodName;
+		this.stackTraces = stackTraces;
+		this.output = output;
 	}
 
-	public TestDescriptor getDescriptor() {
+	public TestMethodName getMethodName() {
 
-		return descriptor;
+		return methodName;
 	}
 
-	public List<Throwable> getExceptions() {
+	/**
+	 * Returns the stack traces of the exceptions that caused the failure,
+	 * including their causes.
+	 *
+	 * @return the stack traces (never <i>null</i>)
+	 */
+	public List<String> getStackTraces() {
 
-		return exceptions;
+		return stackTraces;
+	}
+
+	/**
+	 * Returns the captured standard output and error of the failed test, if
+	 * output capturing is enabled.
+	 *
+	 * @return the output; empty if none was captured (never <i>null</i>)
+	 */
+	public String getOutput() {
+
+		return output;
 	}
 }
@@ -0,0 +1,124 @@
+package com.softicar.gradle.test.logger.plugin.test.failure;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Computes fingerprints of test failures, such that failures with the same
+ * root cause get the same fingerprint.
+ * <p>
+ * A fingerprint comprises:
+ * <ul>
+ * <li>the type of the root cause of the first exception,</li>
+ * <li>the message of that root cause, with variable parts (e.g. numbers,
+ * identifiers and quoted strings) replaced by placeholders, and</li>
+ * <li>the topmost stack frames of that root cause which do not belong to the
+ * JDK or to test frameworks.</li>
+ * </ul>
+ */
+public class TestFailureFingerprinter {
+
+	private static final int MAX_FRAMES = 3;
+	private static final List<String> FRAMEWORK_PACKAGE_PREFIXES = List
+		.of(//
+			"java.",
+			"javax.",
+			"jdk.",
+			"sun.",
+			"com.sun.",
+			"junit.",
+			"org.junit.",
+			"org.hamcrest.",
+			"org.gradle.",
+			"worker.org.gradle.");
+	private static final Pattern QUOTED_PATTERN = Pattern.compile("'[^']*'|\"[^\"]*\"");
+	private static final Pattern UUID_PATTERN = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+	private static final Pattern HEX_PATTERN = Pattern.compile("\\b(0x)?[0-9a-fA-F]*[0-9][0-9a-fA-F]*\\b");
+	private static final Pattern NUMBER_PATTERN = Pattern.compile("\\d+");
+
+	/**
+	 * Computes the fingerprint of a failure with the given exceptions.
+	 *
+	 * @param exceptions
+	 *            the exceptions of the failure (never <i>null</i>)
+	 * @return the fingerprint (never <i>null</i>)
+	 */
+	public String fingerprint(List<Throwable> exceptions) {
+
+		if (exceptions.isEmpty()) {
+			return "";
+		}
+
+		Throwable rootCause = getRootCause(exceptions.get(0));
+		StringBuilder fingerprint = new StringBuilder();
+		fingerprint.append(getTypeName(rootCause));
+		fingerprint.append(": ");
+		fingerprint.append(getMessageTemplate(rootCause.getMessage()));
+		appendFrames(rootCause, fingerprint);
+		return fingerprint.toString();
+	}
+
+	private Throwable getRootCause(Throwable throwable) {
+
+		Throwable rootCause = throwable;
+		for (int depth = 0; rootCause.getCause() != null && rootCause.getCause() != rootCause && depth < 100; depth++) {
+			rootCause = rootCause.getCause();
+		}
+		return rootCause;
+	}
+
+	/**
+	 * Determines the type name of the given {@link Throwable}.
+	 * <p>
+	 * Uses {@link Throwable#toString()}, since Gradle replaces exceptions of
+	 * classes that are unknown to the build JVM with placeholders which only
+	 * retain the original type name in their {@link String} representation.
+	 */
+	private String getTypeName(Throwable throwable) {
+
+		String string = throwable.toString();
+		String message = throwable.getLocalizedMessage();
+		if (message != null && string.endsWith(": " + message)) {
+			return string.substring(0, string.length() - message.length() - 2);
+		} else {
+			return string;
+		}
+	}
+
+	private String getMessageTemplate(String message) {
+
+		if (message == null) {
+			return "";
+		}
+
+		String firstLine = message.lines().findFirst().orElse("");
+		String template = QUOTED_PATTERN.matcher(firstLine).replaceAll("'?'");
+		template = UUID_PATTERN.matcher(template).replaceAll("<uuid>");
+		template = HEX_PATTERN.matcher(template).replaceAll("#");
+		return NUMBER_PATTERN.matcher(template).replaceAll("#");
+	}
+
+	private void appendFrames(Throwable throwable, StringBuilder fingerprint) {
+
+		int frames = 0;
+		for (StackTraceElement element: throwable.getStackTrace()) {
+			if (!isFrameworkFrame(element)) {
+				fingerprint.append("\n\tat ").append(element.getClassName()).append('.').append(element.getMethodName());
+				if (++frames >= MAX_FRAMES) {
+					break;
+				}
+			}
+		}
+	}
+
+	private boolean isFrameworkFrame(StackTraceElement element) {
+
+		String className = element.getClassName();
+		for (String prefix: FRAMEWORK_PACKAGE_PREFIXES) {
+			if (className.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
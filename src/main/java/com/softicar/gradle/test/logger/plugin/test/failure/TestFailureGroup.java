@@ -0,0 +1,52 @@
+package com.softicar.gradle.test.logger.plugin.test.failure;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The failures of several test methods with the same fingerprint, as computed
+ * by {@link TestFailureFingerprinter}.
+ * <p>
+ * To bound memory, a group may only contain the names of some of its test
+ * methods, while {@link #getSize()} counts all of them.
+ */
+public class TestFailureGroup {
+
+	private final TestFailure failure;
+	private final List<TestMethodName> methodNames;
+	private final int size;
+
+	public TestFailureGroup(TestFailure failure, List<TestMethodName> methodNames, int size) {
+
+		this.failure = Objects.requireNonNull(failure);
+		this.methodNames = Objects.requireNonNull(methodNames);
+		this.size = size;
+	}
+
+	/**
+	 * @return the failure of the first test method of the group (never
+	 *         <i>null</i>)
+	 */
+	public TestFailure getFailure() {
+
+		return failure;
+	}
+
+	/**
+	 * @return the names of the first test methods of the group, starting with
+	 *         the test method of {@link #getFailure()} (never <i>null</i>)
+	 */
+	public List<TestMethodName> getMethodNames() {
+
+		return methodNames;
+	}
+
+	/**
+	 * @return the number of all test methods of the group
+	 */
+	public int getSize() {
+
+		return size;
+	}
+}
@@ -2,12 +2,15 @@ package com.softicar.gradle.test.logger.plugin.test.failure;
 
 import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
 import com.softicar.gradle.test.logger.plugin.test.result.TestResultRecorder;
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.gradle.api.logging.Logger;
 
 public class TestFailureLogger {
 
+	private static final int MAX_LOGGED_AFFECTED_TESTS = 20;
+
 	private final Logger logger;
 
 	public TestFailureLogger(Logger logger) {
@@ -17,46 +20,81 @@ public class TestFailureLogger {
 
 	public void log(TestResultRecorder resultRecorder) {
 
-		if (!resultRecorder.isEmpty()) {
-			logDetails(resultRecorder);
-			logSummary(resultRecorder);
+		log(List.of(resultRecorder));
+	}
+
+	/**
+	 * Logs the failures of several {@link TestResultRecorder} instances, e.g.
+	 * of the test tasks of several projects, as a single report.
+	 *
+	 * @param resultRecorders
+	 *            the {@link TestResultRecorder} instances, in the order in which
+	 *            their failures shall be logged (never <i>null</i>)
+	 */
+	public void log(Collection<TestResultRecorder> resultRecorders) {
+
+		int size = resultRecorders.stream().mapToInt(TestResultRecorder::size).sum();
+		if (size > 0) {
+			logDetails(resultRecorders, size);
+			logSummary(resultRecorders, size);
 		}
 	}
 
-	private void logSummary(TestResultRecorder resultRecorder) {
+	private void logSummary(Collection<TestResultRecorder> resultRecorders, int size) {
 
-		logger.lifecycle(String.format("Summary of %s failed test(s):", resultRecorder.size()));
+		logger.lifecycle(String.format("Summary of %s failed test(s):", size));
 		logger.lifecycle("");
-		resultRecorder.getFailures().stream().map(this::getTestMethodNameAsString).forEach(logger::lifecycle);
+		resultRecorders//
+			.stream()
+			.flatMap(it -> it.getFailedMethodNames().stream())
+			.map(TestMethodName::getNameString)
+			.forEach(logger::lifecycle);
 		logger.lifecycle("");
 	}
 
-	private void logDetails(TestResultRecorder resultRecorder) {
+	private void logDetails(Collection<TestResultRecorder> resultRecorders, int size) {
 
-		logger.lifecycle(String.format("Details of %s failed test(s):", resultRecorder.size()));
+		logger.lifecycle(String.format("Details of %s failed test(s):", size));
+		logger.lifecycle(String.format("(%s distinct failure(s), each logged once)", resultRecorders.stream().mapToInt(TestResultRecorder::getFailureGroupCount).sum()));
 		logger.lifecycle("");
 
-		int counter = 0;
-		for (TestFailure failure: resultRecorder.getFailures()) {
-			++counter;
-			logger.lifecycle(String.format("Failure #%s >  %s", counter, getTestMethodNameAsString(failure)));
-			failure.getExceptions().stream().map(this::getStackTraceAsString).forEach(logger::lifecycle);
+		AtomicInteger counter = new AtomicInteger();
+		for (TestResultRecorder resultRecorder: resultRecorders) {
+			resultRecorder.forEachFailureGroup(group -> {
+				TestFailure failure = group.getFailure();
+				logger.lifecycle(String.format("Failure #%s >  %s", counter.incrementAndGet(), failure.getMethodName().getNameString()));
+				failure.getStackTraces().forEach(logger::lifecycle);
+				logOutput(failure.getOutput());
+				logOtherAffectedTests(group.getMethodNames().subList(1, group.getMethodNames().size()), group.getSize() - 1);
+			});
 		}
 
 		logger.lifecycle("");
 	}
 
-	private String getTestMethodNameAsString(TestFailure failure) {
+	private void logOutput(String output) {
 
-		return new TestMethodName(failure.getDescriptor()).getNameString();
+		if (!output.isEmpty()) {
+			logger.lifecycle("Output of the failed test:");
+			logger.lifecycle(output.endsWith("\n")? output.substring(0, output.length() - 1) : output);
+			logger.lifecycle("");
+		}
 	}
 
-	private String getStackTraceAsString(Throwable throwable) {
-
-		StringWriter stringWriter = new StringWriter();
-		try (PrintWriter printWriter = new PrintWriter(stringWriter)) {
-			throwable.printStackTrace(printWriter);
+	private void logOtherAffectedTests(List<TestMethodName> methodNames, int count) {
+
+		if (count > 0) {
+			logger.lifecycle(String.format("The same failure occurred in %s other test(s):", count));
+			int logged = Math.min(methodNames.size(), MAX_LOGGED_AFFECTED_TESTS);
+			methodNames//
+				.stream()
+				.limit(logged)
+				.map(methodName -> "    " + methodName.getNameString())
+				.forEach(logger::lifecycle);
+			if (count > logged) {
+				logger.lifecycle(String.format("    ... and %s more (see summary)", count - logged));
+			}
+			logger.lifecycle("");
 		}
-		return stringWriter.toString();
 	}
 }
@@ -0,0 +1,247 @@
+package com.softicar.gradle.test.logger.plugin.test.failure;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Stores the details of test failures in a file, so that they do not need to
+ * be kept in memory until the end of the build.
+ * <p>
+ * Each failure is written as a single record, and can be read back via the
+ * offset that was returned when it was written. The file is created on demand,
+ * and deleted by {@link #close()}.
+ * <p>
+ * Besides failures, the spool can record that a test method succeeded, so that
+ * the failed test methods and the fingerprints of their failures can be
+ * determined from the file alone, via {@link #readFailures(long)}.
+ */
+public class TestFailureSpool implements AutoCloseable {
+
+	private static final int SUCCESS_MARKER = -1;
+
+	private final File file;
+	private final TestMethodNameRegistry methodNameRegistry;
+	private RandomAccessFile randomAccessFile;
+
+	public TestFailureSpool(File file, TestMethodNameRegistry methodNameRegistry) {
+
+		this.file = Objects.requireNonNull(file);
+		this.methodNameRegistry = Objects.requireNonNull(methodNameRegistry);
+		this.randomAccessFile = null;
+	}
+
+	/**
+	 * Appends a failure record.
+	 *
+	 * @param methodName
+	 *            the name of the failed test method (never <i>null</i>)
+	 * @param fingerprint
+	 *            the fingerprint of the failure (never <i>null</i>)
+	 * @param exceptions
+	 *            the exceptions that caused the failure (never <i>null</i>)
+	 * @param testOutput
+	 *            the captured output of the failed test method, or an empty
+	 *            string (never <i>null</i>)
+	 * @return the offset of the written record
+	 */
+	public synchronized long write(TestMethodName methodName, String fingerprint, List<Throwable> exceptions, String testOutput) {
+
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream output = new DataOutputStream(bytes)) {
+				output.writeUTF(methodName.getClassName());
+				output.writeUTF(methodName.getMethodName());
+				output.writeInt(exceptions.size());
+				output.writeUTF(fingerprint);
+				for (Throwable exception: exceptions) {
+					writeString(output, getStackTraceAsString(exception));
+				}
+				writeString(output, testOutput);
+			}
+
+			byte[] record = bytes.toByteArray();
+			RandomAccessFile randomAccessFile = getRandomAccessFile();
+			long offset = randomAccessFile.length();
+			randomAccessFile.seek(offset);
+			randomAccessFile.writeInt(record.length);
+			randomAccessFile.write(record);
+			return offset;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Appends a record stating that the given test method succeeded, i.e. that
+	 * previous failure records of that test method are obsolete.
+	 *
+	 * @param methodName
+	 *            the name of the succeeded test method (never <i>null</i>)
+	 */
+	public synchronized void writeSuccess(TestMethodName methodName) {
+
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (DataOutputStream output = new DataOutputStream(bytes)) {
+				output.writeUTF(methodName.getClassName());
+				output.writeUTF(methodName.getMethodName());
+				output.writeInt(SUCCESS_MARKER);
+			}
+
+			byte[] record = bytes.toByteArray();
+			RandomAccessFile randomAccessFile = getRandomAccessFile();
+			randomAccessFile.seek(randomAccessFile.length());
+			randomAccessFile.writeInt(record.length);
+			randomAccessFile.write(record);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Scans the records from the given offset to the end of the file, and
+	 * determines the test methods whose last record is a failure.
+	 * <p>
+	 * The file is read sequentially, and only once. Only the names and the
+	 * fingerprints are decoded, the stack traces and outputs are skipped.
+	 *
+	 * @param offset
+	 *            the offset of the first record to scan, as returned by
+	 *            {@link #write}
+	 * @return the {@link SpooledFailure} of the last failure record per failed
+	 *         test method, in the order in which the test methods failed first
+	 *         (never <i>null</i>)
+	 */
+	public synchronized Map<TestMethodName, SpooledFailure> readFailures(long offset) {
+
+		Map<TestMethodName, SpooledFailure> failures = new LinkedHashMap<>();
+		if (randomAccessFile == null) {
+			return failures;
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+			input.skipNBytes(offset);
+			long length = randomAccessFile.length();
+			byte[] record = new byte[0];
+			while (offset < length) {
+				int recordLength = input.readInt();
+				if (record.length < recordLength) {
+					record = new byte[recordLength];
+				}
+				input.readFully(record, 0, recordLength);
+				try (DataInputStream header = new DataInputStream(new ByteArrayInputStream(record, 0, recordLength))) {
+					TestMethodName methodName = methodNameRegistry.get(header.readUTF(), header.readUTF());
+					if (header.readInt() == SUCCESS_MARKER) {
+						failures.remove(methodName);
+					} else {
+						failures.put(methodName, new SpooledFailure(offset, header.readUTF()));
+					}
+				}
+				offset += Integer.BYTES + recordLength;
+			}
+			return failures;
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Reads the failure record at the given offset.
+	 *
+	 * @param offset
+	 *            an offset returned by {@link #write}
+	 * @return the {@link TestFailure} (never <i>null</i>)
+	 */
+	public synchronized TestFailure read(long offset) {
+
+		try {
+			RandomAccessFile randomAccessFile = getRandomAccessFile();
+			randomAccessFile.seek(offset);
+			byte[] record = new byte[randomAccessFile.readInt()];
+			randomAccessFile.readFully(record);
+
+			try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(record))) {
+				String className = input.readUTF();
+				String methodName = input.readUTF();
+				int exceptionCount = input.readInt();
+				input.readUTF(); // the fingerprint
+				List<String> stackTraces = new ArrayList<>(exceptionCount);
+				for (int i = 0; i < exceptionCount; i++) {
+					stackTraces.add(readString(input));
+				}
+				String output = readString(input);
+				return new TestFailure(methodNameRegistry.get(className, methodName), stackTraces, output);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Closes and deletes the spool file.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (randomAccessFile != null) {
+			try {
+				randomAccessFile.close();
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			} finally {
+				randomAccessFile = null;
+				file.delete();
+			}
+		}
+	}
+
+	private RandomAccessFile getRandomAccessFile() throws IOException {
+
+		if (randomAccessFile == null) {
+			file.getParentFile().mkdirs();
+			randomAccessFile = new RandomAccessFile(file, "rw");
+			randomAccessFile.setLength(0);
+		}
+		return randomAccessFile;
+	}
+
+	private void writeString(DataOutputStream output, String string) throws IOException {
+
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private String readString(DataInputStream input) throws IOException {
+
+		byte[] bytes = new byte[input.readInt()];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private String getStackTraceAsString(Throwable throwable) {
+
+		StringWriter stringWriter = new StringWriter();
+		try (PrintWriter printWriter = new PrintWriter(stringWriter)) {
+			throwable.printStackTrace(printWriter);
+		}
+		return stringWriter.toString();
+	}
+}
@@ -0,0 +1,54 @@
+package com.softicar.gradle.test.logger.plugin.test.fixture;
+
+/**
+ * The accumulated time of the executions of a test class, and of its test
+ * methods.
+ * <p>
+ * All times are in microseconds.
+ */
+public class TestClassOverhead {
+
+	private final String className;
+	private final long classTime;
+	private final long methodTime;
+
+	public TestClassOverhead(String className, long classTime, long methodTime) {
+
+		this.className = className;
+		this.classTime = classTime;
+		this.methodTime = methodTime;
+	}
+
+	public String getClassName() {
+
+		return className;
+	}
+
+	/**
+	 * @return the wall-clock time between the start and the end of the test
+	 *         class
+	 */
+	public long getClassTime() {
+
+		return classTime;
+	}
+
+	/**
+	 * @return the sum of the times of the test methods of the test class
+	 */
+	public long getMethodTime() {
+
+		return methodTime;
+	}
+
+	/**
+	 * Determines the time of the test class that was not spent in its test
+	 * methods, e.g. in class-level setup and teardown.
+	 *
+	 * @return the fixture overhead; never negative
+	 */
+	public long getOverhead() {
+
+		return Math.max(0, classTime - methodTime);
+	}
+}
@@ -0,0 +1,72 @@
+package com.softicar.gradle.test.logger.plugin.test.fixture;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs the total fixture overhead of all test classes, and the test classes
+ * with the highest fixture overhead.
+ */
+public class TestClassOverheadLogger {
+
+	private final Logger logger;
+	private final int topCount;
+
+	public TestClassOverheadLogger(Logger logger, int topCount) {
+
+		this.logger = logger;
+		this.topCount = topCount;
+	}
+
+	public void log(List<TestClassOverhead> overheads) {
+
+		if (overheads.isEmpty()) {
+			return;
+		}
+
+		long classTime = overheads.stream().mapToLong(TestClassOverhead::getClassTime).sum();
+		long overhead = overheads.stream().mapToLong(TestClassOverhead::getOverhead).sum();
+		logger
+			.lifecycle(
+				String
+					.format(//
+						"Fixture overhead of %s test class(es): %s of %s (%s)",
+						overheads.size(),
+						formatDuration(overhead),
+						formatDuration(classTime),
+						formatPercentage(overhead, classTime)));
+		logger.lifecycle("");
+
+		List<TestClassOverhead> highest = overheads//
+			.stream()
+			.sorted(Comparator.comparingLong(TestClassOverhead::getOverhead).reversed().thenComparing(TestClassOverhead::getClassName))
+			.limit(topCount)
+			.collect(Collectors.toList());
+		int counter = 0;
+		for (TestClassOverhead entry: highest) {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Fixture Overhead #%s >  %s  (%s of %s)  %s",
+							++counter,
+							formatDuration(entry.getOverhead()),
+							formatPercentage(entry.getOverhead(), entry.getClassTime()),
+							formatDuration(entry.getClassTime()),
+							entry.getClassName()));
+		}
+		logger.lifecycle("");
+	}
+
+	private String formatDuration(long micros) {
+
+		return String.format("%.2fs", micros / 1_000_000d);
+	}
+
+	private String formatPercentage(long part, long total) {
+
+		return String.format("%.1f%%", total > 0? 100d * part / total : 0d);
+	}
+}
@@ -0,0 +1,89 @@
+package com.softicar.gradle.test.logger.plugin.test.fixture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Tracks the wall-clock time of test class executions, and the time of their
+ * test methods, to determine the fixture overhead of each test class.
+ * <p>
+ * Test classes are represented by suite descriptors with a class name. Other
+ * suites, e.g. of the test worker processes, are ignored.
+ * <p>
+ * This class is thread-safe.
+ */
+public class TestClassOverheadTracker {
+
+	private final Map<TestDescriptor, Long> runningClassMap;
+	private final Map<String, long[]> classTimeMap;
+
+	public TestClassOverheadTracker() {
+
+		this.runningClassMap = new ConcurrentHashMap<>();
+		this.classTimeMap = new ConcurrentHashMap<>();
+	}
+
+	public void startSuite(TestDescriptor descriptor) {
+
+		if (isTestClass(descriptor)) {
+			runningClassMap.put(descriptor, System.nanoTime());
+		}
+	}
+
+	public void endSuite(TestDescriptor descriptor) {
+
+		Long start = isTestClass(descriptor)? runningClassMap.remove(descriptor) : null;
+		if (start != null) {
+			long classTime = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+			classTimeMap.compute(descriptor.getClassName(), (dummy, times) -> add(times, classTime, 0));
+		}
+	}
+
+	/**
+	 * Records the time of a test method execution.
+	 *
+	 * @param className
+	 *            the name of the test class of the test method (never
+	 *            <i>null</i>)
+	 * @param methodTime
+	 *            the time of the test method execution, in microseconds
+	 */
+	public void recordMethod(String className, long methodTime) {
+
+		classTimeMap.compute(className, (dummy, times) -> add(times, 0, methodTime));
+	}
+
+	/**
+	 * Returns the accumulated times of all test classes that ended.
+	 *
+	 * @return the {@link TestClassOverhead} of each test class (never
+	 *         <i>null</i>)
+	 */
+	public List<TestClassOverhead> getOverheads() {
+
+		List<TestClassOverhead> overheads = new ArrayList<>();
+		classTimeMap.forEach((className, times) -> {
+			if (times[0] > 0) {
+				overheads.add(new TestClassOverhead(className, times[0], times[1]));
+			}
+		});
+		return overheads;
+	}
+
+	private boolean isTestClass(TestDescriptor descriptor) {
+
+		return descriptor.getClassName() != null;
+	}
+
+	private long[] add(long[] times, long classTime, long methodTime) {
+
+		long[] result = times != null? times : new long[2];
+		result[0] += classTime;
+		result[1] += methodTime;
+		return result;
+	}
+}
@@ -0,0 +1,78 @@
+package com.softicar.gradle.test.logger.plugin.test.flaky;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * Classifies failed test methods that were executed again.
+ * <p>
+ * A retried test method is considered flaky if it succeeded in a retry, and
+ * is considered a persistent failure otherwise.
+ * <p>
+ * This class is thread-safe.
+ */
+public class FlakyTestDetector {
+
+	private final Map<TestMethodName, ResultType> retryResultMap;
+
+	public FlakyTestDetector() {
+
+		this.retryResultMap = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Defines the failed test methods that shall be retried.
+	 *
+	 * @param methodNames
+	 *            the failed test methods (never <i>null</i>)
+	 */
+	public synchronized void setRetriedMethodNames(Collection<TestMethodName> methodNames) {
+
+		retryResultMap.clear();
+		methodNames.forEach(methodName -> retryResultMap.put(methodName, null));
+	}
+
+	public synchronized List<TestMethodName> getRetriedMethodNames() {
+
+		return new ArrayList<>(retryResultMap.keySet());
+	}
+
+	/**
+	 * Records the result of a retried test method.
+	 * <p>
+	 * A failure does not override a previously recorded success.
+	 */
+	public synchronized void recordRetryResult(TestMethodName methodName, ResultType resultType) {
+
+		if (retryResultMap.containsKey(methodName) && retryResultMap.get(methodName) != ResultType.SUCCESS) {
+			retryResultMap.put(methodName, resultType);
+		}
+	}
+
+	public synchronized List<TestMethodName> getFlakyMethodNames() {
+
+		return getMethodNames(true);
+	}
+
+	public synchronized List<TestMethodName> getPersistentlyFailedMethodNames() {
+
+		return getMethodNames(false);
+	}
+
+	private List<TestMethodName> getMethodNames(boolean succeeded) {
+
+		List<TestMethodName> methodNames = new ArrayList<>();
+		for (Entry<TestMethodName, ResultType> entry: retryResultMap.entrySet()) {
+			if ((entry.getValue() == ResultType.SUCCESS) == succeeded) {
+				methodNames.add(entry.getKey());
+			}
+		}
+		return methodNames;
+	}
+}
@@ -0,0 +1,65 @@
+package com.softicar.gradle.test.logger.plugin.test.flaky;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * Logs the outcome of retried and quarantined test methods.
+ */
+public class FlakyTestLogger {
+
+	private final Logger logger;
+
+	public FlakyTestLogger(Logger logger) {
+
+		this.logger = logger;
+	}
+
+	public void logRetries(FlakyTestDetector detector, List<TestMethodName> newlyQuarantined, File quarantineFile) {
+
+		List<TestMethodName> retried = detector.getRetriedMethodNames();
+		if (retried.isEmpty()) {
+			return;
+		}
+
+		List<TestMethodName> flaky = detector.getFlakyMethodNames();
+		logger.lifecycle(String.format("Retried %s failed test(s), %s of which succeeded:", retried.size(), flaky.size()));
+		logger.lifecycle("");
+
+		int counter = 0;
+		for (TestMethodName methodName: flaky) {
+			logger.lifecycle(String.format("Flaky Test #%s >  %s", ++counter, methodName.getNameString()));
+		}
+		counter = 0;
+		for (TestMethodName methodName: detector.getPersistentlyFailedMethodNames()) {
+			logger.lifecycle(String.format("Persistent Failure #%s >  %s", ++counter, methodName.getNameString()));
+		}
+		logger.lifecycle("");
+
+		if (!newlyQuarantined.isEmpty()) {
+			logger.lifecycle(String.format("Quarantined %s flaky test(s) in: %s", newlyQuarantined.size(), quarantineFile));
+			logger.lifecycle("");
+		}
+	}
+
+	public void logQuarantine(Map<TestMethodName, ResultType> quarantineResultMap) {
+
+		if (quarantineResultMap.isEmpty()) {
+			return;
+		}
+
+		long failed = quarantineResultMap.values().stream().filter(it -> it == ResultType.FAILURE).count();
+		logger.lifecycle(String.format("Executed %s quarantined test(s), %s of which failed:", quarantineResultMap.size(), failed));
+		logger.lifecycle("");
+
+		int counter = 0;
+		for (Map.Entry<TestMethodName, ResultType> entry: quarantineResultMap.entrySet()) {
+			logger.lifecycle(String.format("Quarantined Test #%s >  %s  %s", ++counter, entry.getValue(), entry.getKey().getNameString()));
+		}
+		logger.lifecycle("");
+	}
+}
@@ -0,0 +1,111 @@
+package com.softicar.gradle.test.logger.plugin.test.flaky;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A text file that lists quarantined test methods, i.e. test methods that were
+ * found to be flaky.
+ * <p>
+ * Each line contains the name of a test class and the name of a test method,
+ * separated by a space, e.g. <code>com.example.SomeTest someTest</code>. Empty
+ * lines and lines starting with <code>#</code> are ignored. The file is meant
+ * to be committed to version control, and entries are meant to be removed
+ * manually once the respective test method was fixed.
+ */
+public class TestQuarantineFile {
+
+	private static final String HEADER = """
+			# Quarantined test methods, as detected by the SoftiCAR Test Logger Plugin.
+			# Quarantined tests are excluded from the 'test' task, and executed serially
+			# by the 'testQuarantine' task. Remove an entry once the test was fixed.
+			""";
+
+	private final File file;
+	private final TestMethodNameRegistry methodNameRegistry;
+
+	public TestQuarantineFile(File file, TestMethodNameRegistry methodNameRegistry) {
+
+		this.file = Objects.requireNonNull(file);
+		this.methodNameRegistry = Objects.requireNonNull(methodNameRegistry);
+	}
+
+	public File getFile() {
+
+		return file;
+	}
+
+	/**
+	 * Loads the quarantined test methods.
+	 *
+	 * @return the quarantined test methods; empty if the file does not exist
+	 *         (never <i>null</i>)
+	 */
+	public SortedSet<TestMethodName> load() {
+
+		SortedSet<TestMethodName> methodNames = new TreeSet<>();
+		if (file.exists()) {
+			try {
+				for (String line: Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+					line = line.trim();
+					int separator = line.indexOf(' ');
+					if (!line.isEmpty() && !line.startsWith("#") && separator > 0) {
+						methodNames.add(methodNameRegistry.get(line.substring(0, separator), line.substring(separator + 1).trim()));
+					}
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		return methodNames;
+	}
+
+	/**
+	 * Adds the given test methods to the file, unless they are already
+	 * contained.
+	 *
+	 * @param methodNames
+	 *            the test methods to add (never <i>null</i>)
+	 * @return the test methods that were not contained before (never
+	 *         <i>null</i>)
+	 */
+	public List<TestMethodName> addAll(Collection<TestMethodName> methodNames) {
+
+		SortedSet<TestMethodName> quarantined = load();
+		List<TestMethodName> added = new ArrayList<>();
+		for (TestMethodName methodName: methodNames) {
+			if (quarantined.add(methodName)) {
+				added.add(methodName);
+			}
+		}
+		if (!added.isEmpty()) {
+			write(quarantined);
+		}
+		return added;
+	}
+
+	private void write(Collection<TestMethodName> methodNames) {
+
+		StringBuilder builder = new StringBuilder(HEADER);
+		for (TestMethodName methodName: methodNames) {
+			builder.append(methodName.getClassName()).append(' ').append(methodName.getMethodName()).append('\n');
+		}
+		try {
+			file.getAbsoluteFile().getParentFile().mkdirs();
+			Files.writeString(file.toPath(), builder, StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
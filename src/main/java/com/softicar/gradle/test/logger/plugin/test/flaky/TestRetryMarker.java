@@ -0,0 +1,56 @@
+package com.softicar.gradle.test.logger.plugin.test.flaky;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Objects;
+
+/**
+ * A marker file in the build directory, which records that the last execution
+ * of the test task ignored failures, in order to execute them again by the
+ * retry task.
+ * <p>
+ * Since the test task succeeded nevertheless, Gradle would consider it up to
+ * date in the next build, and the failures would be hidden. Hence, the test
+ * task must not be up to date as long as the marker file exists.
+ */
+public class TestRetryMarker {
+
+	private final File file;
+
+	public TestRetryMarker(File file) {
+
+		this.file = Objects.requireNonNull(file);
+	}
+
+	/**
+	 * @return <i>true</i> if the last execution of the test task ignored
+	 *         failures; <i>false</i> otherwise
+	 */
+	public boolean exists() {
+
+		return file.exists();
+	}
+
+	/**
+	 * Creates or deletes the marker file, according to the last execution of
+	 * the test task.
+	 *
+	 * @param failuresIgnored
+	 *            whether the test task ignored failures
+	 */
+	public void update(boolean failuresIgnored) {
+
+		try {
+			if (failuresIgnored) {
+				file.getParentFile().mkdirs();
+				Files.writeString(file.toPath(), "");
+			} else {
+				Files.deleteIfExists(file.toPath());
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
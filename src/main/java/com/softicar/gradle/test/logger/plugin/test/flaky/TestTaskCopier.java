@@ -0,0 +1,42 @@
+package com.softicar.gradle.test.logger.plugin.test.flaky;
+
+import org.gradle.api.tasks.testing.Test;
+import org.gradle.api.tasks.testing.TestFrameworkOptions;
+import org.gradle.api.tasks.testing.junit.JUnitOptions;
+import org.gradle.api.tasks.testing.junitplatform.JUnitPlatformOptions;
+import org.gradle.api.tasks.testing.testng.TestNGOptions;
+import org.gradle.process.JavaForkOptions;
+
+/**
+ * Copies the configuration of a {@link Test} task to another {@link Test}
+ * task, so that the latter executes the same test classes in the same way.
+ * <p>
+ * The test filter is not copied, since derived tasks are expected to select
+ * specific tests.
+ */
+public class TestTaskCopier {
+
+	public void copy(Test source, Test target) {
+
+		target.setTestClassesDirs(source.getTestClassesDirs());
+		target.setClasspath(source.getClasspath());
+		target.setIncludes(source.getIncludes());
+		target.setExcludes(source.getExcludes());
+		target.setScanForTestClasses(source.isScanForTestClasses());
+		target.getJavaLauncher().set(source.getJavaLauncher());
+		source.copyTo((JavaForkOptions) target);
+		copyTestFramework(source, target);
+	}
+
+	private void copyTestFramework(Test source, Test target) {
+
+		TestFrameworkOptions options = source.getOptions();
+		if (options instanceof JUnitPlatformOptions) {
+			target.useJUnitPlatform(it -> it.copyFrom((JUnitPlatformOptions) options));
+		} else if (options instanceof TestNGOptions) {
+			target.useTestNG(it -> it.copyFrom((TestNGOptions) options));
+		} else if (options instanceof JUnitOptions) {
+			target.useJUnit(it -> it.copyFrom((JUnitOptions) options));
+		}
+	}
+}
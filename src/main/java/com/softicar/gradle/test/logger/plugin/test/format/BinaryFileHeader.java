@@ -0,0 +1,50 @@
+package com.softicar.gradle.test.logger.plugin.test.format;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The header of a binary file written by this plugin, i.e. a magic number
+ * followed by a format version.
+ * <p>
+ * Each file type has its own magic number, so that a file of one type is never
+ * mistaken for a file of another type, e.g. when a wrong file is passed to be
+ * merged.
+ */
+public class BinaryFileHeader {
+
+	public static final BinaryFileHeader DURATION_HISTORY = new BinaryFileHeader(0x53544448, 1); // "STDH"
+	public static final BinaryFileHeader DURATION_HISTOGRAMS = new BinaryFileHeader(0x53544847, 1); // "STHG"
+	public static final BinaryFileHeader DEPENDENCY_INDEX = new BinaryFileHeader(0x53544449, 1); // "STDI"
+
+	private final int magic;
+	private final int version;
+
+	private BinaryFileHeader(int magic, int version) {
+
+		this.magic = magic;
+		this.version = version;
+	}
+
+	public void write(DataOutput output) throws IOException {
+
+		output.writeInt(magic);
+		output.writeInt(version);
+	}
+
+	/**
+	 * Reads a header from the given input, and compares it to this header.
+	 *
+	 * @param input
+	 *            the input to read from (never <i>null</i>)
+	 * @return <i>true</i> if the magic number and the version match;
+	 *         <i>false</i> otherwise
+	 * @throws IOException
+	 *             if the header could not be read
+	 */
+	public boolean read(DataInput input) throws IOException {
+
+		return input.readInt() == magic && input.readInt() == version;
+	}
+}
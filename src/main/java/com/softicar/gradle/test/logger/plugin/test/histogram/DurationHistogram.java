@@ -0,0 +1,165 @@
+package com.softicar.gradle.test.logger.plugin.test.histogram;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in microseconds, with logarithmic buckets.
+ * <p>
+ * Durations below {@value #SUB_BUCKET_COUNT} microseconds are counted
+ * exactly. Larger durations are counted in buckets, such that each power of
+ * two is divided into {@value #HALF_SUB_BUCKET_COUNT} buckets of equal width.
+ * Hence, the relative error of a reported duration is at most about 6%.
+ * <p>
+ * The memory of a histogram depends only on the largest recorded duration,
+ * and is at most about 5 KB, regardless of the number of recorded durations.
+ * Histograms can be merged by adding up their bucket counts.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class DurationHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+	private static final long MAX_VALUE = (1L << 42) - 1;
+
+	private long[] counts;
+	private long totalCount;
+	private long maxValue;
+
+	public DurationHistogram() {
+
+		this.counts = new long[0];
+		this.totalCount = 0;
+		this.maxValue = 0;
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param duration
+	 *            the duration in microseconds; negative values are recorded as
+	 *            0, and values above about 50 days are capped
+	 */
+	public void record(long duration) {
+
+		long value = Math.min(Math.max(0, duration), MAX_VALUE);
+		increment(getIndex(value), 1);
+		totalCount++;
+		maxValue = Math.max(maxValue, value);
+	}
+
+	/**
+	 * Adds the counts of the given histogram to this histogram.
+	 *
+	 * @param other
+	 *            the histogram to merge (never <i>null</i>)
+	 */
+	public void merge(DurationHistogram other) {
+
+		for (int index = 0; index < other.counts.length; index++) {
+			if (other.counts[index] > 0) {
+				increment(index, other.counts[index]);
+			}
+		}
+		totalCount += other.totalCount;
+		maxValue = Math.max(maxValue, other.maxValue);
+	}
+
+	public long getTotalCount() {
+
+		return totalCount;
+	}
+
+	/**
+	 * @return the largest recorded duration in microseconds; 0 if empty
+	 */
+	public long getMaxValue() {
+
+		return maxValue;
+	}
+
+	/**
+	 * Determines the duration below or at which the given percentage of the
+	 * recorded durations lie.
+	 *
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return the duration in microseconds, as the upper bound of the
+	 *         respective bucket; 0 if empty
+	 */
+	public long getValueAtPercentile(double percentile) {
+
+		long threshold = Math.max(1, (long) Math.ceil(totalCount * Math.min(100, Math.max(0, percentile)) / 100));
+		long cumulativeCount = 0;
+		for (int index = 0; index < counts.length; index++) {
+			cumulativeCount += counts[index];
+			if (cumulativeCount >= threshold) {
+				return Math.min(getUpperBound(index), maxValue);
+			}
+		}
+		return maxValue;
+	}
+
+	public void write(DataOutput output) throws IOException {
+
+		output.writeLong(totalCount);
+		output.writeLong(maxValue);
+		int nonZeroCount = (int) Arrays.stream(counts).filter(count -> count > 0).count();
+		output.writeInt(nonZeroCount);
+		for (int index = 0; index < counts.length; index++) {
+			if (counts[index] > 0) {
+				output.writeShort(index);
+				output.writeLong(counts[index]);
+			}
+		}
+	}
+
+	public static DurationHistogram read(DataInput input) throws IOException {
+
+		DurationHistogram histogram = new DurationHistogram();
+		histogram.totalCount = input.readLong();
+		histogram.maxValue = input.readLong();
+		int nonZeroCount = input.readInt();
+		for (int i = 0; i < nonZeroCount; i++) {
+			int index = input.readUnsignedShort();
+			if (index > getIndex(MAX_VALUE)) {
+				throw new IOException("Illegal histogram bucket index: " + index);
+			}
+			histogram.increment(index, input.readLong());
+		}
+		return histogram;
+	}
+
+	private void increment(int index, long count) {
+
+		if (index >= counts.length) {
+			counts = Arrays.copyOf(counts, index + 1);
+		}
+		counts[index] += count;
+	}
+
+	static int getIndex(long value) {
+
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		} else {
+			int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+			return (shift + 1) * HALF_SUB_BUCKET_COUNT + (int) (value >> shift) - HALF_SUB_BUCKET_COUNT;
+		}
+	}
+
+	static long getUpperBound(int index) {
+
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		} else {
+			int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+			long lowerBound = (long) (HALF_SUB_BUCKET_COUNT + index % HALF_SUB_BUCKET_COUNT) << shift;
+			return lowerBound + (1L << shift) - 1;
+		}
+	}
+}
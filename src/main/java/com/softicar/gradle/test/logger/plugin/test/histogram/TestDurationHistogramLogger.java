@@ -0,0 +1,68 @@
+package com.softicar.gradle.test.logger.plugin.test.histogram;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs percentiles of test durations, for the current build and for all
+ * recorded builds, as well as for the test classes with the highest 99th
+ * percentile in the current build.
+ */
+public class TestDurationHistogramLogger {
+
+	private final Logger logger;
+	private final int topCount;
+
+	public TestDurationHistogramLogger(Logger logger, int topCount) {
+
+		this.logger = logger;
+		this.topCount = topCount;
+	}
+
+	public void log(String projectPath, TestDurationHistograms current, TestDurationHistograms merged) {
+
+		if (current.isEmpty()) {
+			return;
+		}
+
+		logger.lifecycle(String.format("Test duration percentiles of %s:", projectPath));
+		logger.lifecycle("");
+		logger.lifecycle(String.format("Current build >  %s", getPercentilesString(current.getTotalHistogram())));
+		logger.lifecycle(String.format("All builds    >  %s", getPercentilesString(merged.getTotalHistogram())));
+		logger.lifecycle("");
+
+		List<Entry<String, DurationHistogram>> highest = current//
+			.getClassHistograms()
+			.entrySet()
+			.stream()
+			.sorted(Comparator.<Entry<String, DurationHistogram>> comparingLong(entry -> entry.getValue().getValueAtPercentile(99)).reversed().thenComparing(Entry.comparingByKey()))
+			.limit(topCount)
+			.collect(Collectors.toList());
+		int counter = 0;
+		for (Entry<String, DurationHistogram> entry: highest) {
+			logger.lifecycle(String.format("Test Class #%s >  %s  %s", ++counter, getPercentilesString(entry.getValue()), entry.getKey()));
+		}
+		logger.lifecycle("");
+	}
+
+	private String getPercentilesString(DurationHistogram histogram) {
+
+		return String
+			.format(//
+				"n: %s  p50: %s  p90: %s  p99: %s  max: %s",
+				histogram.getTotalCount(),
+				formatDuration(histogram.getValueAtPercentile(50)),
+				formatDuration(histogram.getValueAtPercentile(90)),
+				formatDuration(histogram.getValueAtPercentile(99)),
+				formatDuration(histogram.getMaxValue()));
+	}
+
+	private String formatDuration(long micros) {
+
+		return String.format("%.3fs", micros / 1_000_000d);
+	}
+}
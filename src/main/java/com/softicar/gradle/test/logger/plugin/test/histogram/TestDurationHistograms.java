@@ -0,0 +1,120 @@
+package com.softicar.gradle.test.logger.plugin.test.histogram;
+
+import com.softicar.gradle.test.logger.plugin.test.format.BinaryFileHeader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link DurationHistogram} of all test methods, and one per test class.
+ * <p>
+ * Histograms can be persisted to a file, and merged with the histograms of
+ * other builds, e.g. from other CI nodes.
+ * <p>
+ * This class is thread-safe.
+ */
+public class TestDurationHistograms {
+
+	private static final BinaryFileHeader HEADER = BinaryFileHeader.DURATION_HISTOGRAMS;
+
+	private final DurationHistogram totalHistogram;
+	private final Map<String, DurationHistogram> classHistograms;
+
+	public TestDurationHistograms() {
+
+		this.totalHistogram = new DurationHistogram();
+		this.classHistograms = new TreeMap<>();
+	}
+
+	/**
+	 * Records the duration of a test method execution.
+	 *
+	 * @param className
+	 *            the name of the test class (never <i>null</i>)
+	 * @param duration
+	 *            the duration in microseconds
+	 */
+	public synchronized void record(String className, long duration) {
+
+		totalHistogram.record(duration);
+		classHistograms.computeIfAbsent(className, dummy -> new DurationHistogram()).record(duration);
+	}
+
+	public synchronized void merge(TestDurationHistograms other) {
+
+		synchronized (other) {
+			totalHistogram.merge(other.totalHistogram);
+			other.classHistograms.forEach((className, histogram) -> {
+				classHistograms.computeIfAbsent(className, dummy -> new DurationHistogram()).merge(histogram);
+			});
+		}
+	}
+
+	public synchronized DurationHistogram getTotalHistogram() {
+
+		DurationHistogram copy = new DurationHistogram();
+		copy.merge(totalHistogram);
+		return copy;
+	}
+
+	public synchronized Map<String, DurationHistogram> getClassHistograms() {
+
+		Map<String, DurationHistogram> copies = new TreeMap<>();
+		classHistograms.forEach((className, histogram) -> copies.computeIfAbsent(className, dummy -> new DurationHistogram()).merge(histogram));
+		return copies;
+	}
+
+	public synchronized boolean isEmpty() {
+
+		return totalHistogram.getTotalCount() == 0;
+	}
+
+	public synchronized void write(File file) {
+
+		file.getParentFile().mkdirs();
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			HEADER.write(output);
+			totalHistogram.write(output);
+			output.writeInt(classHistograms.size());
+			for (Map.Entry<String, DurationHistogram> entry: classHistograms.entrySet()) {
+				output.writeUTF(entry.getKey());
+				entry.getValue().write(output);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Reads histograms from the given file, as written by {@link #write}.
+	 *
+	 * @param file
+	 *            the file to read (never <i>null</i>)
+	 * @return the histograms (never <i>null</i>)
+	 * @throws IOException
+	 *             if the file could not be read, or has an invalid format
+	 */
+	public static TestDurationHistograms read(File file) throws IOException {
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (!HEADER.read(input)) {
+				throw new IOException("Unsupported test duration histogram file: " + file);
+			}
+			TestDurationHistograms histograms = new TestDurationHistograms();
+			histograms.totalHistogram.merge(DurationHistogram.read(input));
+			int classCount = input.readInt();
+			for (int i = 0; i < classCount; i++) {
+				histograms.classHistograms.put(input.readUTF(), DurationHistogram.read(input));
+			}
+			return histograms;
+		}
+	}
+}
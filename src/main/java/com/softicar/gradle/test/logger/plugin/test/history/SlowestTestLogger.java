@@ -0,0 +1,109 @@
+package com.softicar.gradle.test.logger.plugin.test.history;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs the slowest test methods and test classes of the current build, along
+ * with their duration trend over the most recent builds.
+ */
+public class SlowestTestLogger {
+
+	private final Logger logger;
+	private final int topCount;
+
+	public SlowestTestLogger(Logger logger, int topCount) {
+
+		this.logger = logger;
+		this.topCount = topCount;
+	}
+
+	public void log(TestDurationHistory history) {
+
+		List<TestDurationHistoryBuild> builds = history.getBuilds();
+		if (topCount > 0 && !builds.isEmpty()) {
+			List<TestMethodName> names = history.getNames();
+			List<Map<String, Long>> durationMaps = builds//
+				.stream()
+				.map(build -> getDurationMap(build, names, TestMethodName::getNameString))
+				.collect(Collectors.toList());
+			List<Map<String, Long>> classDurationMaps = builds//
+				.stream()
+				.map(build -> getDurationMap(build, names, TestMethodName::getClassName))
+				.collect(Collectors.toList());
+
+			logSlowest("test(s)", "Slow Test", durationMaps);
+			logSlowest("test class(es)", "Slow Test Class", classDurationMaps);
+		}
+	}
+
+	private void logSlowest(String entityName, String linePrefix, List<Map<String, Long>> durationMaps) {
+
+		Map<String, Long> currentDurations = durationMaps.get(durationMaps.size() - 1);
+		if (!currentDurations.isEmpty()) {
+			List<Entry<String, Long>> slowest = currentDurations//
+				.entrySet()
+				.stream()
+				.sorted(Entry.<String, Long> comparingByValue(Comparator.reverseOrder()).thenComparing(Entry.comparingByKey()))
+				.limit(topCount)
+				.collect(Collectors.toList());
+
+			logger.lifecycle(String.format("Slowest %s of %s %s:", slowest.size(), currentDurations.size(), entityName));
+			logger.lifecycle("");
+
+			int counter = 0;
+			for (Entry<String, Long> entry: slowest) {
+				++counter;
+				logger
+					.lifecycle(
+						String
+							.format(//
+								"%s #%s >  %s  %s  (last %s build(s): %s)",
+								linePrefix,
+								counter,
+								formatDuration(entry.getValue()),
+								entry.getKey(),
+								durationMaps.size(),
+								getTrendString(entry.getKey(), durationMaps)));
+			}
+
+			logger.lifecycle("");
+		}
+	}
+
+	private Map<String, Long> getDurationMap(TestDurationHistoryBuild build, List<TestMethodName> names, Function<TestMethodName, String> keyFunction) {
+
+		Map<String, Long> durationMap = new TreeMap<>();
+		for (int id = 0; id < build.getIdBound() && id < names.size(); id++) {
+			OptionalLong duration = build.getDuration(id);
+			if (duration.isPresent()) {
+				durationMap.merge(keyFunction.apply(names.get(id)), duration.getAsLong(), Long::sum);
+			}
+		}
+		return durationMap;
+	}
+
+	private String getTrendString(String key, List<Map<String, Long>> durationMaps) {
+
+		List<String> trend = new ArrayList<>();
+		for (Map<String, Long> durationMap: durationMaps) {
+			Long duration = durationMap.get(key);
+			trend.add(duration != null? formatDuration(duration) : "-");
+		}
+		return String.join(", ", trend);
+	}
+
+	private String formatDuration(long duration) {
+
+		return String.format("%.2fs", duration / 1000d);
+	}
+}
@@ -0,0 +1,456 @@
+package com.softicar.gradle.test.logger.plugin.test.history;
+
+import com.softicar.gradle.test.logger.plugin.test.format.BinaryFileHeader;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * An append-only, binary store of test method durations, spanning several
+ * builds.
+ * <p>
+ * The store file consists of a header, followed by a sequence of records:
+ * <ul>
+ * <li><i>build</i> records, which mark the start of a build,</li>
+ * <li><i>name</i> records, which assign an ID to a test method name, once per
+ * file, and</li>
+ * <li><i>duration</i> records, which refer to a test method name by its ID,
+ * and belong to the most recent preceding <i>build</i> record.</li>
+ * </ul>
+ * When the number of stored builds reaches {@link #MAX_STORED_BUILDS}, the file
+ * is compacted to the most recent {@link #COMPACTED_BUILDS} builds.
+ * <p>
+ * Only the durations of the most recent builds are kept in memory, as
+ * specified upon construction.
+ */
+public class TestDurationHistory {
+
+	private static final BinaryFileHeader HEADER = BinaryFileHeader.DURATION_HISTORY;
+	private static final byte BUILD_RECORD = 1;
+	private static final byte NAME_RECORD = 2;
+	private static final byte DURATION_RECORD = 3;
+	private static final int MAX_STORED_BUILDS = 40;
+	private static final int COMPACTED_BUILDS = 20;
+
+	private final File file;
+	private final int loadedBuildCount;
+	private final List<TestMethodName> names;
+	private final Map<TestMethodName, Integer> nameIds;
+	private final LinkedList<TestDurationHistoryBuild> builds;
+	private final long currentBuildTimestamp;
+	private TestDurationHistoryBuild currentBuild;
+	private DataOutputStream output;
+	private boolean loaded;
+
+	/**
+	 * Constructs a new {@link TestDurationHistory}.
+	 *
+	 * @param file
+	 *            the store file (never <i>null</i>); will be created on demand
+	 * @param loadedBuildCount
+	 *            the number of most recent previous builds to keep in memory
+	 */
+	public TestDurationHistory(File file, int loadedBuildCount) {
+
+		this.file = Objects.requireNonNull(file);
+		this.loadedBuildCount = Math.max(0, loadedBuildCount);
+		this.names = new ArrayList<>();
+		this.nameIds = new HashMap<>();
+		this.builds = new LinkedList<>();
+		this.currentBuildTimestamp = System.currentTimeMillis();
+		this.currentBuild = null;
+		this.output = null;
+		this.loaded = false;
+	}
+
+	/**
+	 * Appends the duration of a test method execution to the current build.
+	 *
+	 * @param methodName
+	 *            the name of the executed test method (never <i>null</i>)
+	 * @param duration
+	 *            the duration in milliseconds
+	 */
+	public synchronized void record(TestMethodName methodName, long duration) {
+
+		try {
+			loadIfNecessary();
+			if (output == null) {
+				output = openForAppend();
+				output.writeByte(BUILD_RECORD);
+				output.writeLong(currentBuildTimestamp);
+				currentBuild = new TestDurationHistoryBuild(currentBuildTimestamp);
+			}
+
+			Integer id = nameIds.get(methodName);
+			if (id == null) {
+				id = addName(methodName);
+				writeNameRecord(output, id, methodName);
+			}
+
+			int clampedDuration = (int) Math.min(Math.max(duration, 0), Integer.MAX_VALUE);
+			output.writeByte(DURATION_RECORD);
+			output.writeInt(id);
+			output.writeInt(clampedDuration);
+			currentBuild.setDuration(id, clampedDuration);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Flushes and closes the store file.
+	 * <p>
+	 * Subsequent invocations of {@link #record} will reopen it.
+	 */
+	public synchronized void close() {
+
+		if (output != null) {
+			try {
+				output.close();
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			} finally {
+				output = null;
+				builds.add(currentBuild);
+				currentBuild = null;
+			}
+		}
+	}
+
+	/**
+	 * Returns the builds that are kept in memory, in chronological order.
+	 * <p>
+	 * If durations were recorded in the current build, the current build is
+	 * the last element.
+	 *
+	 * @return the loaded builds (never <i>null</i>)
+	 */
+	public synchronized List<TestDurationHistoryBuild> getBuilds() {
+
+		loadIfNecessary();
+		List<TestDurationHistoryBuild> result = new ArrayList<>(builds);
+		if (currentBuild != null) {
+			result.add(currentBuild);
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Returns the current build, unless it was closed via {@link #close()}.
+	 *
+	 * @return the current build; empty if no durations were recorded since the
+	 *         store file was opened
+	 */
+	public synchronized Optional<TestDurationHistoryBuild> getCurrentBuild() {
+
+		return Optional.ofNullable(currentBuild);
+	}
+
+	/**
+	 * Returns all known test method names, indexed by their ID.
+	 *
+	 * @return the test method names (never <i>null</i>)
+	 */
+	public synchronized List<TestMethodName> getNames() {
+
+		loadIfNecessary();
+		return Collections.unmodifiableList(new ArrayList<>(names));
+	}
+
+	/**
+	 * Determines the ID of the given test method name.
+	 *
+	 * @param methodName
+	 *            the test method name (never <i>null</i>)
+	 * @return the ID; empty if the name is unknown
+	 */
+	public synchronized OptionalInt getId(TestMethodName methodName) {
+
+		loadIfNecessary();
+		Integer id = nameIds.get(methodName);
+		return id != null? OptionalInt.of(id) : OptionalInt.empty();
+	}
+
+	/**
+	 * Determines the total duration of each test class in the given build,
+	 * i.e. the sum of the durations of its test methods.
+	 *
+	 * @param build
+	 *            one of the builds returned by {@link #getBuilds()} (never
+	 *            <i>null</i>)
+	 * @return the test class durations in milliseconds, by class name (never
+	 *         <i>null</i>)
+	 */
+	public synchronized Map<String, Long> getClassDurations(TestDurationHistoryBuild build) {
+
+		Map<String, Long> classDurations = new TreeMap<>();
+		for (int id = 0; id < build.getIdBound() && id < names.size(); id++) {
+			OptionalLong duration = build.getDuration(id);
+			if (duration.isPresent()) {
+				classDurations.merge(names.get(id).getClassName(), duration.getAsLong(), Long::sum);
+			}
+		}
+		return classDurations;
+	}
+
+	/**
+	 * Determines the duration of each test method in the given build.
+	 *
+	 * @param build
+	 *            one of the builds returned by {@link #getBuilds()} (never
+	 *            <i>null</i>)
+	 * @return the test method durations in milliseconds (never <i>null</i>)
+	 */
+	public synchronized Map<TestMethodName, Long> getMethodDurations(TestDurationHistoryBuild build) {
+
+		Map<TestMethodName, Long> methodDurations = new TreeMap<>();
+		for (int id = 0; id < build.getIdBound() && id < names.size(); id++) {
+			OptionalLong duration = build.getDuration(id);
+			if (duration.isPresent()) {
+				methodDurations.put(names.get(id), duration.getAsLong());
+			}
+		}
+		return methodDurations;
+	}
+
+	// -------------------------------- loading -------------------------------- //
+
+	private void loadIfNecessary() {
+
+		if (!loaded) {
+			loaded = true;
+			try {
+				if (file.exists()) {
+					load();
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+	}
+
+	private void load() throws IOException {
+
+		int storedBuilds = read(loadedBuildCount);
+		if (storedBuilds >= MAX_STORED_BUILDS) {
+			compact();
+		}
+	}
+
+	/**
+	 * Reads the store file, keeping the given number of most recent builds in
+	 * memory.
+	 * <p>
+	 * A corrupt file is deleted. A truncated trailing record, e.g. from an
+	 * aborted build, is cut off.
+	 *
+	 * @return the total number of builds in the file
+	 */
+	private int read(int buildsToKeep) throws IOException {
+
+		names.clear();
+		nameIds.clear();
+		builds.clear();
+
+		int buildCount = 0;
+		long validLength = 0;
+		try (CountingDataInputStream input = new CountingDataInputStream(file)) {
+			if (!HEADER.read(input)) {
+				throw new IOException("Unknown test duration history format: " + file);
+			}
+			validLength = input.getPosition();
+
+			TestDurationHistoryBuild build = null;
+			while (true) {
+				int recordType = input.read();
+				if (recordType < 0) {
+					break;
+				} else if (recordType == BUILD_RECORD) {
+					build = new TestDurationHistoryBuild(input.readLong());
+					builds.add(build);
+					if (builds.size() > buildsToKeep) {
+						builds.removeFirst();
+					}
+					buildCount++;
+				} else if (recordType == NAME_RECORD) {
+					int id = input.readInt();
+					TestMethodName methodName = new TestMethodName(input.readUTF(), input.readUTF());
+					if (id != names.size()) {
+						throw new IOException("Unexpected test name ID %s in: %s".formatted(id, file));
+					}
+					addName(methodName);
+				} else if (recordType == DURATION_RECORD) {
+					int id = input.readInt();
+					int duration = input.readInt();
+					if (build != null && id < names.size()) {
+						build.setDuration(id, duration);
+					}
+				} else {
+					throw new IOException("Unknown record type %s in: %s".formatted(recordType, file));
+				}
+				validLength = input.getPosition();
+			}
+		} catch (EOFException exception) {
+			truncate(validLength);
+		} catch (IOException exception) {
+			names.clear();
+			nameIds.clear();
+			builds.clear();
+			file.delete();
+			return 0;
+		}
+		return buildCount;
+	}
+
+	private void compact() throws IOException {
+
+		read(COMPACTED_BUILDS);
+
+		List<TestMethodName> oldNames = new ArrayList<>(names);
+		List<TestDurationHistoryBuild> oldBuilds = new ArrayList<>(builds);
+		names.clear();
+		nameIds.clear();
+		builds.clear();
+
+		File temporaryFile = new File(file.getPath() + ".tmp");
+		try (DataOutputStream compactedOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+			HEADER.write(compactedOutput);
+			for (TestDurationHistoryBuild oldBuild: oldBuilds) {
+				TestDurationHistoryBuild newBuild = new TestDurationHistoryBuild(oldBuild.getTimestamp());
+				compactedOutput.writeByte(BUILD_RECORD);
+				compactedOutput.writeLong(oldBuild.getTimestamp());
+				for (int oldId = 0; oldId < oldBuild.getIdBound(); oldId++) {
+					OptionalLong duration = oldBuild.getDuration(oldId);
+					if (duration.isPresent()) {
+						TestMethodName methodName = oldNames.get(oldId);
+						Integer newId = nameIds.get(methodName);
+						if (newId == null) {
+							newId = addName(methodName);
+							writeNameRecord(compactedOutput, newId, methodName);
+						}
+						compactedOutput.writeByte(DURATION_RECORD);
+						compactedOutput.writeInt(newId);
+						compactedOutput.writeInt((int) duration.getAsLong());
+						newBuild.setDuration(newId, (int) duration.getAsLong());
+					}
+				}
+				builds.add(newBuild);
+			}
+		}
+
+		if (!temporaryFile.renameTo(file)) {
+			throw new IOException("Failed to replace test duration history: " + file);
+		}
+		while (builds.size() > loadedBuildCount) {
+			builds.removeFirst();
+		}
+	}
+
+	private void truncate(long length) throws IOException {
+
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.setLength(length);
+		}
+	}
+
+	// -------------------------------- writing -------------------------------- //
+
+	private DataOutputStream openForAppend() throws IOException {
+
+		file.getParentFile().mkdirs();
+		boolean fresh = !file.exists() || file.length() == 0;
+		DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 1 << 16));
+		if (fresh) {
+			HEADER.write(stream);
+		}
+		return stream;
+	}
+
+	private void writeNameRecord(DataOutputStream stream, int id, TestMethodName methodName) throws IOException {
+
+		stream.writeByte(NAME_RECORD);
+		stream.writeInt(id);
+		stream.writeUTF(Objects.toString(methodName.getClassName(), ""));
+		stream.writeUTF(Objects.toString(methodName.getMethodName(), ""));
+	}
+
+	private int addName(TestMethodName methodName) {
+
+		int id = names.size();
+		names.add(methodName);
+		nameIds.put(methodName, id);
+		return id;
+	}
+
+	private static class CountingDataInputStream extends DataInputStream {
+
+		public CountingDataInputStream(File file) throws IOException {
+
+			super(new CountingInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16)));
+		}
+
+		public long getPosition() {
+
+			return ((CountingInputStream) in).getCount();
+		}
+	}
+
+	private static class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		public CountingInputStream(InputStream input) {
+
+			super(input);
+			this.count = 0;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			int value = super.read();
+			if (value >= 0) {
+				count++;
+			}
+			return value;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+
+			int bytes = super.read(buffer, offset, length);
+			if (bytes > 0) {
+				count += bytes;
+			}
+			return bytes;
+		}
+
+		public long getCount() {
+
+			return count;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.softicar.gradle.test.logger.plugin.test.history;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * The test method durations that were recorded during a single build.
+ * <p>
+ * Durations are indexed by the ID of the respective test method name, as
+ * assigned by {@link TestDurationHistory}.
+ */
+public class TestDurationHistoryBuild {
+
+	private static final int ABSENT = -1;
+
+	private final long timestamp;
+	private int[] durations;
+
+	public TestDurationHistoryBuild(long timestamp) {
+
+		this.timestamp = timestamp;
+		this.durations = new int[0];
+	}
+
+	/**
+	 * Returns the point in time at which the build started, in milliseconds
+	 * since the epoch.
+	 *
+	 * @return the build timestamp
+	 */
+	public long getTimestamp() {
+
+		return timestamp;
+	}
+
+	/**
+	 * Determines the duration of the test method with the given ID.
+	 *
+	 * @param id
+	 *            the ID of the test method name
+	 * @return the duration in milliseconds; empty if the test method was not
+	 *         executed in this build
+	 */
+	public OptionalLong getDuration(int id) {
+
+		if (id < durations.length && durations[id] != ABSENT) {
+			return OptionalLong.of(durations[id]);
+		} else {
+			return OptionalLong.empty();
+		}
+	}
+
+	/**
+	 * Returns the exclusive upper bound of the test method IDs for which
+	 * durations may be defined.
+	 *
+	 * @return the ID bound
+	 */
+	public int getIdBound() {
+
+		return durations.length;
+	}
+
+	void setDuration(int id, int duration) {
+
+		if (id >= durations.length) {
+			int oldLength = durations.length;
+			durations = Arrays.copyOf(durations, Math.max(id + 1, oldLength * 2));
+			Arrays.fill(durations, oldLength, durations.length, ABSENT);
+		}
+		durations[id] = duration;
+	}
+}
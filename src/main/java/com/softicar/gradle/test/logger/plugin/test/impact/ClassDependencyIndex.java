@@ -0,0 +1,189 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import com.softicar.gradle.test.logger.plugin.test.format.BinaryFileHeader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A class-level dependency index of the classes of a test classpath, along
+ * with a fingerprint of everything else the tests depend on, e.g. build files,
+ * resources and external libraries.
+ * <p>
+ * For each class, the index stores the location and the time stamp of its
+ * class file, so that unchanged class files need not be read again, a hash of
+ * its content, and the names of the classes that it references.
+ */
+public class ClassDependencyIndex {
+
+	private static final BinaryFileHeader HEADER = BinaryFileHeader.DEPENDENCY_INDEX;
+
+	private final String fingerprint;
+	private final Map<String, Entry> entries;
+
+	public ClassDependencyIndex(String fingerprint, Map<String, Entry> entries) {
+
+		this.fingerprint = Objects.requireNonNull(fingerprint);
+		this.entries = Collections.unmodifiableMap(new TreeMap<>(entries));
+	}
+
+	/**
+	 * Returns the fingerprint of the build files, the resources and the
+	 * external libraries.
+	 *
+	 * @return the fingerprint (never <i>null</i>)
+	 */
+	public String getFingerprint() {
+
+		return fingerprint;
+	}
+
+	/**
+	 * Returns the entries of all indexed classes, by binary class name.
+	 *
+	 * @return the entries (never <i>null</i>)
+	 */
+	public Map<String, Entry> getEntries() {
+
+		return entries;
+	}
+
+	public void write(File file) {
+
+		file.getParentFile().mkdirs();
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			HEADER.write(output);
+			output.writeUTF(fingerprint);
+			output.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry: entries.entrySet()) {
+				output.writeUTF(entry.getKey());
+				entry.getValue().write(output);
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Reads an index from the given file, as written by {@link #write}.
+	 *
+	 * @param file
+	 *            the file to read (never <i>null</i>)
+	 * @return the index (never <i>null</i>)
+	 * @throws IOException
+	 *             if the file could not be read, or has an invalid format
+	 */
+	public static ClassDependencyIndex read(File file) throws IOException {
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (!HEADER.read(input)) {
+				throw new IOException("Unsupported class dependency index file: " + file);
+			}
+			String fingerprint = input.readUTF();
+			int count = input.readInt();
+			Map<String, Entry> entries = new TreeMap<>();
+			for (int i = 0; i < count; i++) {
+				entries.put(input.readUTF(), Entry.read(input));
+			}
+			return new ClassDependencyIndex(fingerprint, entries);
+		}
+	}
+
+	/**
+	 * The indexed information about a single class.
+	 */
+	public static class Entry {
+
+		private final String location;
+		private final long stamp;
+		private final long hash;
+		private final Set<String> references;
+
+		public Entry(String location, long stamp, long hash, Set<String> references) {
+
+			this.location = Objects.requireNonNull(location);
+			this.stamp = stamp;
+			this.hash = hash;
+			this.references = Collections.unmodifiableSet(new TreeSet<>(references));
+		}
+
+		/**
+		 * Returns the path of the class file, or of the archive that contains
+		 * it.
+		 *
+		 * @return the location (never <i>null</i>)
+		 */
+		public String getLocation() {
+
+			return location;
+		}
+
+		/**
+		 * Returns a value that changes whenever the file at
+		 * {@link #getLocation()} changes, derived from its size and its last
+		 * modification time.
+		 *
+		 * @return the stamp
+		 */
+		public long getStamp() {
+
+			return stamp;
+		}
+
+		/**
+		 * Returns the hash of the content of the class file.
+		 *
+		 * @return the hash
+		 */
+		public long getHash() {
+
+			return hash;
+		}
+
+		/**
+		 * Returns the binary names of the classes that this class references.
+		 *
+		 * @return the referenced class names (never <i>null</i>)
+		 */
+		public Set<String> getReferences() {
+
+			return references;
+		}
+
+		private void write(DataOutputStream output) throws IOException {
+
+			output.writeUTF(location);
+			output.writeLong(stamp);
+			output.writeLong(hash);
+			output.writeInt(references.size());
+			for (String reference: references) {
+				output.writeUTF(reference);
+			}
+		}
+
+		private static Entry read(DataInputStream input) throws IOException {
+
+			String location = input.readUTF();
+			long stamp = input.readLong();
+			long hash = input.readLong();
+			int count = input.readInt();
+			Set<String> references = new TreeSet<>();
+			for (int i = 0; i < count; i++) {
+				references.add(input.readUTF());
+			}
+			return new Entry(location, stamp, hash, references);
+		}
+	}
+}
@@ -0,0 +1,185 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import com.softicar.gradle.test.logger.plugin.test.impact.ClassDependencyIndex.Entry;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Creates a {@link ClassDependencyIndex} of the classes of a classpath.
+ * <p>
+ * Class directories, and archives within the root project directory, e.g. of
+ * project dependencies, are indexed class by class. Classes whose file is
+ * unchanged since the previous index are taken from there, without reading the
+ * file again. Archives outside of the root project directory, i.e. external
+ * libraries, are only included in the fingerprint of the index, together with
+ * the content of the given build files.
+ * <p>
+ * Other files in class directories and archives, i.e. resources, cannot be
+ * attributed to the classes that load them. Hence, their paths and contents
+ * are included in the fingerprint, so that any change of a resource causes a
+ * full test run.
+ */
+public class ClassDependencyIndexScanner {
+
+	private final Path rootDirectory;
+	private final List<File> buildFiles;
+	private final Map<String, Entry> previousEntries;
+	private final ClassReferenceReader referenceReader;
+	private final MessageDigest classDigest;
+
+	public ClassDependencyIndexScanner(File rootDirectory, List<File> buildFiles, Optional<ClassDependencyIndex> previous) {
+
+		this.rootDirectory = rootDirectory.toPath().toAbsolutePath().normalize();
+		this.buildFiles = Objects.requireNonNull(buildFiles);
+		this.previousEntries = previous.map(ClassDependencyIndex::getEntries).orElse(Map.of());
+		this.referenceReader = new ClassReferenceReader();
+		this.classDigest = createDigest();
+	}
+
+	/**
+	 * Indexes the given classpath.
+	 *
+	 * @param classpath
+	 *            the class directories and archives, in classpath order (never
+	 *            <i>null</i>)
+	 * @return the {@link ClassDependencyIndex} (never <i>null</i>)
+	 */
+	public ClassDependencyIndex scan(Iterable<File> classpath) {
+
+		Map<String, Entry> entries = new HashMap<>();
+		MessageDigest fingerprintDigest = createDigest();
+		try {
+			for (File buildFile: buildFiles) {
+				if (buildFile.isFile()) {
+					fingerprintDigest.update(buildFile.getName().getBytes(StandardCharsets.UTF_8));
+					fingerprintDigest.update(Files.readAllBytes(buildFile.toPath()));
+				}
+			}
+			Set<File> elements = new LinkedHashSet<>();
+			classpath.forEach(elements::add);
+			for (File element: elements) {
+				if (element.isDirectory()) {
+					scanDirectory(element.toPath(), entries, fingerprintDigest);
+				} else if (element.isFile() && element.toPath().toAbsolutePath().normalize().startsWith(rootDirectory)) {
+					scanArchive(element, entries, fingerprintDigest);
+				} else if (element.isFile()) {
+					fingerprintDigest.update("%s:%s:%s\n".formatted(element.getAbsolutePath(), element.length(), element.lastModified()).getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+		return new ClassDependencyIndex(String.format("%064x", new BigInteger(1, fingerprintDigest.digest())), entries);
+	}
+
+	private void scanDirectory(Path directory, Map<String, Entry> entries, MessageDigest fingerprintDigest) throws IOException {
+
+		List<Path> files;
+		try (Stream<Path> paths = Files.walk(directory)) {
+			files = paths.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		for (Path file: files) {
+			String name = directory.relativize(file).toString().replace(File.separatorChar, '/');
+			if (name.endsWith(".class")) {
+				String className = getClassName(name);
+				if (!entries.containsKey(className)) {
+					String location = file.toAbsolutePath().toString();
+					long stamp = getStamp(file.toFile());
+					Entry entry = getPreviousEntry(className, location, stamp);
+					entries.put(className, entry != null? entry : createEntry(location, stamp, Files.readAllBytes(file)));
+				}
+			} else {
+				byte[] bytes = Files.readAllBytes(file);
+				fingerprintDigest.update("%s:%s\n".formatted(name, bytes.length).getBytes(StandardCharsets.UTF_8));
+				fingerprintDigest.update(bytes);
+			}
+		}
+	}
+
+	private void scanArchive(File archive, Map<String, Entry> entries, MessageDigest fingerprintDigest) throws IOException {
+
+		long stamp = getStamp(archive);
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry zipEntry = zipEntries.nextElement();
+				String name = zipEntry.getName();
+				if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+					String className = getClassName(name);
+					if (!entries.containsKey(className)) {
+						String location = archive.getAbsolutePath() + "!/" + name;
+						Entry entry = getPreviousEntry(className, location, stamp);
+						if (entry == null) {
+							try (InputStream input = zipFile.getInputStream(zipEntry)) {
+								entry = createEntry(location, stamp, input.readAllBytes());
+							}
+						}
+						entries.put(className, entry);
+					}
+				} else if (!zipEntry.isDirectory()) {
+					// the CRC of a resource is known without decompressing it
+					fingerprintDigest.update("%s:%s:%s\n".formatted(name, zipEntry.getSize(), zipEntry.getCrc()).getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		}
+	}
+
+	private Entry getPreviousEntry(String className, String location, long stamp) {
+
+		Entry entry = previousEntries.get(className);
+		return entry != null && entry.getLocation().equals(location) && entry.getStamp() == stamp? entry : null;
+	}
+
+	private Entry createEntry(String location, long stamp, byte[] bytes) {
+
+		Set<String> references;
+		try {
+			references = referenceReader.read(bytes);
+		} catch (IOException exception) {
+			// a class file that cannot be parsed only matters by its hash
+			references = Set.of();
+		}
+		long hash = ByteBuffer.wrap(classDigest.digest(bytes)).getLong();
+		return new Entry(location, stamp, hash, references);
+	}
+
+	private long getStamp(File file) {
+
+		return 31 * file.lastModified() + file.length();
+	}
+
+	private String getClassName(String path) {
+
+		return path.substring(0, path.length() - ".class".length()).replace('/', '.');
+	}
+
+	private static MessageDigest createDigest() {
+
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Reads the names of the classes that are referenced by a class file, from
+ * its constant pool.
+ * <p>
+ * Besides the class constants, all type descriptors in UTF-8 constants are
+ * considered, e.g. of field types, method signatures and annotations. Since
+ * compile-time constants are inlined by the compiler, a reference to a class
+ * that only provides such constants is not visible in the class file.
+ */
+class ClassReferenceReader {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	/**
+	 * Reads the referenced class names from the given class file content.
+	 *
+	 * @param bytes
+	 *            the content of the class file (never <i>null</i>)
+	 * @return the binary names of the referenced classes, e.g.
+	 *         <i>com.example.Outer$Inner</i> (never <i>null</i>)
+	 * @throws IOException
+	 *             if the content is not a valid class file
+	 */
+	public Set<String> read(byte[] bytes) throws IOException {
+
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (input.readInt() != MAGIC) {
+			throw new IOException("Invalid class file magic.");
+		}
+		input.readUnsignedShort(); // minor version
+		input.readUnsignedShort(); // major version
+
+		int count = input.readUnsignedShort();
+		String[] utf8Constants = new String[count];
+		List<Integer> classNameIndexes = new ArrayList<>();
+		for (int index = 1; index < count; index++) {
+			int tag = input.readUnsignedByte();
+			switch (tag) {
+			case 1: // Utf8
+				utf8Constants[index] = input.readUTF();
+				break;
+			case 7: // Class
+				classNameIndexes.add(input.readUnsignedShort());
+				break;
+			case 8: // String
+			case 16: // MethodType
+			case 19: // Module
+			case 20: // Package
+				input.skipBytes(2);
+				break;
+			case 15: // MethodHandle
+				input.skipBytes(3);
+				break;
+			case 3: // Integer
+			case 4: // Float
+			case 9: // Fieldref
+			case 10: // Methodref
+			case 11: // InterfaceMethodref
+			case 12: // NameAndType
+			case 17: // Dynamic
+			case 18: // InvokeDynamic
+				input.skipBytes(4);
+				break;
+			case 5: // Long
+			case 6: // Double
+				input.skipBytes(8);
+				index++;
+				break;
+			default:
+				throw new IOException(String.format("Invalid constant pool tag %s at index %s.", tag, index));
+			}
+		}
+
+		Set<String> classNames = new TreeSet<>();
+		for (int nameIndex: classNameIndexes) {
+			String name = nameIndex < count? utf8Constants[nameIndex] : null;
+			if (name != null) {
+				if (name.startsWith("[")) {
+					addDescriptorClassNames(name, classNames);
+				} else {
+					classNames.add(name.replace('/', '.'));
+				}
+			}
+		}
+		for (String constant: utf8Constants) {
+			if (constant != null && constant.indexOf(';') >= 0) {
+				addDescriptorClassNames(constant, classNames);
+			}
+		}
+		return classNames;
+	}
+
+	/**
+	 * Adds the class names of all <i>L...;</i> types in the given descriptor
+	 * or signature. Type arguments of generic signatures are included.
+	 */
+	private void addDescriptorClassNames(String descriptor, Set<String> classNames) {
+
+		int start = descriptor.indexOf('L');
+		while (start >= 0) {
+			int end = start + 1;
+			while (end < descriptor.length() && isClassNameCharacter(descriptor.charAt(end))) {
+				end++;
+			}
+			if (end < descriptor.length() && end > start + 1 && (descriptor.charAt(end) == ';' || descriptor.charAt(end) == '<')) {
+				classNames.add(descriptor.substring(start + 1, end).replace('/', '.'));
+			}
+			start = descriptor.indexOf('L', end);
+		}
+	}
+
+	private boolean isClassNameCharacter(char character) {
+
+		return character != ';' && character != '<' && character != '>' && character != '(' && character != ')' && character != '[' && character != ':'
+				&& character != '.' && !Character.isWhitespace(character);
+	}
+}
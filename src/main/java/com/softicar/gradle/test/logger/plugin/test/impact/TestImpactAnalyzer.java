@@ -0,0 +1,98 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import com.softicar.gradle.test.logger.plugin.test.impact.ClassDependencyIndex.Entry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Selects the test classes whose transitive dependencies changed between two
+ * {@link ClassDependencyIndex} instances.
+ * <p>
+ * A class is changed if its hash differs, or if it was added or removed.
+ * Dependencies of both indexes are followed, so that tests that depended on a
+ * removed class, or on a class that no longer references a changed class, are
+ * selected as well.
+ */
+public class TestImpactAnalyzer {
+
+	/**
+	 * Selects the test classes to execute.
+	 *
+	 * @param previous
+	 *            the index of the previous successful test run, if any
+	 * @param current
+	 *            the index of the current classpath (never <i>null</i>)
+	 * @param testClassNames
+	 *            the names of all top-level test classes (never <i>null</i>)
+	 * @return the {@link TestImpactSelection} (never <i>null</i>)
+	 */
+	public TestImpactSelection select(Optional<ClassDependencyIndex> previous, ClassDependencyIndex current, Set<String> testClassNames) {
+
+		if (previous.isEmpty()) {
+			return TestImpactSelection.createFullRun(testClassNames, "no previous index exists");
+		} else if (!previous.get().getFingerprint().equals(current.getFingerprint())) {
+			return TestImpactSelection.createFullRun(testClassNames, "build files, resources or external libraries changed");
+		}
+
+		Set<String> changedClassNames = getChangedClassNames(previous.get(), current);
+		Map<String, Set<String>> dependents = new HashMap<>();
+		addDependents(previous.get(), dependents);
+		addDependents(current, dependents);
+
+		Set<String> affectedClassNames = new HashSet<>(changedClassNames);
+		Deque<String> queue = new ArrayDeque<>(changedClassNames);
+		while (!queue.isEmpty()) {
+			for (String dependent: dependents.getOrDefault(queue.poll(), Set.of())) {
+				if (affectedClassNames.add(dependent)) {
+					queue.add(dependent);
+				}
+			}
+		}
+
+		Set<String> selectedTestClassNames = new TreeSet<>();
+		for (String className: affectedClassNames) {
+			String topLevelClassName = getTopLevelClassName(className);
+			if (testClassNames.contains(topLevelClassName)) {
+				selectedTestClassNames.add(topLevelClassName);
+			}
+		}
+		return TestImpactSelection.createSelection(testClassNames, selectedTestClassNames, changedClassNames.size());
+	}
+
+	private Set<String> getChangedClassNames(ClassDependencyIndex previous, ClassDependencyIndex current) {
+
+		Set<String> changedClassNames = new TreeSet<>();
+		current.getEntries().forEach((className, entry) -> {
+			Entry previousEntry = previous.getEntries().get(className);
+			if (previousEntry == null || previousEntry.getHash() != entry.getHash()) {
+				changedClassNames.add(className);
+			}
+		});
+		previous.getEntries().keySet().stream().filter(className -> !current.getEntries().containsKey(className)).forEach(changedClassNames::add);
+		return changedClassNames;
+	}
+
+	private void addDependents(ClassDependencyIndex index, Map<String, Set<String>> dependents) {
+
+		index.getEntries().forEach((className, entry) -> {
+			for (String reference: entry.getReferences()) {
+				if (!Objects.equals(reference, className)) {
+					dependents.computeIfAbsent(reference, dummy -> new HashSet<>()).add(className);
+				}
+			}
+		});
+	}
+
+	private String getTopLevelClassName(String className) {
+
+		int nestedIndex = className.indexOf('$');
+		return nestedIndex >= 0? className.substring(0, nestedIndex) : className;
+	}
+}
@@ -0,0 +1,120 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.specs.Spec;
+
+/**
+ * Selects the class files of the test classes that are affected by the
+ * changes since the previous successful test run.
+ * <p>
+ * Directories and other files are always selected. The test task excludes
+ * all elements that do not satisfy this spec.
+ * <p>
+ * The selection is computed when the filter is used for the first time, i.e.
+ * when the test task is executed. The index of the current classpath is only
+ * written by {@link #writeIndex()}, which must be called after a successful
+ * test run, so that failed tests are selected again by the next run.
+ */
+public class TestImpactFilter implements Spec<FileTreeElement> {
+
+	private final File indexFile;
+	private final File rootDirectory;
+	private final Supplier<List<File>> buildFilesSupplier;
+	private final Supplier<FileCollection> classpathSupplier;
+	private final Supplier<FileCollection> testClassesDirsSupplier;
+	private final Logger logger;
+	private ClassDependencyIndex currentIndex;
+	private TestImpactSelection selection;
+
+	public TestImpactFilter(File indexFile, File rootDirectory, Supplier<List<File>> buildFilesSupplier, Supplier<FileCollection> classpathSupplier,
+			Supplier<FileCollection> testClassesDirsSupplier, Logger logger) {
+
+		this.indexFile = Objects.requireNonNull(indexFile);
+		this.rootDirectory = Objects.requireNonNull(rootDirectory);
+		this.buildFilesSupplier = Objects.requireNonNull(buildFilesSupplier);
+		this.classpathSupplier = Objects.requireNonNull(classpathSupplier);
+		this.testClassesDirsSupplier = Objects.requireNonNull(testClassesDirsSupplier);
+		this.logger = Objects.requireNonNull(logger);
+		this.currentIndex = null;
+		this.selection = null;
+	}
+
+	@Override
+	public boolean isSatisfiedBy(FileTreeElement element) {
+
+		if (element.isDirectory()) {
+			return true;
+		} else {
+			return getTopLevelClassName(element.getRelativePath()).map(getSelection()::contains).orElse(true);
+		}
+	}
+
+	/**
+	 * Returns the {@link TestImpactSelection}, and computes it if necessary.
+	 *
+	 * @return the {@link TestImpactSelection} (never <i>null</i>)
+	 */
+	public synchronized TestImpactSelection getSelection() {
+
+		if (selection == null) {
+			Optional<ClassDependencyIndex> previousIndex = readPreviousIndex();
+			FileCollection testClassesDirs = testClassesDirsSupplier.get();
+			currentIndex = new ClassDependencyIndexScanner(rootDirectory, buildFilesSupplier.get(), previousIndex)//
+				.scan(testClassesDirs.plus(classpathSupplier.get()));
+
+			Set<String> testClassNames = new TreeSet<>();
+			testClassesDirs.getAsFileTree().visit(details -> {
+				if (!details.isDirectory()) {
+					getTopLevelClassName(details.getRelativePath()).ifPresent(testClassNames::add);
+				}
+			});
+			selection = new TestImpactAnalyzer().select(previousIndex, currentIndex, testClassNames);
+		}
+		return selection;
+	}
+
+	/**
+	 * Writes the index of the current classpath, if it was computed.
+	 */
+	public synchronized void writeIndex() {
+
+		if (currentIndex != null) {
+			currentIndex.write(indexFile);
+		}
+	}
+
+	private Optional<ClassDependencyIndex> readPreviousIndex() {
+
+		if (indexFile.exists()) {
+			try {
+				return Optional.of(ClassDependencyIndex.read(indexFile));
+			} catch (IOException exception) {
+				logger.warn(String.format("Ignoring unreadable class dependency index file %s: %s", indexFile, exception.getMessage()));
+			}
+		}
+		return Optional.empty();
+	}
+
+	private static Optional<String> getTopLevelClassName(RelativePath relativePath) {
+
+		String path = relativePath.getPathString();
+		if (path.endsWith(".class")) {
+			String className = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+			int nestedIndex = className.indexOf('$');
+			return Optional.of(nestedIndex >= 0? className.substring(0, nestedIndex) : className);
+		} else {
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.softicar.gradle.test.logger.plugin.test.impact;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The test classes that are affected by the changes since the previous test
+ * impact index, or a full run along with its reason.
+ */
+public class TestImpactSelection {
+
+	private final Set<String> testClassNames;
+	private final Set<String> selectedTestClassNames;
+	private final int changedClassCount;
+	private final String fullRunReason;
+
+	private TestImpactSelection(Set<String> testClassNames, Set<String> selectedTestClassNames, int changedClassCount, String fullRunReason) {
+
+		this.testClassNames = Collections.unmodifiableSet(testClassNames);
+		this.selectedTestClassNames = Collections.unmodifiableSet(selectedTestClassNames);
+		this.changedClassCount = changedClassCount;
+		this.fullRunReason = fullRunReason;
+	}
+
+	public static TestImpactSelection createFullRun(Set<String> testClassNames, String reason) {
+
+		return new TestImpactSelection(testClassNames, testClassNames, 0, Objects.requireNonNull(reason));
+	}
+
+	public static TestImpactSelection createSelection(Set<String> testClassNames, Set<String> selectedTestClassNames, int changedClassCount) {
+
+		return new TestImpactSelection(testClassNames, selectedTestClassNames, changedClassCount, null);
+	}
+
+	/**
+	 * Returns the names of all top-level test classes.
+	 *
+	 * @return the test class names (never <i>null</i>)
+	 */
+	public Set<String> getTestClassNames() {
+
+		return testClassNames;
+	}
+
+	/**
+	 * Returns the names of the top-level test classes to execute.
+	 *
+	 * @return the selected test class names (never <i>null</i>)
+	 */
+	public Set<String> getSelectedTestClassNames() {
+
+		return selectedTestClassNames;
+	}
+
+	/**
+	 * Returns the number of classes that were changed, added or removed since
+	 * the previous index.
+	 *
+	 * @return the changed class count
+	 */
+	public int getChangedClassCount() {
+
+		return changedClassCount;
+	}
+
+	/**
+	 * Returns the reason why all test classes are executed, if any.
+	 *
+	 * @return the reason for a full run
+	 */
+	public Optional<String> getFullRunReason() {
+
+		return Optional.ofNullable(fullRunReason);
+	}
+
+	/**
+	 * Determines whether the given test class shall be executed.
+	 *
+	 * @param className
+	 *            the name of a top-level class (never <i>null</i>)
+	 * @return <i>true</i> if the class shall be executed; <i>false</i>
+	 *         otherwise
+	 */
+	public boolean contains(String className) {
+
+		return fullRunReason != null || selectedTestClassNames.contains(className);
+	}
+}
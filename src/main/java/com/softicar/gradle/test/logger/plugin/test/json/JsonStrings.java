@@ -0,0 +1,75 @@
+package com.softicar.gradle.test.logger.plugin.test.json;
+
+/**
+ * Converts {@link String} values to JSON string literals.
+ */
+public class JsonStrings {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private JsonStrings() {
+
+		// utility class
+	}
+
+	/**
+	 * Appends the given value as a quoted and escaped JSON string literal.
+	 *
+	 * @param value
+	 *            the value to append; <i>null</i> is appended as JSON
+	 *            <i>null</i>
+	 * @param builder
+	 *            the {@link StringBuilder} to append to (never <i>null</i>)
+	 * @return the given {@link StringBuilder}
+	 */
+	public static StringBuilder appendQuoted(String value, StringBuilder builder) {
+
+		if (value == null) {
+			return builder.append("null");
+		}
+
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char character = value.charAt(i);
+			switch (character) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (character < 0x20) {
+					builder//
+						.append("\\u00")
+						.append(HEX_DIGITS[character >> 4])
+						.append(HEX_DIGITS[character & 0xF]);
+				} else {
+					builder.append(character);
+				}
+			}
+		}
+		return builder.append('"');
+	}
+
+	/**
+	 * Returns the given value as a quoted and escaped JSON string literal.
+	 *
+	 * @param value
+	 *            the value to quote; <i>null</i> yields JSON <i>null</i>
+	 * @return the JSON string literal (never <i>null</i>)
+	 */
+	public static String quote(String value) {
+
+		return appendQuoted(value, new StringBuilder()).toString();
+	}
+}
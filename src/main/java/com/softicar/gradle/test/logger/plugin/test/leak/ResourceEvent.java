@@ -0,0 +1,74 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+/**
+ * A change of the live threads or open file descriptors of a test worker
+ * process, as recorded by the {@link ResourceSnapshotAgent}.
+ */
+public class ResourceEvent {
+
+	private final long timestamp;
+	private final boolean thread;
+	private final boolean opened;
+	private final String id;
+	private final boolean daemon;
+	private final String description;
+
+	public ResourceEvent(long timestamp, boolean thread, boolean opened, String id, boolean daemon, String description) {
+
+		this.timestamp = timestamp;
+		this.thread = thread;
+		this.opened = opened;
+		this.id = id;
+		this.daemon = daemon;
+		this.description = description;
+	}
+
+	/**
+	 * @return the time of the snapshot that detected the change, in
+	 *         microseconds since the epoch
+	 */
+	public long getTimestamp() {
+
+		return timestamp;
+	}
+
+	/**
+	 * @return <i>true</i> if the event concerns a thread; <i>false</i> if it
+	 *         concerns a file descriptor
+	 */
+	public boolean isThread() {
+
+		return thread;
+	}
+
+	/**
+	 * @return <i>true</i> if the thread was started or the file descriptor was
+	 *         opened; <i>false</i> otherwise
+	 */
+	public boolean isOpened() {
+
+		return opened;
+	}
+
+	/**
+	 * @return the ID of the thread, or the number of the file descriptor
+	 */
+	public String getId() {
+
+		return id;
+	}
+
+	public boolean isDaemon() {
+
+		return daemon;
+	}
+
+	/**
+	 * @return the name of the thread, or the target of the file descriptor;
+	 *         empty for closing events
+	 */
+	public String getDescription() {
+
+		return description;
+	}
+}
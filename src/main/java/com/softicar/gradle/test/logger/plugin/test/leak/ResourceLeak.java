@@ -0,0 +1,50 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import java.util.List;
+
+/**
+ * The threads and file descriptors that a test class left behind in a test
+ * worker process.
+ */
+public class ResourceLeak {
+
+	private final String className;
+	private final String worker;
+	private final List<String> threads;
+	private final List<String> files;
+
+	public ResourceLeak(String className, String worker, List<String> threads, List<String> files) {
+
+		this.className = className;
+		this.worker = worker;
+		this.threads = List.copyOf(threads);
+		this.files = List.copyOf(files);
+	}
+
+	public String getClassName() {
+
+		return className;
+	}
+
+	public String getWorker() {
+
+		return worker;
+	}
+
+	/**
+	 * @return the names of the leaked non-daemon threads (never <i>null</i>)
+	 */
+	public List<String> getThreads() {
+
+		return threads;
+	}
+
+	/**
+	 * @return the targets of the leaked file descriptors, e.g. file paths or
+	 *         <i>socket:[1234]</i> (never <i>null</i>)
+	 */
+	public List<String> getFiles() {
+
+		return files;
+	}
+}
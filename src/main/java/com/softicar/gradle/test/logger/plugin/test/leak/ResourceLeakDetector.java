@@ -0,0 +1,134 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Determines the test classes that left threads or file descriptors behind,
+ * based on the {@link ResourceEvent} instances of the test worker processes.
+ * <p>
+ * A non-daemon thread or a file descriptor is leaked by a test class, if it
+ * was started or opened during the execution of the test class, and is still
+ * alive or open at the start of the next test class in the same worker, or a
+ * grace period after the end of the test class. Daemon threads are ignored,
+ * as well as JAR files and native libraries, which the JVM keeps open once
+ * loaded.
+ * <p>
+ * The attribution is an approximation. The executions of the test classes
+ * are measured from the test events in the Gradle daemon, which arrive with a
+ * delay, so each execution is moved back by 100 ms. The agent
+ * polls, so a resource is only seen up to
+ * {@link ResourceSnapshotAgent#SNAPSHOT_PERIOD} after it was started or
+ * opened, so each execution is extended by that period. Each resource is
+ * attributed to at most one test class, i.e. the last one that started before
+ * the resource was seen. Resources that were seen before the first test class
+ * of a worker started belong to the worker itself. Near the boundary of two
+ * test classes, a resource may still be attributed to the wrong one.
+ */
+public class ResourceLeakDetector {
+
+	private static final long GRACE_PERIOD = TimeUnit.MILLISECONDS.toMicros(ResourceSnapshotAgent.SNAPSHOT_PERIOD * 3);
+	private static final long EVENT_LATENCY = TimeUnit.MILLISECONDS.toMicros(100);
+	private static final long SNAPSHOT_LATENCY = TimeUnit.MILLISECONDS.toMicros(ResourceSnapshotAgent.SNAPSHOT_PERIOD);
+	private static final Pattern IGNORED_FILE_PATTERN = Pattern.compile(".*(\\.jar|\\.jmod|\\.so(\\.\\d+)*|/lib/modules|/dev/u?random)$");
+
+	/**
+	 * @param windows
+	 *            the executions of the test classes (never <i>null</i>)
+	 * @param events
+	 *            the events per test worker, in the order of their occurrence
+	 *            (never <i>null</i>)
+	 * @return the detected {@link ResourceLeak} instances, in the order of the
+	 *         test class executions (never <i>null</i>)
+	 */
+	public List<ResourceLeak> detect(List<TestClassWindow> windows, Map<String, List<ResourceEvent>> events) {
+
+		Objects.requireNonNull(events);
+		Map<String, List<TestClassWindow>> workerWindows = windows//
+			.stream()
+			.sorted(Comparator.comparingLong(TestClassWindow::getStartTimestamp))
+			.collect(Collectors.groupingBy(TestClassWindow::getWorker));
+
+		List<ResourceLeak> leaks = new ArrayList<>();
+		workerWindows.forEach((worker, list) -> {
+			List<ResourceEvent> workerEvents = events.get(worker);
+			if (workerEvents != null) {
+				detect(worker, list, getLifetimes(workerEvents), leaks);
+			}
+		});
+		leaks.sort(Comparator.comparing(ResourceLeak::getWorker).thenComparing(ResourceLeak::getClassName));
+		return leaks;
+	}
+
+	private void detect(String worker, List<TestClassWindow> windows, List<Lifetime> lifetimes, List<ResourceLeak> leaks) {
+
+		for (int index = 0; index < windows.size(); index++) {
+			TestClassWindow window = windows.get(index);
+			long checkTimestamp = window.getEndTimestamp() + GRACE_PERIOD;
+			long fromTimestamp = index > 0? window.getStartTimestamp() - EVENT_LATENCY : window.getStartTimestamp();
+			long untilTimestamp = window.getEndTimestamp() + SNAPSHOT_LATENCY;
+			if (index + 1 < windows.size()) {
+				TestClassWindow nextWindow = windows.get(index + 1);
+				checkTimestamp = Math.max(checkTimestamp, nextWindow.getStartTimestamp());
+				untilTimestamp = Math.min(untilTimestamp, nextWindow.getStartTimestamp() - EVENT_LATENCY);
+			}
+
+			List<String> threads = new ArrayList<>();
+			List<String> files = new ArrayList<>();
+			for (Lifetime lifetime: lifetimes) {
+				if (lifetime.start >= fromTimestamp && lifetime.start < untilTimestamp && lifetime.end > checkTimestamp) {
+					(lifetime.thread? threads : files).add(lifetime.description);
+				}
+			}
+			if (!threads.isEmpty() || !files.isEmpty()) {
+				leaks.add(new ResourceLeak(window.getClassName(), worker, threads, files));
+			}
+		}
+	}
+
+	private List<Lifetime> getLifetimes(List<ResourceEvent> events) {
+
+		List<Lifetime> lifetimes = new ArrayList<>();
+		Map<String, Lifetime> openLifetimes = new HashMap<>();
+		for (ResourceEvent event: events) {
+			String key = (event.isThread()? "T" : "F") + event.getId();
+			if (event.isOpened()) {
+				if (event.isThread() && event.isDaemon() || !event.isThread() && IGNORED_FILE_PATTERN.matcher(event.getDescription()).matches()) {
+					continue;
+				}
+				Lifetime lifetime = new Lifetime(event.isThread(), event.getDescription(), event.getTimestamp());
+				openLifetimes.put(key, lifetime);
+				lifetimes.add(lifetime);
+			} else {
+				Lifetime lifetime = openLifetimes.remove(key);
+				if (lifetime != null) {
+					lifetime.end = event.getTimestamp();
+				}
+			}
+		}
+		return lifetimes;
+	}
+
+	private static class Lifetime {
+
+		private final boolean thread;
+		private final String description;
+		private final long start;
+		private long end;
+
+		public Lifetime(boolean thread, String description, long start) {
+
+			this.thread = thread;
+			this.description = description;
+			this.start = start;
+			this.end = Long.MAX_VALUE;
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import java.util.List;
+import java.util.Objects;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs the test classes that left threads or file descriptors behind.
+ */
+public class ResourceLeakLogger {
+
+	private static final int MAX_NAMES = 5;
+
+	private final Logger logger;
+
+	public ResourceLeakLogger(Logger logger) {
+
+		this.logger = Objects.requireNonNull(logger);
+	}
+
+	public void log(List<ResourceLeak> leaks) {
+
+		if (!leaks.isEmpty()) {
+			logger.lifecycle(String.format("WARNING: %s test class(es) left threads or file handles behind:", leaks.size()));
+			logger.lifecycle("");
+
+			int counter = 0;
+			for (ResourceLeak leak: leaks) {
+				++counter;
+				logger
+					.lifecycle(
+						String
+							.format(//
+								"Leaking Test Class #%s >  %s  [%s]  threads: %s  files: %s",
+								counter,
+								leak.getClassName(),
+								leak.getWorker(),
+								format(leak.getThreads()),
+								format(leak.getFiles())));
+			}
+
+			logger.lifecycle("");
+		}
+	}
+
+	private String format(List<String> names) {
+
+		if (names.isEmpty()) {
+			return "0";
+		} else if (names.size() > MAX_NAMES) {
+			return String.format("%s (%s, ...)", names.size(), String.join(", ", names.subList(0, MAX_NAMES)));
+		} else {
+			return String.format("%s (%s)", names.size(), String.join(", ", names));
+		}
+	}
+}
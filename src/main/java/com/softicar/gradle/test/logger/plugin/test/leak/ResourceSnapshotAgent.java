@@ -0,0 +1,204 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A Java agent that periodically snapshots the live threads and the open file
+ * descriptors of a test worker process.
+ * <p>
+ * The agent is started via the <i>-javaagent</i> JVM argument, with a
+ * snapshot directory as agent argument. Whenever a snapshot differs from the
+ * previous one, the differences are appended to a file in the snapshot
+ * directory, named after the process ID. The first line holds the name of the
+ * test worker, e.g. <i>Gradle Test Executor 3</i>. Each following line holds
+ * the timestamp in microseconds since the epoch, and one of:
+ * <ul>
+ * <li><code>+T &lt;id&gt; &lt;daemon&gt; &lt;name&gt;</code> for a started
+ * thread, with <i>daemon</i> being 0 or 1</li>
+ * <li><code>-T &lt;id&gt;</code> for a terminated thread</li>
+ * <li><code>+F &lt;fd&gt; &lt;target&gt;</code> for an opened file
+ * descriptor</li>
+ * <li><code>-F &lt;fd&gt;</code> for a closed file descriptor</li>
+ * </ul>
+ * File descriptors are read from <i>/proc/self/fd</i>, and are thus only
+ * snapshot on Linux.
+ * <p>
+ * The file is limited to {@link #MAX_FILE_LENGTH} characters, e.g. for tests
+ * that start threads in a loop. Once the limit would be exceeded, a last line
+ * <code>&lt;timestamp&gt; !</code> is written, and no further snapshots are
+ * taken.
+ * <p>
+ * This class is copied into a separate agent JAR, see
+ * {@link com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar}.
+ * Hence, it must only refer to classes of the JDK, and must not contain
+ * nested, anonymous or local classes.
+ */
+public class ResourceSnapshotAgent implements Runnable {
+
+	/**
+	 * The time between two snapshots, in milliseconds.
+	 */
+	public static final long SNAPSHOT_PERIOD = 50;
+
+	/**
+	 * The maximum number of characters of the snapshot file.
+	 */
+	public static final long MAX_FILE_LENGTH = 16 * 1024 * 1024;
+
+	/**
+	 * The event that marks the end of a truncated snapshot file.
+	 */
+	public static final String TRUNCATION_EVENT = "!";
+
+	private static final Pattern WORKER_PATTERN = Pattern.compile("Gradle Test Executor \\d+");
+	private static final Path FD_DIRECTORY = Paths.get("/proc/self/fd");
+
+	private final PrintWriter writer;
+	private final Map<Long, String> threads;
+	private final Map<String, String> files;
+	private long fileLength;
+
+	private ResourceSnapshotAgent(PrintWriter writer) {
+
+		this.writer = writer;
+		this.threads = new HashMap<>();
+		this.files = new HashMap<>();
+		this.fileLength = 0;
+	}
+
+	public static void premain(String directory) {
+
+		try {
+			File file = new File(directory, String.format("resources-%s.txt", ProcessHandle.current().pid()));
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+			writer.println(getWorker());
+			writer.flush();
+			Thread thread = new Thread(new ResourceSnapshotAgent(writer), "SoftiCAR Resource Snapshot Agent");
+			thread.setDaemon(true);
+			thread.start();
+		} catch (IOException | RuntimeException exception) {
+			// the test worker must not fail because of the agent
+			System.err.println("Failed to start the resource snapshot agent: " + exception);
+		}
+	}
+
+	@Override
+	public void run() {
+
+		try {
+			while (snapshot()) {
+				Thread.sleep(SNAPSHOT_PERIOD);
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean snapshot() {
+
+		long timestamp = System.currentTimeMillis() * 1000;
+		Map<Long, String> currentThreads = getThreads();
+		Map<String, String> currentFiles = getFiles();
+		StringBuilder builder = new StringBuilder();
+		currentThreads.forEach((id, description) -> {
+			if (!threads.containsKey(id)) {
+				builder.append(timestamp).append(" +T ").append(id).append(' ').append(description).append('\n');
+			}
+		});
+		threads.keySet().forEach(id -> {
+			if (!currentThreads.containsKey(id)) {
+				builder.append(timestamp).append(" -T ").append(id).append('\n');
+			}
+		});
+		currentFiles.forEach((fd, target) -> {
+			if (!target.equals(files.get(fd))) {
+				if (files.containsKey(fd)) {
+					builder.append(timestamp).append(" -F ").append(fd).append('\n');
+				}
+				builder.append(timestamp).append(" +F ").append(fd).append(' ').append(target).append('\n');
+			}
+		});
+		files.keySet().forEach(fd -> {
+			if (!currentFiles.containsKey(fd)) {
+				builder.append(timestamp).append(" -F ").append(fd).append('\n');
+			}
+		});
+		threads.clear();
+		threads.putAll(currentThreads);
+		files.clear();
+		files.putAll(currentFiles);
+		if (fileLength + builder.length() > MAX_FILE_LENGTH) {
+			writer.println(timestamp + " " + TRUNCATION_EVENT);
+			writer.flush();
+			return false;
+		} else if (builder.length() > 0) {
+			fileLength += builder.length();
+			writer.print(builder);
+			writer.flush();
+		}
+		return true;
+	}
+
+	private Map<Long, String> getThreads() {
+
+		ThreadGroup group = Thread.currentThread().getThreadGroup();
+		while (group.getParent() != null) {
+			group = group.getParent();
+		}
+		Thread[] array = new Thread[group.activeCount() + 16];
+		int count = group.enumerate(array, true);
+		while (count == array.length) {
+			array = new Thread[array.length * 2];
+			count = group.enumerate(array, true);
+		}
+
+		Map<Long, String> threads = new HashMap<>();
+		for (int index = 0; index < count; index++) {
+			Thread thread = array[index];
+			if (thread != Thread.currentThread()) {
+				threads.put(thread.getId(), (thread.isDaemon()? "1 " : "0 ") + thread.getName().replace('\n', ' '));
+			}
+		}
+		return threads;
+	}
+
+	private Map<String, String> getFiles() {
+
+		Map<String, String> files = new HashMap<>();
+		if (Files.isDirectory(FD_DIRECTORY)) {
+			File[] entries = FD_DIRECTORY.toFile().listFiles();
+			if (entries != null) {
+				for (File entry: entries) {
+					try {
+						String target = Files.readSymbolicLink(entry.toPath()).toString();
+						// skip the descriptor that lists the directory itself
+						if (!target.startsWith("/proc/")) {
+							files.put(entry.getName(), target.replace('\n', ' '));
+						}
+					} catch (IOException exception) {
+						// the descriptor was closed in the meantime
+					}
+				}
+			}
+		}
+		return files;
+	}
+
+	private static String getWorker() {
+
+		Matcher matcher = WORKER_PATTERN.matcher(System.getProperty("sun.java.command", ""));
+		return matcher.find()? matcher.group() : "";
+	}
+}
@@ -0,0 +1,142 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Configures the {@link ResourceSnapshotAgent} for each test worker process,
+ * and reads the resulting {@link ResourceEvent} instances.
+ */
+public class ResourceSnapshotRecording {
+
+	private static final String AGENT_FILE_NAME = "resource-snapshot-agent.jar";
+	private static final String SNAPSHOT_FILE_PREFIX = "resources-";
+	private static final String SNAPSHOT_FILE_SUFFIX = ".txt";
+
+	private final File directory;
+
+	public ResourceSnapshotRecording(File directory) {
+
+		this.directory = Objects.requireNonNull(directory);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the {@link ResourceSnapshotAgent}.
+	 *
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public String getJvmArgument() {
+
+		return getAgentJar().getJvmArgument(directory.getAbsolutePath());
+	}
+
+	/**
+	 * Deletes the snapshot files of previous executions, and writes the agent
+	 * JAR.
+	 */
+	public void prepare() {
+
+		getSnapshotFiles().forEach(File::delete);
+		getAgentJar().write();
+	}
+
+	/**
+	 * Reads the events that were written by the test worker processes.
+	 * <p>
+	 * Unreadable lines, e.g. the last line of a process that was killed, are
+	 * skipped. If the agent truncated a file, the threads and files that were
+	 * still open at that point are considered closed then, since their further
+	 * lifetime is unknown.
+	 *
+	 * @return the events per test worker name, in the order of their
+	 *         occurrence (never <i>null</i>)
+	 */
+	public Map<String, List<ResourceEvent>> read() {
+
+		Map<String, List<ResourceEvent>> events = new TreeMap<>();
+		for (File file: getSnapshotFiles()) {
+			try {
+				List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+				if (!lines.isEmpty() && !lines.get(0).isEmpty()) {
+					events.computeIfAbsent(lines.get(0), dummy -> new ArrayList<>()).addAll(parseEvents(lines.subList(1, lines.size())));
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		return events;
+	}
+
+	private List<ResourceEvent> parseEvents(List<String> lines) {
+
+		List<ResourceEvent> events = new ArrayList<>();
+		Map<String, ResourceEvent> openEvents = new LinkedHashMap<>();
+		for (String line: lines) {
+			String[] parts = line.split(" ");
+			if (parts.length == 2 && parts[1].equals(ResourceSnapshotAgent.TRUNCATION_EVENT) && parts[0].chars().allMatch(Character::isDigit)) {
+				long timestamp = Long.parseLong(parts[0]);
+				openEvents.values().forEach(it -> events.add(new ResourceEvent(timestamp, it.isThread(), false, it.getId(), false, "")));
+				break;
+			}
+			ResourceEvent event = parseEvent(line);
+			if (event != null) {
+				String key = (event.isThread()? "T" : "F") + event.getId();
+				if (event.isOpened()) {
+					openEvents.put(key, event);
+				} else {
+					openEvents.remove(key);
+				}
+				events.add(event);
+			}
+		}
+		return events;
+	}
+
+	private ResourceEvent parseEvent(String line) {
+
+		String[] parts = line.split(" ", 3);
+		if (parts.length != 3 || parts[1].length() != 2) {
+			return null;
+		}
+		try {
+			long timestamp = Long.parseLong(parts[0]);
+			boolean opened = parts[1].charAt(0) == '+';
+			boolean thread = parts[1].charAt(1) == 'T';
+			if (!opened) {
+				return new ResourceEvent(timestamp, thread, false, parts[2], false, "");
+			} else if (thread) {
+				String[] values = parts[2].split(" ", 3);
+				return values.length == 3? new ResourceEvent(timestamp, true, true, values[0], values[1].equals("1"), values[2]) : null;
+			} else {
+				String[] values = parts[2].split(" ", 2);
+				return values.length == 2? new ResourceEvent(timestamp, false, true, values[0], false, values[1]) : null;
+			}
+		} catch (NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	private List<File> getSnapshotFiles() {
+
+		File[] files = directory.listFiles((dummy, name) -> name.startsWith(SNAPSHOT_FILE_PREFIX) && name.endsWith(SNAPSHOT_FILE_SUFFIX));
+		return files != null? Arrays.stream(files).sorted().collect(Collectors.toList()) : Collections.emptyList();
+	}
+
+	private JavaAgentJar getAgentJar() {
+
+		return new JavaAgentJar(ResourceSnapshotAgent.class, new File(directory, AGENT_FILE_NAME));
+	}
+}
@@ -0,0 +1,42 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+/**
+ * The execution of a test class in a test worker process.
+ * <p>
+ * All timestamps are in microseconds since the epoch.
+ */
+public class TestClassWindow {
+
+	private final String className;
+	private final String worker;
+	private final long startTimestamp;
+	private final long endTimestamp;
+
+	public TestClassWindow(String className, String worker, long startTimestamp, long endTimestamp) {
+
+		this.className = className;
+		this.worker = worker;
+		this.startTimestamp = startTimestamp;
+		this.endTimestamp = endTimestamp;
+	}
+
+	public String getClassName() {
+
+		return className;
+	}
+
+	public String getWorker() {
+
+		return worker;
+	}
+
+	public long getStartTimestamp() {
+
+		return startTimestamp;
+	}
+
+	public long getEndTimestamp() {
+
+		return endTimestamp;
+	}
+}
@@ -0,0 +1,64 @@
+package com.softicar.gradle.test.logger.plugin.test.leak;
+
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Tracks the start and the end of test class executions, as
+ * {@link TestClassWindow} instances.
+ * <p>
+ * Test classes are represented by suite descriptors with a class name. Other
+ * suites, e.g. of the test worker processes, are ignored. Timestamps are taken
+ * from the wall clock, to be comparable with the timestamps of the
+ * {@link ResourceSnapshotAgent}.
+ * <p>
+ * This class is thread-safe.
+ */
+public class TestClassWindowTracker {
+
+	private final TestRunTracker testRunTracker;
+	private final Map<TestDescriptor, Long> runningClassMap;
+	private final List<TestClassWindow> windows;
+
+	public TestClassWindowTracker(TestRunTracker testRunTracker) {
+
+		this.testRunTracker = Objects.requireNonNull(testRunTracker);
+		this.runningClassMap = new ConcurrentHashMap<>();
+		this.windows = new ArrayList<>();
+	}
+
+	public void startSuite(TestDescriptor descriptor) {
+
+		if (descriptor.getClassName() != null) {
+			runningClassMap.put(descriptor, System.currentTimeMillis() * 1000);
+		}
+	}
+
+	public void endSuite(TestDescriptor descriptor) {
+
+		Long start = descriptor.getClassName() != null? runningClassMap.remove(descriptor) : null;
+		if (start != null) {
+			TestClassWindow window = new TestClassWindow(descriptor.getClassName(), testRunTracker.getWorker(descriptor), start, System.currentTimeMillis() * 1000);
+			synchronized (windows) {
+				windows.add(window);
+			}
+		}
+	}
+
+	/**
+	 * Returns the executions of all test classes that ended.
+	 *
+	 * @return the {@link TestClassWindow} instances (never <i>null</i>)
+	 */
+	public List<TestClassWindow> getWindows() {
+
+		synchronized (windows) {
+			return new ArrayList<>(windows);
+		}
+	}
+}
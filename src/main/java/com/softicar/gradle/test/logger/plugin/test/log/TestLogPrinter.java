@@ -1,56 +1,208 @@
 package com.softicar.gradle.test.logger.plugin.test.log;
 
+import java.time.Instant;
 import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.tasks.testing.TestResult.ResultType;
 
-public class TestLogPrinter {
+/**
+ * Prints log lines about started and finished tests.
+ * <p>
+ * To never delay the delivery of test events, the calling thread only puts a
+ * lightweight entry into a bounded queue. A single consumer thread formats the
+ * queued entries, and logs them in batches. If the queue is full, entries are
+ * dropped, and the number of dropped entries is logged instead.
+ * <p>
+ * {@link #close()} must be called to log all pending entries.
+ */
+public class TestLogPrinter implements AutoCloseable {
+
+	private static final int QUEUE_CAPACITY = 16384;
+	private static final int MAX_BATCH_SIZE = 512;
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
 
 	private final Logger logger;
+	private final BlockingQueue<Entry> queue;
+	private final AtomicLong droppedEntries;
+	private volatile Thread consumer;
+	private volatile boolean closed;
+
+	// only accessed by the consumer thread
+	private long cachedSecond;
+	private String cachedTime;
 
 	public TestLogPrinter(Logger logger) {
 
 		this.logger = Objects.requireNonNull(logger);
+		this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		this.droppedEntries = new AtomicLong();
+		this.consumer = null;
+		this.closed = false;
+		this.cachedSecond = -1;
+		this.cachedTime = null;
 	}
 
 	public void printStart(int index, int runningCount, String methodName, String className) {
 
-		print(//
-			index,
-			runningCount,
-			methodName,
-			className,
-			"started");
+		enqueue(new Entry(System.currentTimeMillis(), index, runningCount, methodName, className, null, 0));
 	}
 
 	public void printResult(int index, int runningCount, String methodName, String className, ResultType resultType, long duration) {
 
-		print(//
-			index,
-			runningCount,
-			methodName,
-			className,
-			String.format("%s (%.2fs)", resultType, duration / 1000d));
+		enqueue(new Entry(System.currentTimeMillis(), index, runningCount, methodName, className, resultType, duration));
+	}
+
+	/**
+	 * Logs all pending entries, and stops the consumer thread.
+	 */
+	@Override
+	public void close() {
+
+		Thread consumer;
+		synchronized (this) {
+			closed = true;
+			consumer = this.consumer;
+		}
+		if (consumer != null) {
+			try {
+				consumer.join();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		} else {
+			logPending();
+		}
+	}
+
+	private void enqueue(Entry entry) {
+
+		startConsumerIfNecessary();
+		if (!queue.offer(entry)) {
+			droppedEntries.incrementAndGet();
+		}
+	}
+
+	private void startConsumerIfNecessary() {
+
+		if (consumer == null) {
+			synchronized (this) {
+				if (consumer == null && !closed) {
+					consumer = new Thread(this::consume, "SoftiCAR Test Log Printer");
+					consumer.setDaemon(true);
+					consumer.start();
+				}
+			}
+		}
+	}
+
+	private void consume() {
+
+		try {
+			while (!closed || !queue.isEmpty()) {
+				Entry first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+				if (first != null) {
+					List<Entry> batch = new ArrayList<>();
+					batch.add(first);
+					queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+					logBatch(batch);
+				}
+				logDroppedEntries();
+			}
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
-	private void print(int index, int runningCount, String methodName, String className, String status) {
+	private void logPending() {
 
-		String message = String
-			.format(//
-				"[%s] Test #%s (running: %s)  %s  [%s]  > %s",
-				getFormattedTime(),
-				index,
-				runningCount,
-				methodName,
-				className,
-				status);
-		logger.lifecycle(message);
+		List<Entry> batch = new ArrayList<>();
+		queue.drainTo(batch);
+		if (!batch.isEmpty()) {
+			logBatch(batch);
+		}
+		logDroppedEntries();
 	}
 
-	private String getFormattedTime() {
+	private void logBatch(List<Entry> batch) {
+
+		StringBuilder builder = new StringBuilder();
+		for (Entry entry: batch) {
+			if (builder.length() > 0) {
+				builder.append('\n');
+			}
+			format(entry, builder);
+		}
+		logger.lifecycle(builder.toString());
+	}
+
+	private void logDroppedEntries() {
+
+		long dropped = droppedEntries.getAndSet(0);
+		if (dropped > 0) {
+			logger.lifecycle(String.format("[%s] %s test log line(s) dropped, since the console output could not keep up", getFormattedTime(System.currentTimeMillis()), dropped));
+		}
+	}
+
+	private void format(Entry entry, StringBuilder builder) {
+
+		builder//
+			.append('[')
+			.append(getFormattedTime(entry.timestamp))
+			.append("] Test #")
+			.append(entry.index)
+			.append(" (running: ")
+			.append(entry.runningCount)
+			.append(")  ")
+			.append(entry.methodName)
+			.append("  [")
+			.append(entry.className)
+			.append("]  > ");
+		if (entry.resultType == null) {
+			builder.append("started");
+		} else {
+			builder.append(String.format("%s (%.2fs)", entry.resultType, entry.duration / 1000d));
+		}
+	}
+
+	private String getFormattedTime(long timestamp) {
+
+		long second = timestamp / 1000;
+		if (second != cachedSecond) {
+			cachedSecond = second;
+			cachedTime = LocalTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault()).format(TIME_FORMATTER);
+		}
+		return cachedTime;
+	}
+
+	private static class Entry {
+
+		private final long timestamp;
+		private final int index;
+		private final int runningCount;
+		private final String methodName;
+		private final String className;
+		private final ResultType resultType;
+		private final long duration;
+
+		public Entry(long timestamp, int index, int runningCount, String methodName, String className, ResultType resultType, long duration) {
 
-		return LocalTime.now().format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+			this.timestamp = timestamp;
+			this.index = index;
+			this.runningCount = runningCount;
+			this.methodName = methodName;
+			this.className = className;
+			this.resultType = resultType;
+			this.duration = duration;
+		}
 	}
 }
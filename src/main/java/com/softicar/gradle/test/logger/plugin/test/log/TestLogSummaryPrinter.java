@@ -0,0 +1,175 @@
+package com.softicar.gradle.test.logger.plugin.test.log;
+
+import com.softicar.gradle.test.logger.plugin.test.run.FinishedTestRunMetrics;
+import com.softicar.gradle.test.logger.plugin.test.run.RunningTest;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.tasks.testing.TestResult.ResultType;
+
+/**
+ * Logs an aggregated summary line about the finished and running tests once
+ * per interval, instead of two lines per test.
+ * <p>
+ * Each summary line contains the number of finished, failed and skipped tests,
+ * the number of running tests, and the test that has been running the
+ * longest. Individual result lines are only printed via a
+ * {@link TestLogPrinter} for failed tests, and for tests that took at least a
+ * given threshold.
+ * <p>
+ * Summary lines are logged by a daemon thread, from {@link #start()} until
+ * {@link #close()}. Intervals without finished or running tests are not
+ * logged. Recording results does not use locks.
+ */
+public class TestLogSummaryPrinter implements AutoCloseable {
+
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+	private final Logger logger;
+	private final TestLogPrinter printer;
+	private final TestRunTracker testRunTracker;
+	private final long interval;
+	private final long threshold;
+	private final AtomicLong finishedTests;
+	private final AtomicLong failedTests;
+	private final AtomicLong skippedTests;
+	private long lastFinishedTests;
+	private ScheduledExecutorService executor;
+
+	/**
+	 * @param logger
+	 *            the logger (never <i>null</i>)
+	 * @param printer
+	 *            the {@link TestLogPrinter} for the result lines of individual
+	 *            tests (never <i>null</i>)
+	 * @param testRunTracker
+	 *            the tracker of the running tests (never <i>null</i>)
+	 * @param interval
+	 *            the time between two summary lines, in milliseconds
+	 * @param threshold
+	 *            the duration in milliseconds from which on the result line of
+	 *            a successful or skipped test is printed
+	 */
+	public TestLogSummaryPrinter(Logger logger, TestLogPrinter printer, TestRunTracker testRunTracker, long interval, long threshold) {
+
+		this.logger = Objects.requireNonNull(logger);
+		this.printer = Objects.requireNonNull(printer);
+		this.testRunTracker = Objects.requireNonNull(testRunTracker);
+		this.interval = Math.max(1, interval);
+		this.threshold = threshold;
+		this.finishedTests = new AtomicLong();
+		this.failedTests = new AtomicLong();
+		this.skippedTests = new AtomicLong();
+		this.lastFinishedTests = 0;
+		this.executor = null;
+	}
+
+	public synchronized void start() {
+
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "SoftiCAR Test Log Summary");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleAtFixedRate(this::logSummary, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Records the result of a finished test, and prints its result line if the
+	 * test failed, or took at least the threshold.
+	 *
+	 * @param metrics
+	 *            the metrics of the finished test (never <i>null</i>)
+	 * @param methodName
+	 *            the name of the test method (never <i>null</i>)
+	 * @param className
+	 *            the name of the test class (may be <i>null</i>)
+	 * @param resultType
+	 *            the result of the test (never <i>null</i>)
+	 */
+	public void printResult(FinishedTestRunMetrics metrics, String methodName, String className, ResultType resultType) {
+
+		finishedTests.incrementAndGet();
+		if (resultType == ResultType.FAILURE) {
+			failedTests.incrementAndGet();
+		} else if (resultType == ResultType.SKIPPED) {
+			skippedTests.incrementAndGet();
+		}
+
+		if (resultType == ResultType.FAILURE || metrics.getDuration() >= threshold) {
+			printer
+				.printResult(//
+					metrics.getIndex(),
+					metrics.getRunningCount(),
+					methodName,
+					className,
+					resultType,
+					metrics.getDuration());
+		}
+	}
+
+	/**
+	 * Stops logging summary lines, and logs a final summary line.
+	 */
+	@Override
+	public void close() {
+
+		ScheduledExecutorService executor;
+		synchronized (this) {
+			executor = this.executor;
+			this.executor = null;
+		}
+		if (executor != null) {
+			executor.shutdownNow();
+			try {
+				executor.awaitTermination(interval, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+			logSummary();
+		}
+	}
+
+	private synchronized void logSummary() {
+
+		try {
+			long finished = finishedTests.get();
+			List<RunningTest> runningTests = testRunTracker.getRunningTests();
+			Optional<RunningTest> slowest = runningTests.stream().max(Comparator.comparingLong(RunningTest::getRunningTime));
+			if (finished != lastFinishedTests || slowest.isPresent()) {
+				logger
+					.lifecycle(
+						String
+							.format(//
+								"[%s] Tests: %s finished (+%s), %s failed, %s skipped, %s running%s",
+								LocalTime.now().format(TIME_FORMATTER),
+								finished,
+								finished - lastFinishedTests,
+								failedTests.get(),
+								skippedTests.get(),
+								runningTests.size(),
+								slowest.map(this::formatSlowest).orElse("")));
+				lastFinishedTests = finished;
+			}
+		} catch (RuntimeException exception) {
+			// a failing summary must not cancel subsequent summaries
+			logger.warn("Failed to log the test summary.", exception);
+		}
+	}
+
+	private String formatSlowest(RunningTest runningTest) {
+
+		return String.format(", longest running: Test #%s  %s  (%.0fs)", runningTest.getIndex(), runningTest.getMethodName(), runningTest.getRunningTime() / 1000d);
+	}
+}
@@ -1,20 +1,58 @@
 package com.softicar.gradle.test.logger.plugin.test.method;
 
-import org.gradle.api.tasks.testing.TestDescriptor;
+import java.util.Objects;
 
+/**
+ * Identifies a test method by its name and the name of its test class.
+ * <p>
+ * Instances are immutable. Use {@link TestMethodNameRegistry} to obtain a
+ * canonical instance per test method, instead of creating new instances for
+ * each test event.
+ * <p>
+ * The hash code is computed upon construction, while the display string
+ * returned by {@link #getNameString()} is only created when it is first
+ * needed.
+ */
 public class TestMethodName implements Comparable<TestMethodName> {
 
-	private final String name;
+	private final String className;
+	private final String methodName;
+	private final int hash;
+	private String name;
 
-	public TestMethodName(TestDescriptor descriptor) {
+	public TestMethodName(String className, String methodName) {
 
-		this.name = String.format("%s  [%s]", descriptor.getName(), descriptor.getClassName());
+		this.className = Objects.toString(className, "");
+		this.methodName = Objects.toString(methodName, "");
+		this.hash = 31 * this.className.hashCode() + this.methodName.hashCode();
+		this.name = null;
 	}
 
 	@Override
 	public int compareTo(TestMethodName other) {
 
-		return name.compareTo(other.name);
+		// orders by method name, then by class name, without creating the display strings
+		int result = methodName.compareTo(other.methodName);
+		return result != 0? result : className.compareTo(other.className);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+
+		if (this == object) {
+			return true;
+		} else if (object instanceof TestMethodName) {
+			TestMethodName other = (TestMethodName) object;
+			return hash == other.hash && methodName.equals(other.methodName) && className.equals(other.className);
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+
+		return hash;
 	}
 
 	@Override
@@ -23,8 +61,24 @@ public class TestMethodName implements Comparable<TestMethodName> {
 		return getNameString();
 	}
 
+	public String getClassName() {
+
+		return className;
+	}
+
+	public String getMethodName() {
+
+		return methodName;
+	}
+
 	public String getNameString() {
 
+		// racy but safe, since String is immutable
+		String name = this.name;
+		if (name == null) {
+			name = methodName + "  [" + className + "]";
+			this.name = name;
+		}
 		return name;
 	}
 }
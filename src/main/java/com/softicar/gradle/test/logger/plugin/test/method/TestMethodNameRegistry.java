@@ -0,0 +1,70 @@
+package com.softicar.gradle.test.logger.plugin.test.method;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Provides one shared {@link TestMethodName} instance per test method.
+ * <p>
+ * Lookups of known test methods do not allocate any objects. This class is
+ * thread-safe.
+ */
+public class TestMethodNameRegistry {
+
+	private final Map<String, Map<String, TestMethodName>> classMap;
+
+	public TestMethodNameRegistry() {
+
+		this.classMap = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Returns the canonical {@link TestMethodName} of the test method that is
+	 * identified by the given {@link TestDescriptor}.
+	 *
+	 * @param descriptor
+	 *            the descriptor of the test method (never <i>null</i>)
+	 * @return the canonical {@link TestMethodName} (never <i>null</i>)
+	 */
+	public TestMethodName get(TestDescriptor descriptor) {
+
+		return get(descriptor.getClassName(), descriptor.getName());
+	}
+
+	/**
+	 * Returns the canonical {@link TestMethodName} of the given test method.
+	 *
+	 * @param className
+	 *            the name of the test class
+	 * @param methodName
+	 *            the name of the test method
+	 * @return the canonical {@link TestMethodName} (never <i>null</i>)
+	 */
+	public TestMethodName get(String className, String methodName) {
+
+		String classKey = className != null? className : "";
+		String methodKey = methodName != null? methodName : "";
+
+		Map<String, TestMethodName> methodMap = classMap.get(classKey);
+		if (methodMap == null) {
+			methodMap = classMap.computeIfAbsent(classKey, dummy -> new ConcurrentHashMap<>());
+		}
+
+		TestMethodName testMethodName = methodMap.get(methodKey);
+		if (testMethodName == null) {
+			testMethodName = methodMap.computeIfAbsent(methodKey, dummy -> new TestMethodName(classKey, methodKey));
+		}
+		return testMethodName;
+	}
+
+	/**
+	 * Returns the number of registered test methods.
+	 *
+	 * @return the number of test methods
+	 */
+	public int size() {
+
+		return classMap.values().stream().mapToInt(Map::size).sum();
+	}
+}
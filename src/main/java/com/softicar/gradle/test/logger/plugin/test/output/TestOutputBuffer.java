@@ -0,0 +1,78 @@
+package com.softicar.gradle.test.logger.plugin.test.output;
+
+/**
+ * A ring buffer that keeps the last characters of the output of a test.
+ * <p>
+ * The backing array is only allocated when the first output is appended, so
+ * that tests without output do not occupy memory.
+ */
+public class TestOutputBuffer {
+
+	private final int capacity;
+	private char[] buffer;
+	private int start;
+	private int length;
+	private long omitted;
+
+	/**
+	 * @param capacity
+	 *            the maximum number of characters to keep
+	 */
+	public TestOutputBuffer(int capacity) {
+
+		this.capacity = capacity;
+		this.buffer = null;
+		this.start = 0;
+		this.length = 0;
+		this.omitted = 0;
+	}
+
+	public synchronized void append(String text) {
+
+		if (buffer == null) {
+			buffer = new char[capacity];
+		}
+		int offset = Math.max(0, text.length() - capacity);
+		omitted += offset;
+		for (int index = offset; index < text.length(); index++) {
+			if (length < capacity) {
+				buffer[(start + length++) % capacity] = text.charAt(index);
+			} else {
+				buffer[start] = text.charAt(index);
+				start = (start + 1) % capacity;
+				omitted++;
+			}
+		}
+	}
+
+	public synchronized boolean isEmpty() {
+
+		return length == 0;
+	}
+
+	/**
+	 * Returns the number of characters that were appended, but did not fit
+	 * into the buffer.
+	 *
+	 * @return the number of omitted characters
+	 */
+	public synchronized long getOmitted() {
+
+		return omitted;
+	}
+
+	/**
+	 * Returns the kept characters, in the order in which they were appended.
+	 *
+	 * @return the kept output (never <i>null</i>)
+	 */
+	@Override
+	public synchronized String toString() {
+
+		StringBuilder builder = new StringBuilder(length);
+		for (int index = 0; index < length; index++) {
+			builder.append(buffer[(start + index) % capacity]);
+		}
+		return builder.toString();
+	}
+}
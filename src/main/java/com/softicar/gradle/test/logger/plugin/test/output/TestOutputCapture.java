@@ -0,0 +1,74 @@
+package com.softicar.gradle.test.logger.plugin.test.output;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.gradle.api.tasks.testing.TestDescriptor;
+
+/**
+ * Captures the standard output and error of running tests, in a bounded
+ * {@link TestOutputBuffer} per test.
+ * <p>
+ * A buffer is created when a test starts, and removed when it ends, so the
+ * memory consumption is bounded by the number of concurrently running tests.
+ * Output that is not attributed to a running test, e.g. of class-level
+ * fixtures, is ignored.
+ */
+public class TestOutputCapture {
+
+	private final int capacity;
+	private final Map<TestDescriptor, TestOutputBuffer> buffers;
+
+	/**
+	 * @param capacity
+	 *            the maximum number of characters to keep per test
+	 */
+	public TestOutputCapture(int capacity) {
+
+		this.capacity = capacity;
+		this.buffers = new ConcurrentHashMap<>();
+	}
+
+	public void start(TestDescriptor descriptor) {
+
+		buffers.put(descriptor, new TestOutputBuffer(capacity));
+	}
+
+	public void append(TestDescriptor descriptor, String text) {
+
+		TestOutputBuffer buffer = buffers.get(descriptor);
+		if (buffer != null) {
+			buffer.append(text);
+		}
+	}
+
+	/**
+	 * Removes the buffer of the given test, and returns its content.
+	 *
+	 * @param descriptor
+	 *            the descriptor of the ended test (never <i>null</i>)
+	 * @return the captured output, preceded by a note about omitted characters
+	 *         if any; empty if there was no output (never <i>null</i>)
+	 */
+	public String end(TestDescriptor descriptor) {
+
+		TestOutputBuffer buffer = buffers.remove(descriptor);
+		if (buffer == null || buffer.isEmpty()) {
+			return "";
+		} else if (buffer.getOmitted() > 0) {
+			return String.format("(%s earlier character(s) omitted)%n%s", buffer.getOmitted(), buffer);
+		} else {
+			return buffer.toString();
+		}
+	}
+
+	/**
+	 * Removes the buffer of the given test, and discards its content.
+	 *
+	 * @param descriptor
+	 *            the descriptor of the ended test (never <i>null</i>)
+	 */
+	public void discard(TestDescriptor descriptor) {
+
+		buffers.remove(descriptor);
+	}
+}
@@ -0,0 +1,103 @@
+package com.softicar.gradle.test.logger.plugin.test.profile;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+
+/**
+ * The resource usage of a test method execution, as attributed from the
+ * events of a JFR recording of its test worker process.
+ */
+public class TestProfile {
+
+	private final TestMethodName methodName;
+	private final String worker;
+	private final long duration;
+	private long allocatedBytes;
+	private int gcCount;
+	private int fullGcCount;
+	private long gcPause;
+	private long cpuTime;
+
+	public TestProfile(TestMethodName methodName, String worker, long duration) {
+
+		this.methodName = methodName;
+		this.worker = worker;
+		this.duration = duration;
+		this.allocatedBytes = 0;
+		this.gcCount = 0;
+		this.fullGcCount = 0;
+		this.gcPause = 0;
+		this.cpuTime = 0;
+	}
+
+	public TestMethodName getMethodName() {
+
+		return methodName;
+	}
+
+	public String getWorker() {
+
+		return worker;
+	}
+
+	/**
+	 * @return the wall-clock duration in microseconds
+	 */
+	public long getDuration() {
+
+		return duration;
+	}
+
+	/**
+	 * @return the bytes allocated in new TLABs and outside of TLABs
+	 */
+	public long getAllocatedBytes() {
+
+		return allocatedBytes;
+	}
+
+	public int getGcCount() {
+
+		return gcCount;
+	}
+
+	/**
+	 * @return the number of garbage collections of the old generation
+	 */
+	public int getFullGcCount() {
+
+		return fullGcCount;
+	}
+
+	/**
+	 * @return the sum of garbage collection pauses in microseconds
+	 */
+	public long getGcPause() {
+
+		return gcPause;
+	}
+
+	/**
+	 * @return the sampled CPU time in microseconds
+	 */
+	public long getCpuTime() {
+
+		return cpuTime;
+	}
+
+	void addAllocation(long bytes) {
+
+		allocatedBytes += bytes;
+	}
+
+	void addGarbageCollection(long pause, boolean full) {
+
+		gcCount++;
+		fullGcCount += full? 1 : 0;
+		gcPause += pause;
+	}
+
+	void addCpuTime(long time) {
+
+		cpuTime += time;
+	}
+}
@@ -0,0 +1,52 @@
+package com.softicar.gradle.test.logger.plugin.test.profile;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * A Java agent that starts a Java Flight Recorder (JFR) recording in a test
+ * worker process.
+ * <p>
+ * The agent is started via the <i>-javaagent</i> JVM argument, with the
+ * recording directory as agent argument. The recording settings are read from
+ * the settings file in that directory. The recording is written to a file in
+ * the recording directory when the process exits, named after the process ID.
+ * <p>
+ * In contrast to the <i>-XX:StartFlightRecording</i> JVM argument, this does
+ * not require a JDK 17 to generate distinct file names for the test worker
+ * processes.
+ * <p>
+ * This class is copied into a separate agent JAR, see
+ * {@link com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar}.
+ * Hence, it must only refer to classes of the JDK, and must not contain
+ * nested, anonymous or local classes.
+ */
+public class TestProfileAgent {
+
+	static final String SETTINGS_FILE_NAME = "test-profile.jfc";
+	static final String RECORDING_FILE_PREFIX = "worker-";
+	static final String RECORDING_FILE_SUFFIX = ".jfr";
+
+	private TestProfileAgent() {
+
+		// static entry point only
+	}
+
+	public static void premain(String directory) {
+
+		try {
+			Recording recording = new Recording(Configuration.create(new File(directory, SETTINGS_FILE_NAME).toPath()));
+			recording.setName("SoftiCAR Test Profile");
+			recording.setToDisk(true);
+			recording.setDumpOnExit(true);
+			recording.setDestination(new File(directory, RECORDING_FILE_PREFIX + ProcessHandle.current().pid() + RECORDING_FILE_SUFFIX).toPath());
+			recording.start();
+		} catch (IOException | ParseException | RuntimeException exception) {
+			// the test worker must not fail because of the agent
+			System.err.println("Failed to start the test profile recording: " + exception);
+		}
+	}
+}
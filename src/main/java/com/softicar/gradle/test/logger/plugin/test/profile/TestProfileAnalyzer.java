@@ -0,0 +1,152 @@
+package com.softicar.gradle.test.logger.plugin.test.profile;
+
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline.WorkerTimeline;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Attributes the events of JFR recordings of test worker processes to the
+ * test method executions of a {@link TestTimeline}.
+ * <p>
+ * The test worker process of a recording is determined from its command
+ * line, as recorded in the <i>sun.java.command</i> system property. Each event
+ * is attributed to the test method execution of that worker whose time span
+ * contains the start of the event. Events outside of test method executions,
+ * e.g. in class-level fixtures, are not attributed.
+ */
+public class TestProfileAnalyzer {
+
+	private static final Pattern WORKER_PATTERN = Pattern.compile("Gradle Test Executor \\d+");
+
+	private final TestTimeline timeline;
+
+	public TestProfileAnalyzer(TestTimeline timeline) {
+
+		this.timeline = Objects.requireNonNull(timeline);
+	}
+
+	/**
+	 * Analyzes the given recording files.
+	 *
+	 * @param recordingFiles
+	 *            the JFR recording files (never <i>null</i>)
+	 * @return the profiles of the test method executions of all recorded test
+	 *         worker processes (never <i>null</i>)
+	 * @throws IOException
+	 *             if a recording file could not be read
+	 */
+	public List<TestProfile> analyze(List<File> recordingFiles) throws IOException {
+
+		List<TestProfile> profiles = new ArrayList<>();
+		for (File recordingFile: recordingFiles) {
+			Optional<WorkerTimeline> workerTimeline = findWorker(recordingFile).flatMap(this::getWorkerTimeline);
+			if (workerTimeline.isPresent()) {
+				profiles.addAll(analyze(recordingFile, workerTimeline.get()));
+			}
+		}
+		return profiles;
+	}
+
+	private List<TestProfile> analyze(File recordingFile, WorkerTimeline workerTimeline) throws IOException {
+
+		int size = workerTimeline.size();
+		Integer[] order = new Integer[size];
+		Arrays.setAll(order, index -> index);
+		Arrays.sort(order, Comparator.comparingLong(workerTimeline::getStartTimestamp));
+
+		long[] starts = new long[size];
+		long[] ends = new long[size];
+		TestProfile[] profiles = new TestProfile[size];
+		for (int i = 0; i < size; i++) {
+			int index = order[i];
+			starts[i] = workerTimeline.getStartTimestamp(index);
+			ends[i] = workerTimeline.getEndTimestamp(index);
+			profiles[i] = new TestProfile(workerTimeline.getMethodName(index), workerTimeline.getWorker(), ends[i] - starts[i]);
+		}
+
+		try (RecordingFile recording = new RecordingFile(recordingFile.toPath())) {
+			while (recording.hasMoreEvents()) {
+				RecordedEvent event = recording.readEvent();
+				TestProfile profile = findProfile(toEpochMicros(event.getStartTime()), starts, ends, profiles);
+				if (profile != null) {
+					attribute(event, profile);
+				}
+			}
+		}
+		return Arrays.asList(profiles);
+	}
+
+	private void attribute(RecordedEvent event, TestProfile profile) {
+
+		switch (event.getEventType().getName()) {
+		case "jdk.ObjectAllocationInNewTLAB":
+			profile.addAllocation(event.getLong("tlabSize"));
+			break;
+		case "jdk.ObjectAllocationOutsideTLAB":
+			profile.addAllocation(event.getLong("allocationSize"));
+			break;
+		case "jdk.GarbageCollection":
+			profile.addGarbageCollection(event.getDuration("sumOfPauses").toNanos() / 1000, isFullGc(event.getString("name")));
+			break;
+		case "jdk.ExecutionSample":
+			profile.addCpuTime(TestProfileRecording.EXECUTION_SAMPLE_PERIOD * 1000L);
+			break;
+		default:
+			break;
+		}
+	}
+
+	private TestProfile findProfile(long timestamp, long[] starts, long[] ends, TestProfile[] profiles) {
+
+		int index = Arrays.binarySearch(starts, timestamp);
+		if (index < 0) {
+			index = -index - 2;
+		}
+		return index >= 0 && timestamp <= ends[index]? profiles[index] : null;
+	}
+
+	private Optional<String> findWorker(File recordingFile) throws IOException {
+
+		try (RecordingFile recording = new RecordingFile(recordingFile.toPath())) {
+			while (recording.hasMoreEvents()) {
+				RecordedEvent event = recording.readEvent();
+				if (event.getEventType().getName().equals("jdk.InitialSystemProperty") && "sun.java.command".equals(event.getString("key"))) {
+					Matcher matcher = WORKER_PATTERN.matcher(Objects.toString(event.getString("value"), ""));
+					return matcher.find()? Optional.of(matcher.group()) : Optional.empty();
+				}
+			}
+		}
+		return Optional.empty();
+	}
+
+	private Optional<WorkerTimeline> getWorkerTimeline(String worker) {
+
+		return timeline//
+			.getWorkerTimelines()
+			.stream()
+			.filter(it -> it.getWorker().equals(worker))
+			.findFirst();
+	}
+
+	private boolean isFullGc(String name) {
+
+		return name != null && (name.contains("Old") || name.contains("Full") || name.contains("Major"));
+	}
+
+	private long toEpochMicros(Instant instant) {
+
+		return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1000;
+	}
+}
@@ -0,0 +1,96 @@
+package com.softicar.gradle.test.logger.plugin.test.profile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs the test methods with the highest allocations, garbage collection
+ * pauses and CPU times, and writes the profiles of all test methods to a CSV
+ * file.
+ */
+public class TestProfileLogger {
+
+	private final Logger logger;
+	private final int topCount;
+
+	public TestProfileLogger(Logger logger, int topCount) {
+
+		this.logger = logger;
+		this.topCount = topCount;
+	}
+
+	public void log(List<TestProfile> profiles, int recordingCount, File reportFile) {
+
+		writeReport(profiles, reportFile);
+
+		logger.lifecycle(String.format("Test profile of %s test(s) from %s JFR recording(s):", profiles.size(), recordingCount));
+		logger.lifecycle("");
+		logTop(profiles, "Allocation", TestProfile::getAllocatedBytes, it -> formatBytes(it.getAllocatedBytes()));
+		logTop(profiles, "GC Pause", TestProfile::getGcPause, it -> String.format("%s (%s GC(s), %s full)", formatDuration(it.getGcPause()), it.getGcCount(), it.getFullGcCount()));
+		logTop(profiles, "CPU Time", TestProfile::getCpuTime, it -> String.format("%s of %s", formatDuration(it.getCpuTime()), formatDuration(it.getDuration())));
+		logger.lifecycle(String.format("Profile: %s", reportFile));
+		logger.lifecycle("");
+	}
+
+	private void logTop(List<TestProfile> profiles, String linePrefix, ToLongFunction<TestProfile> valueFunction, Function<TestProfile, String> formatter) {
+
+		List<TestProfile> top = profiles//
+			.stream()
+			.filter(it -> valueFunction.applyAsLong(it) > 0)
+			.sorted(Comparator.comparingLong(valueFunction).reversed())
+			.limit(topCount)
+			.collect(Collectors.toList());
+		int counter = 0;
+		for (TestProfile profile: top) {
+			logger.lifecycle(String.format("%s #%s >  %s  %s", linePrefix, ++counter, formatter.apply(profile), profile.getMethodName().getNameString()));
+		}
+		if (!top.isEmpty()) {
+			logger.lifecycle("");
+		}
+	}
+
+	private void writeReport(List<TestProfile> profiles, File reportFile) {
+
+		StringBuilder builder = new StringBuilder("class,method,worker,duration_us,allocated_bytes,gc_count,full_gc_count,gc_pause_us,cpu_time_us\n");
+		for (TestProfile profile: profiles) {
+			builder.append(quote(profile.getMethodName().getClassName())).append(',');
+			builder.append(quote(profile.getMethodName().getMethodName())).append(',');
+			builder.append(quote(profile.getWorker())).append(',');
+			builder.append(profile.getDuration()).append(',');
+			builder.append(profile.getAllocatedBytes()).append(',');
+			builder.append(profile.getGcCount()).append(',');
+			builder.append(profile.getFullGcCount()).append(',');
+			builder.append(profile.getGcPause()).append(',');
+			builder.append(profile.getCpuTime()).append('\n');
+		}
+		try {
+			Files.writeString(reportFile.toPath(), builder, StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private String quote(String value) {
+
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private String formatBytes(long bytes) {
+
+		return String.format("%.1f MB", bytes / (1024d * 1024d));
+	}
+
+	private String formatDuration(long micros) {
+
+		return String.format("%.2fs", micros / 1_000_000d);
+	}
+}
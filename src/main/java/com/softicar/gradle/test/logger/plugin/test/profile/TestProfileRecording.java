@@ -0,0 +1,116 @@
+package com.softicar.gradle.test.logger.plugin.test.profile;
+
+import com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Configures a Java Flight Recorder (JFR) recording for each test worker
+ * process, and provides the resulting recording files.
+ * <p>
+ * The recording is started by the {@link TestProfileAgent}, and is written to
+ * a file in the recording directory when the test worker process exits. Only
+ * the events that are needed to profile allocations, garbage collections and
+ * CPU usage are enabled.
+ */
+public class TestProfileRecording {
+
+	/**
+	 * The period of the execution samples, in milliseconds.
+	 */
+	public static final int EXECUTION_SAMPLE_PERIOD = 10;
+
+	private static final String AGENT_FILE_NAME = "test-profile-agent.jar";
+	private static final String SETTINGS = """
+			<?xml version="1.0" encoding="UTF-8"?>
+			<configuration version="2.0" label="SoftiCAR Test Profile">
+			  <event name="jdk.ObjectAllocationInNewTLAB">
+			    <setting name="enabled">true</setting>
+			    <setting name="stackTrace">false</setting>
+			  </event>
+			  <event name="jdk.ObjectAllocationOutsideTLAB">
+			    <setting name="enabled">true</setting>
+			    <setting name="stackTrace">false</setting>
+			  </event>
+			  <event name="jdk.GarbageCollection">
+			    <setting name="enabled">true</setting>
+			    <setting name="threshold">0 ms</setting>
+			  </event>
+			  <event name="jdk.ExecutionSample">
+			    <setting name="enabled">true</setting>
+			    <setting name="period">%s ms</setting>
+			  </event>
+			  <event name="jdk.InitialSystemProperty">
+			    <setting name="enabled">true</setting>
+			    <setting name="period">beginChunk</setting>
+			  </event>
+			</configuration>
+			""".formatted(EXECUTION_SAMPLE_PERIOD);
+
+	private final File directory;
+
+	public TestProfileRecording(File directory) {
+
+		this.directory = Objects.requireNonNull(directory);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the {@link TestProfileAgent}.
+	 *
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public String getJvmArgument() {
+
+		return getAgentJar().getJvmArgument(directory.getAbsolutePath());
+	}
+
+	/**
+	 * Deletes the recording files of previous executions, and writes the agent
+	 * JAR and the recording settings file.
+	 */
+	public void prepare() {
+
+		getRecordingFiles().forEach(File::delete);
+		getAgentJar().write();
+		try {
+			Files.writeString(getSettingsFile().toPath(), SETTINGS, StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	/**
+	 * Returns the recording files that were written by the test worker
+	 * processes.
+	 *
+	 * @return the recording files (never <i>null</i>)
+	 */
+	public List<File> getRecordingFiles() {
+
+		File[] files = directory.listFiles((dummy, name) -> name.startsWith(TestProfileAgent.RECORDING_FILE_PREFIX) && name.endsWith(TestProfileAgent.RECORDING_FILE_SUFFIX));
+		return files != null? Arrays.stream(files).sorted().collect(Collectors.toList()) : Collections.emptyList();
+	}
+
+	public File getDirectory() {
+
+		return directory;
+	}
+
+	private File getSettingsFile() {
+
+		return new File(directory, TestProfileAgent.SETTINGS_FILE_NAME);
+	}
+
+	private JavaAgentJar getAgentJar() {
+
+		return new JavaAgentJar(TestProfileAgent.class, new File(directory, AGENT_FILE_NAME));
+	}
+}
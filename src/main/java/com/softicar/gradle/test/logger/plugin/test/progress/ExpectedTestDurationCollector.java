@@ -0,0 +1,51 @@
+package com.softicar.gradle.test.logger.plugin.test.progress;
+
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistory;
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistoryBuild;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Collects the expected durations of the tests of a test run, from the builds
+ * that a {@link TestDurationHistory} keeps in memory.
+ * <p>
+ * For each test, the duration of the most recent build in which it was
+ * executed is taken. Hence, tests that were not executed by a partial run,
+ * e.g. of a single shard, keep their expected duration. Tests that are not
+ * selected for the current run are ignored, so that they do not inflate the
+ * expected total.
+ */
+public class ExpectedTestDurationCollector {
+
+	private final TestDurationHistory history;
+
+	public ExpectedTestDurationCollector(TestDurationHistory history) {
+
+		this.history = Objects.requireNonNull(history);
+	}
+
+	/**
+	 * Collects the expected durations of the selected tests.
+	 *
+	 * @param selection
+	 *            determines whether a test is selected for the current run
+	 *            (never <i>null</i>)
+	 * @return the expected durations in milliseconds, by test method name
+	 *         (never <i>null</i>)
+	 */
+	public Map<TestMethodName, Long> collect(Predicate<TestMethodName> selection) {
+
+		Map<TestMethodName, Long> expectedDurations = new HashMap<>();
+		for (TestDurationHistoryBuild build: history.getBuilds()) {
+			history.getMethodDurations(build).forEach((methodName, duration) -> {
+				if (selection.test(methodName)) {
+					expectedDurations.put(methodName, duration);
+				}
+			});
+		}
+		return expectedDurations;
+	}
+}
@@ -0,0 +1,143 @@
+package com.softicar.gradle.test.logger.plugin.test.progress;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Periodically logs the progress of a test task, with an estimate of the
+ * remaining time.
+ * <p>
+ * The progress is measured in <i>work</i>, i.e. in the expected durations of
+ * the finished tests, as recorded in recent builds. Tests without an
+ * expected duration contribute their actual duration to both the finished and
+ * the total work. The remaining time is extrapolated from the elapsed time and
+ * the ratio of remaining to finished work. Hence, the estimate accounts for
+ * parallel forks, and for machines that are generally faster or slower than in
+ * the recent builds.
+ * <p>
+ * Progress is logged at most once per interval, when a test finishes. This
+ * class is thread-safe, and does not use locks.
+ */
+public class TestProgressReporter {
+
+	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+	private final Logger logger;
+	private final long interval;
+	private final AtomicLong finishedTests;
+	private final AtomicLong finishedWork;
+	private final AtomicLong unexpectedWork;
+	private final AtomicLong nextReportTime;
+	private volatile Map<TestMethodName, Long> expectedDurations;
+	private volatile long expectedWork;
+	private volatile long startTime;
+
+	/**
+	 * @param logger
+	 *            the logger (never <i>null</i>)
+	 * @param interval
+	 *            the minimum time between two progress lines, in milliseconds
+	 */
+	public TestProgressReporter(Logger logger, long interval) {
+
+		this.logger = Objects.requireNonNull(logger);
+		this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+		this.finishedTests = new AtomicLong();
+		this.finishedWork = new AtomicLong();
+		this.unexpectedWork = new AtomicLong();
+		this.nextReportTime = new AtomicLong();
+		this.expectedDurations = Collections.emptyMap();
+		this.expectedWork = 0;
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Starts measuring the progress.
+	 *
+	 * @param expectedDurations
+	 *            the expected durations of the tests, in milliseconds (never
+	 *            <i>null</i>)
+	 */
+	public void start(Map<TestMethodName, Long> expectedDurations) {
+
+		this.expectedDurations = Map.copyOf(expectedDurations);
+		this.expectedWork = expectedDurations.values().stream().mapToLong(Long::longValue).sum();
+		this.startTime = System.nanoTime();
+		this.nextReportTime.set(startTime + interval);
+	}
+
+	/**
+	 * Records a finished test, and logs the progress if the interval has
+	 * elapsed since the last progress line.
+	 *
+	 * @param methodName
+	 *            the name of the finished test method (never <i>null</i>)
+	 * @param duration
+	 *            the actual duration of the test, in milliseconds
+	 */
+	public void testFinished(TestMethodName methodName, long duration) {
+
+		Long expectedDuration = expectedDurations.get(methodName);
+		if (expectedDuration != null) {
+			finishedWork.addAndGet(expectedDuration);
+		} else {
+			finishedWork.addAndGet(duration);
+			unexpectedWork.addAndGet(duration);
+		}
+		long finished = finishedTests.incrementAndGet();
+
+		long now = System.nanoTime();
+		long next = nextReportTime.get();
+		if (now >= next && nextReportTime.compareAndSet(next, now + interval)) {
+			logProgress(finished, now);
+		}
+	}
+
+	private void logProgress(long finished, long now) {
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(now - startTime);
+		long done = finishedWork.get();
+		long total = expectedWork + unexpectedWork.get();
+		String throughput = String.format("%.1f test(s)/s", elapsed > 0? finished * 1000d / elapsed : 0d);
+
+		if (expectedWork > 0 && done > 0) {
+			double fraction = Math.min(0.99, (double) done / total);
+			long remaining = (long) (elapsed * Math.max(0, total - done) / (double) done);
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"[%s] Progress: %s of ~%s test(s) (%.0f%%), %s, elapsed: %s, remaining: ~%s",
+							LocalTime.now().format(TIME_FORMATTER),
+							finished,
+							Math.max(finished, expectedDurations.size()),
+							fraction * 100,
+							throughput,
+							formatDuration(elapsed),
+							formatDuration(remaining)));
+		} else {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"[%s] Progress: %s test(s), %s, elapsed: %s, remaining: unknown (no previous build)",
+							LocalTime.now().format(TIME_FORMATTER),
+							finished,
+							throughput,
+							formatDuration(elapsed)));
+		}
+	}
+
+	private String formatDuration(long millis) {
+
+		long seconds = millis / 1000;
+		return seconds >= 60? String.format("%sm%02ds", seconds / 60, seconds % 60) : String.format("%ss", seconds);
+	}
+}
@@ -0,0 +1,54 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+/**
+ * The heap usage after a garbage collection in a test worker process, as
+ * recorded by the {@link HeapSampleAgent}.
+ */
+public class HeapSample {
+
+	private final long timestamp;
+	private final long duration;
+	private final long used;
+	private final long max;
+
+	public HeapSample(long timestamp, long duration, long used, long max) {
+
+		this.timestamp = timestamp;
+		this.duration = duration;
+		this.used = used;
+		this.max = max;
+	}
+
+	/**
+	 * @return the end of the garbage collection, in microseconds since the
+	 *         epoch
+	 */
+	public long getTimestamp() {
+
+		return timestamp;
+	}
+
+	/**
+	 * @return the duration of the garbage collection, in microseconds
+	 */
+	public long getDuration() {
+
+		return duration;
+	}
+
+	/**
+	 * @return the used heap after the garbage collection, in bytes
+	 */
+	public long getUsed() {
+
+		return used;
+	}
+
+	/**
+	 * @return the maximum heap size, in bytes
+	 */
+	public long getMax() {
+
+		return max;
+	}
+}
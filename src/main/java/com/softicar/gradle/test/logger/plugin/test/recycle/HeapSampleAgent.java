@@ -0,0 +1,105 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * A Java agent that records the heap usage after each garbage collection in
+ * a test worker process.
+ * <p>
+ * The agent is started via the <i>-javaagent</i> JVM argument, with a sample
+ * directory as agent argument. It writes one line per garbage collection to a
+ * file in the sample directory, named after the process ID. The first line
+ * holds the name of the test worker, e.g. <i>Gradle Test Executor 3</i>.
+ * <p>
+ * This class is copied into a separate agent JAR, see
+ * {@link com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar}.
+ * Hence, it must only refer to classes of the JDK, and must not contain
+ * nested, anonymous or local classes.
+ */
+public class HeapSampleAgent implements NotificationListener {
+
+	private static final Pattern WORKER_PATTERN = Pattern.compile("Gradle Test Executor \\d+");
+
+	private final PrintWriter writer;
+	private final long jvmStartTime;
+	private final Set<String> heapPoolNames;
+
+	private HeapSampleAgent(PrintWriter writer) {
+
+		this.writer = writer;
+		this.jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+		this.heapPoolNames = new HashSet<>();
+		for (MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				heapPoolNames.add(pool.getName());
+			}
+		}
+	}
+
+	public static void premain(String directory) {
+
+		try {
+			File file = new File(directory, String.format("heap-%s.txt", ProcessHandle.current().pid()));
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+			writer.println(getWorker());
+			writer.flush();
+			HeapSampleAgent agent = new HeapSampleAgent(writer);
+			for (GarbageCollectorMXBean collector: ManagementFactory.getGarbageCollectorMXBeans()) {
+				if (collector instanceof NotificationEmitter) {
+					((NotificationEmitter) collector).addNotificationListener(agent, null, null);
+				}
+			}
+		} catch (IOException | RuntimeException exception) {
+			// the test worker must not fail because of the agent
+			System.err.println("Failed to start the heap sample agent: " + exception);
+		}
+	}
+
+	@Override
+	public void handleNotification(Notification notification, Object handback) {
+
+		if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+			GcInfo gcInfo = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData()).getGcInfo();
+			long used = 0;
+			for (Map.Entry<String, MemoryUsage> entry: gcInfo.getMemoryUsageAfterGc().entrySet()) {
+				if (heapPoolNames.contains(entry.getKey())) {
+					used += entry.getValue().getUsed();
+				}
+			}
+			write(jvmStartTime + gcInfo.getEndTime(), gcInfo.getDuration(), used, Runtime.getRuntime().maxMemory());
+		}
+	}
+
+	private synchronized void write(long endTime, long duration, long used, long max) {
+
+		writer.println(endTime + " " + duration + " " + used + " " + max);
+		writer.flush();
+	}
+
+	private static String getWorker() {
+
+		Matcher matcher = WORKER_PATTERN.matcher(System.getProperty("sun.java.command", ""));
+		return matcher.find()? matcher.group() : "";
+	}
+}
@@ -0,0 +1,110 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import com.softicar.gradle.test.logger.plugin.test.agent.JavaAgentJar;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Configures the {@link HeapSampleAgent} for each test worker process, and
+ * reads the resulting heap samples.
+ */
+public class HeapSampleRecording {
+
+	private static final String AGENT_FILE_NAME = "heap-sample-agent.jar";
+	private static final String SAMPLE_FILE_PREFIX = "heap-";
+	private static final String SAMPLE_FILE_SUFFIX = ".txt";
+
+	private final File directory;
+
+	public HeapSampleRecording(File directory) {
+
+		this.directory = Objects.requireNonNull(directory);
+	}
+
+	/**
+	 * Returns the JVM argument that starts the {@link HeapSampleAgent}.
+	 *
+	 * @return the JVM argument (never <i>null</i>)
+	 */
+	public String getJvmArgument() {
+
+		return getAgentJar().getJvmArgument(directory.getAbsolutePath());
+	}
+
+	/**
+	 * Deletes the sample files of previous executions, and writes the agent
+	 * JAR.
+	 */
+	public void prepare() {
+
+		getSampleFiles().forEach(File::delete);
+		getAgentJar().write();
+	}
+
+	/**
+	 * Reads the heap samples that were written by the test worker processes.
+	 * <p>
+	 * Unreadable lines, e.g. the last line of a process that was killed, are
+	 * skipped.
+	 *
+	 * @return the heap samples per test worker name, ordered by timestamp
+	 *         (never <i>null</i>)
+	 */
+	public Map<String, List<HeapSample>> read() {
+
+		Map<String, List<HeapSample>> samples = new TreeMap<>();
+		for (File file: getSampleFiles()) {
+			try {
+				List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+				if (!lines.isEmpty() && !lines.get(0).isEmpty()) {
+					List<HeapSample> workerSamples = samples.computeIfAbsent(lines.get(0), dummy -> new ArrayList<>());
+					lines.stream().skip(1).map(this::parseSample).filter(Objects::nonNull).forEach(workerSamples::add);
+				}
+			} catch (IOException exception) {
+				throw new UncheckedIOException(exception);
+			}
+		}
+		samples.values().forEach(it -> it.sort(Comparator.comparingLong(HeapSample::getTimestamp)));
+		return samples;
+	}
+
+	private HeapSample parseSample(String line) {
+
+		String[] parts = line.trim().split(" ");
+		if (parts.length != 4) {
+			return null;
+		}
+		try {
+			return new HeapSample(//
+				Long.parseLong(parts[0]) * 1000,
+				Long.parseLong(parts[1]) * 1000,
+				Long.parseLong(parts[2]),
+				Long.parseLong(parts[3]));
+		} catch (NumberFormatException exception) {
+			return null;
+		}
+	}
+
+	private List<File> getSampleFiles() {
+
+		File[] files = directory.listFiles((dummy, name) -> name.startsWith(SAMPLE_FILE_PREFIX) && name.endsWith(SAMPLE_FILE_SUFFIX));
+		return files != null? Arrays.stream(files).sorted().collect(Collectors.toList()) : Collections.emptyList();
+	}
+
+	private JavaAgentJar getAgentJar() {
+
+		return new JavaAgentJar(HeapSampleAgent.class, new File(directory, AGENT_FILE_NAME));
+	}
+}
@@ -0,0 +1,101 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import java.util.Optional;
+
+/**
+ * The heap growth and the garbage collection time of a single test worker
+ * process, as determined by the {@link WorkerRecyclingAnalyzer}.
+ */
+public class WorkerHeapProfile {
+
+	private final String worker;
+	private final int testCount;
+	private final int crossingIndex;
+	private final int classesBeforeCrossing;
+	private final long maxRetainedHeap;
+	private final long maxHeap;
+	private final long gcTime;
+	private final long excessGcTime;
+
+	public WorkerHeapProfile(String worker, int testCount, int crossingIndex, int classesBeforeCrossing, long maxRetainedHeap, long maxHeap, long gcTime, long excessGcTime) {
+
+		this.worker = worker;
+		this.testCount = testCount;
+		this.crossingIndex = crossingIndex;
+		this.classesBeforeCrossing = classesBeforeCrossing;
+		this.maxRetainedHeap = maxRetainedHeap;
+		this.maxHeap = maxHeap;
+		this.gcTime = gcTime;
+		this.excessGcTime = excessGcTime;
+	}
+
+	public String getWorker() {
+
+		return worker;
+	}
+
+	public int getTestCount() {
+
+		return testCount;
+	}
+
+	/**
+	 * Returns the index of the first test from which on the worker stayed
+	 * above the heap or garbage collection threshold.
+	 *
+	 * @return the optional test index
+	 */
+	public Optional<Integer> getCrossingIndex() {
+
+		return crossingIndex >= 0? Optional.of(crossingIndex) : Optional.empty();
+	}
+
+	/**
+	 * Returns the number of test classes that the worker completed before it
+	 * crossed the threshold, i.e. the <i>forkEvery</i> value that would have
+	 * recycled the worker in time.
+	 *
+	 * @return the number of test classes; 0 if the worker did not cross the
+	 *         threshold
+	 */
+	public int getClassesBeforeCrossing() {
+
+		return classesBeforeCrossing;
+	}
+
+	/**
+	 * @return the highest heap usage that the worker never fell below
+	 *         afterwards, in bytes
+	 */
+	public long getMaxRetainedHeap() {
+
+		return maxRetainedHeap;
+	}
+
+	/**
+	 * @return the maximum heap size of the worker, in bytes
+	 */
+	public long getMaxHeap() {
+
+		return maxHeap;
+	}
+
+	/**
+	 * @return the garbage collection time during tests, in microseconds
+	 */
+	public long getGcTime() {
+
+		return gcTime;
+	}
+
+	/**
+	 * Returns the garbage collection time after the crossing, in excess of
+	 * the garbage collection rate before the crossing.
+	 *
+	 * @return the excess garbage collection time, in microseconds
+	 */
+	public long getExcessGcTime() {
+
+		return excessGcTime;
+	}
+}
@@ -0,0 +1,221 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline.WorkerTimeline;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Determines when test worker processes should have been recycled, based on
+ * their heap samples and the {@link TestTimeline}.
+ * <p>
+ * For each test of a worker, the <i>retained heap</i> is the lowest heap usage
+ * after any garbage collection from the start of the test until the end of the
+ * worker. Hence, it only grows if the worker accumulates heap that is never
+ * freed again, e.g. in caches or leaked contexts. A worker <i>crosses</i> the
+ * threshold at the first test at which its retained heap exceeds a share of
+ * the maximum heap size, or at which the garbage collection time of all
+ * remaining tests exceeds a share of their duration, while it did not before.
+ * A worker that is above the threshold from its first test on does not
+ * benefit from recycling, and is not considered to cross it.
+ * <p>
+ * The analysis is not adaptive within a build. It yields a single static
+ * <i>forkEvery</i> value for all workers of the next build, see
+ * {@link #determineForkEvery(List, long)}.
+ */
+public class WorkerRecyclingAnalyzer {
+
+	private final double heapThreshold;
+	private final double gcThreshold;
+
+	/**
+	 * @param heapThreshold
+	 *            the share of the maximum heap size, in percent
+	 * @param gcThreshold
+	 *            the share of garbage collection time, in percent
+	 */
+	public WorkerRecyclingAnalyzer(int heapThreshold, int gcThreshold) {
+
+		this.heapThreshold = heapThreshold / 100d;
+		this.gcThreshold = gcThreshold / 100d;
+	}
+
+	/**
+	 * Analyzes all workers of the given {@link TestTimeline} for which heap
+	 * samples exist.
+	 *
+	 * @param timeline
+	 *            the {@link TestTimeline} (never <i>null</i>)
+	 * @param samples
+	 *            the heap samples per worker, ordered by timestamp (never
+	 *            <i>null</i>)
+	 * @return the {@link WorkerHeapProfile} of each analyzed worker (never
+	 *         <i>null</i>)
+	 */
+	public List<WorkerHeapProfile> analyze(TestTimeline timeline, Map<String, List<HeapSample>> samples) {
+
+		Objects.requireNonNull(samples);
+		return timeline//
+			.getWorkerTimelines()
+			.stream()
+			.filter(it -> it.size() > 0 && samples.containsKey(it.getWorker()))
+			.map(it -> analyze(it, samples.get(it.getWorker())))
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Determines the <i>forkEvery</i> value for the next build.
+	 * <p>
+	 * If any worker crossed the threshold, this is the lowest number of test
+	 * classes that a worker completed before it crossed the threshold. Since
+	 * recycled workers do not cross the threshold, an applied value would
+	 * never grow again otherwise. Hence, if no worker crossed the threshold,
+	 * the applied value is scaled by the share of the heap threshold that the
+	 * workers retained at most, assuming linear heap growth, but at most
+	 * doubled.
+	 *
+	 * @param profiles
+	 *            the {@link WorkerHeapProfile} of each worker (never
+	 *            <i>null</i>)
+	 * @param appliedForkEvery
+	 *            the <i>forkEvery</i> value that was applied to the test task;
+	 *            0 if none
+	 * @return the <i>forkEvery</i> value for the next build; 0 if test workers
+	 *         shall not be recycled
+	 */
+	public long determineForkEvery(List<WorkerHeapProfile> profiles, long appliedForkEvery) {
+
+		OptionalInt classesBeforeCrossing = profiles//
+			.stream()
+			.filter(it -> it.getCrossingIndex().isPresent())
+			.mapToInt(WorkerHeapProfile::getClassesBeforeCrossing)
+			.min();
+		if (classesBeforeCrossing.isPresent()) {
+			return classesBeforeCrossing.getAsInt();
+		} else if (appliedForkEvery > 0) {
+			double heapShare = profiles//
+				.stream()
+				.filter(it -> it.getMaxHeap() > 0)
+				.mapToDouble(it -> it.getMaxRetainedHeap() / (heapThreshold * it.getMaxHeap()))
+				.max()
+				.orElse(1);
+			return Math.max(appliedForkEvery, Math.min(2 * appliedForkEvery, (long) (appliedForkEvery / heapShare)));
+		} else {
+			return 0;
+		}
+	}
+
+	private WorkerHeapProfile analyze(WorkerTimeline workerTimeline, List<HeapSample> samples) {
+
+		int[] tests = IntStream//
+			.range(0, workerTimeline.size())
+			.boxed()
+			.sorted(Comparator.comparingLong(workerTimeline::getStartTimestamp))
+			.mapToInt(Integer::intValue)
+			.toArray();
+		int count = tests.length;
+		long maxHeap = samples.stream().mapToLong(HeapSample::getMax).max().orElse(0);
+
+		long[] suffixMinUsed = new long[samples.size() + 1];
+		suffixMinUsed[samples.size()] = Long.MAX_VALUE;
+		for (int index = samples.size() - 1; index >= 0; index--) {
+			suffixMinUsed[index] = Math.min(suffixMinUsed[index + 1], samples.get(index).getUsed());
+		}
+
+		long[] retained = new long[count];
+		long[] gcTimes = new long[count];
+		long[] durations = new long[count];
+		for (int index = 0; index < count; index++) {
+			long start = workerTimeline.getStartTimestamp(tests[index]);
+			long end = workerTimeline.getEndTimestamp(tests[index]);
+			int first = findFirstSample(samples, start);
+			retained[index] = first < samples.size()? suffixMinUsed[first] : 0;
+			for (int sample = first; sample < samples.size() && samples.get(sample).getTimestamp() <= end; sample++) {
+				gcTimes[index] += samples.get(sample).getDuration();
+			}
+			durations[index] = Math.max(0, end - start);
+		}
+
+		long[] suffixGcTimes = new long[count + 1];
+		long[] suffixDurations = new long[count + 1];
+		for (int index = count - 1; index >= 0; index--) {
+			suffixGcTimes[index] = suffixGcTimes[index + 1] + gcTimes[index];
+			suffixDurations[index] = suffixDurations[index + 1] + durations[index];
+		}
+
+		int crossingIndex = -1;
+		long prefixGcTime = 0;
+		long prefixDuration = 0;
+		for (int index = 0; index < count && crossingIndex < 0; index++) {
+			if (index > 0 && (isAboveHeapThreshold(retained[index], maxHeap) && !isAboveHeapThreshold(retained[0], maxHeap)
+					|| isAboveGcThreshold(suffixGcTimes[index], suffixDurations[index]) && !isAboveGcThreshold(prefixGcTime, prefixDuration))) {
+				crossingIndex = index;
+			} else {
+				prefixGcTime += gcTimes[index];
+				prefixDuration += durations[index];
+			}
+		}
+
+		int classesBeforeCrossing = 0;
+		long excessGcTime = 0;
+		if (crossingIndex >= 0) {
+			Set<String> classNames = new HashSet<>();
+			for (int index = 0; index < crossingIndex; index++) {
+				classNames.add(workerTimeline.getMethodName(tests[index]).getClassName());
+			}
+			classNames.remove(workerTimeline.getMethodName(tests[crossingIndex]).getClassName());
+			classesBeforeCrossing = Math.max(1, classNames.size());
+
+			double rate = prefixDuration > 0? (double) prefixGcTime / prefixDuration : 0;
+			for (int index = crossingIndex; index < count; index++) {
+				excessGcTime += Math.max(0, gcTimes[index] - (long) (rate * durations[index]));
+			}
+		}
+
+		return new WorkerHeapProfile(//
+			workerTimeline.getWorker(),
+			count,
+			crossingIndex,
+			classesBeforeCrossing,
+			Arrays.stream(retained).max().orElse(0),
+			maxHeap,
+			Arrays.stream(gcTimes).sum(),
+			excessGcTime);
+	}
+
+	private boolean isAboveHeapThreshold(long retained, long maxHeap) {
+
+		return maxHeap > 0 && retained >= heapThreshold * maxHeap;
+	}
+
+	private boolean isAboveGcThreshold(long gcTime, long duration) {
+
+		return duration > 0 && gcTime >= gcThreshold * duration;
+	}
+
+	/**
+	 * Returns the index of the first sample at or after the given timestamp.
+	 */
+	private int findFirstSample(List<HeapSample> samples, long timestamp) {
+
+		int low = 0;
+		int high = samples.size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (samples.get(middle).getTimestamp() < timestamp) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+}
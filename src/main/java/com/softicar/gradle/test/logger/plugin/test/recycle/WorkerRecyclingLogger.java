@@ -0,0 +1,85 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import java.util.List;
+import java.util.Objects;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs the {@link WorkerHeapProfile} of each test worker process, the number
+ * of recycled workers, and the <i>forkEvery</i> value for the next build.
+ */
+public class WorkerRecyclingLogger {
+
+	private final Logger logger;
+
+	public WorkerRecyclingLogger(Logger logger) {
+
+		this.logger = Objects.requireNonNull(logger);
+	}
+
+	/**
+	 * @param profiles
+	 *            the {@link WorkerHeapProfile} of each worker (never
+	 *            <i>null</i>)
+	 * @param appliedForkEvery
+	 *            the <i>forkEvery</i> value that was applied to the test task;
+	 *            0 if none
+	 * @param recycledWorkers
+	 *            the number of workers that were started to replace recycled
+	 *            workers
+	 * @param nextForkEvery
+	 *            the <i>forkEvery</i> value for the next build; 0 if none
+	 */
+	public void log(List<WorkerHeapProfile> profiles, long appliedForkEvery, int recycledWorkers, long nextForkEvery) {
+
+		logger.lifecycle(String.format("Heap and GC time of %s test worker(s):", profiles.size()));
+		logger.lifecycle("");
+		int number = 1;
+		for (WorkerHeapProfile profile: profiles) {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Fork #%s >  %s  tests: %s  retained heap: %s of %s  GC: %s%s",
+							number++,
+							profile.getWorker(),
+							profile.getTestCount(),
+							formatBytes(profile.getMaxRetainedHeap()),
+							formatBytes(profile.getMaxHeap()),
+							formatDuration(profile.getGcTime()),
+							profile//
+								.getCrossingIndex()
+								.map(
+									index -> String
+										.format(
+											"  crossed the threshold at test %s after %s class(es), excess GC: %s",
+											index + 1,
+											profile.getClassesBeforeCrossing(),
+											formatDuration(profile.getExcessGcTime())))
+								.orElse("")));
+		}
+		logger.lifecycle("");
+
+		long gcTime = profiles.stream().mapToLong(WorkerHeapProfile::getGcTime).sum();
+		if (appliedForkEvery > 0) {
+			logger.lifecycle(String.format("Recycled test worker(s): %s (forkEvery %s)", recycledWorkers, appliedForkEvery));
+		}
+		logger.lifecycle(String.format("GC time during tests: %s", formatDuration(gcTime)));
+		if (nextForkEvery > 0) {
+			logger.lifecycle(String.format("Next build: forkEvery %s", nextForkEvery));
+		} else {
+			logger.lifecycle("Next build: no recycling of test workers");
+		}
+		logger.lifecycle("");
+	}
+
+	private String formatBytes(long bytes) {
+
+		return String.format("%.0f MB", bytes / (1024d * 1024d));
+	}
+
+	private String formatDuration(long micros) {
+
+		return String.format("%.2fs", micros / 1_000_000d);
+	}
+}
@@ -0,0 +1,74 @@
+package com.softicar.gradle.test.logger.plugin.test.recycle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Optional;
+
+/**
+ * The outcome of the worker recycling analysis of a build, as stored for the
+ * next build.
+ * <p>
+ * The file contains a single line with the <i>forkEvery</i> value to apply.
+ */
+public class WorkerRecyclingState {
+
+	private static final String FORK_EVERY = "forkEvery";
+
+	private final long forkEvery;
+
+	public WorkerRecyclingState(long forkEvery) {
+
+		this.forkEvery = forkEvery;
+	}
+
+	/**
+	 * @return the <i>forkEvery</i> value to apply; 0 if test workers shall not
+	 *         be recycled
+	 */
+	public long getForkEvery() {
+
+		return forkEvery;
+	}
+
+	/**
+	 * Reads the given file.
+	 *
+	 * @param file
+	 *            the file to read (never <i>null</i>)
+	 * @return the optional {@link WorkerRecyclingState}; empty if the file does
+	 *         not exist or is malformed
+	 */
+	public static Optional<WorkerRecyclingState> read(File file) {
+
+		if (!file.exists()) {
+			return Optional.empty();
+		}
+		try {
+			long forkEvery = -1;
+			for (String line: Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				String[] parts = line.trim().split(" ");
+				if (parts.length == 2 && parts[0].equals(FORK_EVERY)) {
+					forkEvery = Long.parseLong(parts[1]);
+				}
+			}
+			return forkEvery >= 0? Optional.of(new WorkerRecyclingState(forkEvery)) : Optional.empty();
+		} catch (NumberFormatException exception) {
+			return Optional.empty();
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	public void write(File file) {
+
+		try {
+			file.getParentFile().mkdirs();
+			Files.writeString(file.toPath(), String.format("%s %s\n", FORK_EVERY, forkEvery), StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package com.softicar.gradle.test.logger.plugin.test.regression;
+
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistory;
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistoryBuild;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.gradle.api.GradleException;
+
+/**
+ * The expected durations of test methods and test classes, and the time
+ * budgets of packages.
+ * <p>
+ * A baseline is either derived from the durations of previous builds, or read
+ * from a baseline file. A baseline file is a text file with one entry per
+ * line, e.g.:
+ *
+ * <pre>
+ * # comment
+ * test 1200 com.example.SomeTest someTest
+ * class 3400 com.example.SomeTest
+ * package 60000 com.example
+ * </pre>
+ *
+ * All durations are in milliseconds. The time budget of a package limits the
+ * total duration of all test classes in the package and its sub-packages.
+ */
+public class TestDurationBaseline {
+
+	private static final String TEST_ENTRY = "test";
+	private static final String CLASS_ENTRY = "class";
+	private static final String PACKAGE_ENTRY = "package";
+
+	private final Map<TestMethodName, Long> methodDurations;
+	private final Map<String, Long> classDurations;
+	private final Map<String, Long> packageBudgets;
+
+	public TestDurationBaseline(Map<TestMethodName, Long> methodDurations, Map<String, Long> classDurations, Map<String, Long> packageBudgets) {
+
+		this.methodDurations = new TreeMap<>(methodDurations);
+		this.classDurations = new TreeMap<>(classDurations);
+		this.packageBudgets = new TreeMap<>(packageBudgets);
+	}
+
+	/**
+	 * Derives a baseline from the given previous builds, using the median
+	 * duration of each test method and test class.
+	 *
+	 * @param history
+	 *            the history that contains the builds (never <i>null</i>)
+	 * @param previousBuilds
+	 *            the previous builds (never <i>null</i>)
+	 * @return the baseline (never <i>null</i>)
+	 */
+	public static TestDurationBaseline fromHistory(TestDurationHistory history, List<TestDurationHistoryBuild> previousBuilds) {
+
+		Map<TestMethodName, List<Long>> methodDurations = new HashMap<>();
+		Map<String, List<Long>> classDurations = new HashMap<>();
+		for (TestDurationHistoryBuild build: previousBuilds) {
+			history.getMethodDurations(build).forEach((name, duration) -> methodDurations.computeIfAbsent(name, dummy -> new ArrayList<>()).add(duration));
+			history.getClassDurations(build).forEach((name, duration) -> classDurations.computeIfAbsent(name, dummy -> new ArrayList<>()).add(duration));
+		}
+		return new TestDurationBaseline(getMedians(methodDurations), getMedians(classDurations), Collections.emptyMap());
+	}
+
+	/**
+	 * Reads a baseline file.
+	 *
+	 * @param file
+	 *            the baseline file (never <i>null</i>)
+	 * @param methodNameRegistry
+	 *            the registry of test method names (never <i>null</i>)
+	 * @return the baseline (never <i>null</i>)
+	 * @throws GradleException
+	 *             if the file contains a malformed line
+	 */
+	public static TestDurationBaseline read(File file, TestMethodNameRegistry methodNameRegistry) {
+
+		Map<TestMethodName, Long> methodDurations = new HashMap<>();
+		Map<String, Long> classDurations = new HashMap<>();
+		Map<String, Long> packageBudgets = new HashMap<>();
+		List<String> lines = readLines(file);
+		for (int index = 0; index < lines.size(); index++) {
+			String line = lines.get(index).trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] tokens = line.split("\\s+", 4);
+			try {
+				if (tokens[0].equals(TEST_ENTRY) && tokens.length == 4) {
+					methodDurations.put(methodNameRegistry.get(tokens[2], tokens[3]), Long.parseLong(tokens[1]));
+				} else if (tokens[0].equals(CLASS_ENTRY) && tokens.length == 3) {
+					classDurations.put(tokens[2], Long.parseLong(tokens[1]));
+				} else if (tokens[0].equals(PACKAGE_ENTRY) && tokens.length == 3) {
+					packageBudgets.put(tokens[2], Long.parseLong(tokens[1]));
+				} else {
+					throw new NumberFormatException();
+				}
+			} catch (NumberFormatException exception) {
+				throw new GradleException("Malformed line %s in test duration baseline file %s: '%s'".formatted(index + 1, file, line));
+			}
+		}
+		return new TestDurationBaseline(methodDurations, classDurations, packageBudgets);
+	}
+
+	/**
+	 * Writes this baseline to the given file, in the format expected by
+	 * {@link #read}.
+	 *
+	 * @param file
+	 *            the baseline file (never <i>null</i>)
+	 */
+	public void write(File file) {
+
+		StringBuilder builder = new StringBuilder();
+		builder.append("# Test duration baseline in milliseconds, as written by the SoftiCAR Test Logger Plugin.\n");
+		packageBudgets.forEach((name, duration) -> builder.append(PACKAGE_ENTRY).append(' ').append(duration).append(' ').append(name).append('\n'));
+		classDurations.forEach((name, duration) -> builder.append(CLASS_ENTRY).append(' ').append(duration).append(' ').append(name).append('\n'));
+		methodDurations
+			.forEach(
+				(name, duration) -> builder//
+					.append(TEST_ENTRY)
+					.append(' ')
+					.append(duration)
+					.append(' ')
+					.append(name.getClassName())
+					.append(' ')
+					.append(name.getMethodName())
+					.append('\n'));
+		try {
+			Files.writeString(file.toPath(), builder, StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	public Map<TestMethodName, Long> getMethodDurations() {
+
+		return Collections.unmodifiableMap(methodDurations);
+	}
+
+	public Map<String, Long> getClassDurations() {
+
+		return Collections.unmodifiableMap(classDurations);
+	}
+
+	public Map<String, Long> getPackageBudgets() {
+
+		return Collections.unmodifiableMap(packageBudgets);
+	}
+
+	private static List<String> readLines(File file) {
+
+		try {
+			return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private static <K> Map<K, Long> getMedians(Map<K, List<Long>> durationMap) {
+
+		Map<K, Long> medians = new HashMap<>();
+		durationMap.forEach((key, durations) -> {
+			Collections.sort(durations);
+			medians.put(key, durations.get((durations.size() - 1) / 2));
+		});
+		return medians;
+	}
+}
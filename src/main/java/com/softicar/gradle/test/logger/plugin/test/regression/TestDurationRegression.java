@@ -0,0 +1,50 @@
+package com.softicar.gradle.test.logger.plugin.test.regression;
+
+/**
+ * A test method, test class or package whose duration exceeds its baseline
+ * or its time budget.
+ */
+public class TestDurationRegression {
+
+	private final String kind;
+	private final String name;
+	private final long expectedDuration;
+	private final long actualDuration;
+
+	public TestDurationRegression(String kind, String name, long expectedDuration, long actualDuration) {
+
+		this.kind = kind;
+		this.name = name;
+		this.expectedDuration = expectedDuration;
+		this.actualDuration = actualDuration;
+	}
+
+	/**
+	 * @return the kind of the slowed-down entity, e.g. <i>Test</i>
+	 */
+	public String getKind() {
+
+		return kind;
+	}
+
+	public String getName() {
+
+		return name;
+	}
+
+	/**
+	 * @return the baseline duration or the time budget, in milliseconds
+	 */
+	public long getExpectedDuration() {
+
+		return expectedDuration;
+	}
+
+	/**
+	 * @return the duration in the current build, in milliseconds
+	 */
+	public long getActualDuration() {
+
+		return actualDuration;
+	}
+}
@@ -0,0 +1,77 @@
+package com.softicar.gradle.test.logger.plugin.test.regression;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the durations of the current build with a
+ * {@link TestDurationBaseline}.
+ * <p>
+ * A test method or test class is considered to have slowed down if its
+ * duration exceeds the baseline duration both by the given ratio and by the
+ * given absolute delta. The latter prevents reports about short tests with a
+ * high relative variance. A package exceeds its time budget if the total
+ * duration of its test classes, including those in sub-packages, is greater
+ * than the budget.
+ */
+public class TestDurationRegressionDetector {
+
+	private final double ratio;
+	private final long delta;
+
+	/**
+	 * @param ratio
+	 *            the maximum ratio of the current duration to the baseline
+	 *            duration
+	 * @param delta
+	 *            the maximum difference between the current duration and the
+	 *            baseline duration, in milliseconds
+	 */
+	public TestDurationRegressionDetector(double ratio, long delta) {
+
+		this.ratio = ratio;
+		this.delta = delta;
+	}
+
+	public List<TestDurationRegression> detect(TestDurationBaseline baseline, Map<TestMethodName, Long> methodDurations, Map<String, Long> classDurations) {
+
+		List<TestDurationRegression> regressions = new ArrayList<>();
+		baseline.getPackageBudgets().forEach((packageName, budget) -> {
+			long duration = getPackageDuration(packageName, classDurations);
+			if (duration > budget) {
+				regressions.add(new TestDurationRegression("Package", packageName, budget, duration));
+			}
+		});
+		classDurations.forEach((className, duration) -> {
+			Long expected = baseline.getClassDurations().get(className);
+			if (expected != null && isRegression(expected, duration)) {
+				regressions.add(new TestDurationRegression("Class", className, expected, duration));
+			}
+		});
+		methodDurations.forEach((methodName, duration) -> {
+			Long expected = baseline.getMethodDurations().get(methodName);
+			if (expected != null && isRegression(expected, duration)) {
+				regressions.add(new TestDurationRegression("Test", methodName.getNameString(), expected, duration));
+			}
+		});
+		return regressions;
+	}
+
+	private boolean isRegression(long expected, long actual) {
+
+		return actual > expected * ratio && actual - expected > delta;
+	}
+
+	private long getPackageDuration(String packageName, Map<String, Long> classDurations) {
+
+		String prefix = packageName.isEmpty()? "" : packageName + ".";
+		return classDurations//
+			.entrySet()
+			.stream()
+			.filter(entry -> entry.getKey().startsWith(prefix))
+			.mapToLong(Map.Entry::getValue)
+			.sum();
+	}
+}
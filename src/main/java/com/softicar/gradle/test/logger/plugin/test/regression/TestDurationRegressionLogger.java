@@ -0,0 +1,54 @@
+package com.softicar.gradle.test.logger.plugin.test.regression;
+
+import java.util.List;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs test methods, test classes and packages whose duration exceeds their
+ * baseline or time budget.
+ */
+public class TestDurationRegressionLogger {
+
+	private final Logger logger;
+
+	public TestDurationRegressionLogger(Logger logger) {
+
+		this.logger = logger;
+	}
+
+	public void log(List<TestDurationRegression> regressions, String baselineSource) {
+
+		if (regressions.isEmpty()) {
+			return;
+		}
+
+		logger.lifecycle(String.format("WARNING: %s test duration regression(s), compared to %s:", regressions.size(), baselineSource));
+		logger.lifecycle("");
+
+		int counter = 0;
+		for (TestDurationRegression regression: regressions) {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Regression #%s >  %s  %s -> %s (%s)  %s",
+							++counter,
+							regression.getKind(),
+							formatDuration(regression.getExpectedDuration()),
+							formatDuration(regression.getActualDuration()),
+							formatRatio(regression.getExpectedDuration(), regression.getActualDuration()),
+							regression.getName()));
+		}
+		logger.lifecycle("");
+	}
+
+	private String formatDuration(long duration) {
+
+		return String.format("%.2fs", duration / 1000d);
+	}
+
+	private String formatRatio(long expected, long actual) {
+
+		return expected > 0? String.format("x%.2f", (double) actual / expected) : "new";
+	}
+}
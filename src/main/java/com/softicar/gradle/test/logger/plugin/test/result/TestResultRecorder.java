@@ -1,31 +1,68 @@
 package com.softicar.gradle.test.logger.plugin.test.result;
 
-import com.softicar.gradle.test.logger.plugin.test.failure.TestFailure;
+import com.softicar.gradle.test.logger.plugin.test.failure.SpooledFailure;
+import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureFingerprinter;
+import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureGroup;
+import com.softicar.gradle.test.logger.plugin.test.failure.TestFailureSpool;
 import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import org.gradle.api.tasks.testing.TestDescriptor;
 import org.gradle.api.tasks.testing.TestResult;
 import org.gradle.api.tasks.testing.TestResult.ResultType;
 
 /**
  * Accumulates results of test method executions.
+ * <p>
+ * The details of failures are written to a {@link TestFailureSpool} as they
+ * arrive. Only the offsets of the spooled failures are kept in memory, in the
+ * order in which the test methods failed first.
+ * <p>
+ * Failures are grouped by their fingerprint, as computed by
+ * {@link TestFailureFingerprinter}, so that failures with the same root cause
+ * can be reported together.
+ * <p>
+ * The in-memory index is limited to {@value #MAX_INDEXED_FAILURES} failed test
+ * methods. Further failures are kept in the spool only, along with their
+ * fingerprints and records of later successes. When the failures are
+ * reported, the spool is scanned once, and the further failures are added to
+ * the groups with the same fingerprint. For groups of further failures, only
+ * the first {@value #MAX_UNINDEXED_GROUP_METHOD_NAMES} test method names are
+ * kept, while all are counted.
  *
  * @author Alexander Schmidt
  */
-public class TestResultRecorder {
+public class TestResultRecorder implements AutoCloseable {
 
-	private volatile Map<TestMethodName, TestFailure> failureMap;
-	private volatile List<TestMethodName> failedMethodNames;
+	private static final int MAX_INDEXED_FAILURES = 1000;
+	private static final int MAX_UNINDEXED_GROUP_METHOD_NAMES = 100;
+	private static final long UNDEFINED_OFFSET = -1;
 
-	public TestResultRecorder() {
+	private final TestMethodNameRegistry methodNameRegistry;
+	private final TestFailureSpool failureSpool;
+	private final TestFailureFingerprinter fingerprinter;
+	private final Map<TestMethodName, SpooledFailure> failureMap;
+	private final Map<String, Set<TestMethodName>> fingerprintGroupMap;
+	private long unindexedOffset;
+	private UnindexedFailures unindexedFailures;
 
-		this.failureMap = new TreeMap<>();
-		this.failedMethodNames = new ArrayList<>();
+	public TestResultRecorder(TestMethodNameRegistry methodNameRegistry, TestFailureSpool failureSpool) {
+
+		this.methodNameRegistry = Objects.requireNonNull(methodNameRegistry);
+		this.failureSpool = Objects.requireNonNull(failureSpool);
+		this.fingerprinter = new TestFailureFingerprinter();
+		this.failureMap = new LinkedHashMap<>();
+		this.fingerprintGroupMap = new LinkedHashMap<>();
+		this.unindexedOffset = UNDEFINED_OFFSET;
+		this.unindexedFailures = null;
 	}
 
 	/**
@@ -42,41 +79,231 @@ public class TestResultRecorder {
 	 */
 	public synchronized void recordResult(TestDescriptor descriptor, TestResult result) {
 
-		TestMethodName methodName = new TestMethodName(descriptor);
+		recordResult(descriptor, result, "");
+	}
+
+	/**
+	 * Same as {@link #recordResult(TestDescriptor, TestResult)}, but stores the
+	 * given captured output along with a failure.
+	 *
+	 * @param descriptor
+	 *            the descriptor that identifies the test method (never null)
+	 * @param result
+	 *            the result of the test method run (never null)
+	 * @param output
+	 *            the captured output of the test method run, or an empty
+	 *            string (never null)
+	 */
+	public synchronized void recordResult(TestDescriptor descriptor, TestResult result, String output) {
+
+		TestMethodName methodName = methodNameRegistry.get(descriptor);
+		SpooledFailure previous = failureMap.get(methodName);
+		if (previous != null) {
+			removeFromGroup(methodName, previous.getFingerprint());
+		}
+
 		if (result.getResultType() == ResultType.FAILURE) {
-			TestFailure previous = failureMap.put(methodName, new TestFailure(descriptor, result));
-			if (previous == null) {
-				failedMethodNames.add(methodName);
+			String fingerprint = fingerprinter.fingerprint(result.getExceptions());
+			long offset = failureSpool.write(methodName, fingerprint, result.getExceptions(), output);
+			if (previous != null || (unindexedOffset == UNDEFINED_OFFSET && failureMap.size() < MAX_INDEXED_FAILURES)) {
+				failureMap.put(methodName, new SpooledFailure(offset, fingerprint));
+				fingerprintGroupMap.computeIfAbsent(fingerprint, dummy -> new LinkedHashSet<>()).add(methodName);
+			} else if (unindexedOffset == UNDEFINED_OFFSET) {
+				unindexedOffset = offset;
 			}
 		} else {
-			TestFailure previous = failureMap.remove(methodName);
-			if (previous != null) {
-				failedMethodNames.remove(methodName);
+			failureMap.remove(methodName);
+			if (unindexedOffset != UNDEFINED_OFFSET) {
+				failureSpool.writeSuccess(methodName);
 			}
 		}
+		unindexedFailures = null;
 	}
 
 	/**
-	 * Retrieves {@link TestFailure} instances from the recorded test results.
+	 * Passes each group of recorded failures with the same fingerprint to the
+	 * given {@link Consumer}, in the order in which the groups were first
+	 * encountered.
+	 * <p>
+	 * For each group, the {@link TestFailureGroup#getFailure()} of the first
+	 * test method in the group is read back from the spool.
 	 * <p>
 	 * If a failure and a subsequent success were recorded for a given test
-	 * method, the returned {@link Collection} will not contain a
-	 * {@link TestFailure} instance for that test method.
+	 * method, that test method will not be contained in any group.
+	 *
+	 * @param consumer
+	 *            the consumer of each {@link TestFailureGroup} (never null)
+	 */
+	public synchronized void forEachFailureGroup(Consumer<TestFailureGroup> consumer) {
+
+		UnindexedFailures unindexed = getUnindexedFailures();
+		for (Map.Entry<String, Set<TestMethodName>> entry: fingerprintGroupMap.entrySet()) {
+			Set<TestMethodName> group = entry.getValue();
+			List<TestMethodName> methodNames = new ArrayList<>(group);
+			int size = group.size();
+			UnindexedGroup unindexedGroup = unindexed.getGroup(entry.getKey());
+			if (unindexedGroup != null) {
+				methodNames.addAll(unindexedGroup.getMethodNames());
+				size += unindexedGroup.getSize();
+			}
+			long offset = failureMap.get(methodNames.get(0)).getOffset();
+			consumer.accept(new TestFailureGroup(failureSpool.read(offset), methodNames, size));
+		}
+		for (Map.Entry<String, UnindexedGroup> entry: unindexed.getGroups()) {
+			if (!fingerprintGroupMap.containsKey(entry.getKey())) {
+				UnindexedGroup group = entry.getValue();
+				consumer.accept(new TestFailureGroup(failureSpool.read(group.getOffset()), group.getMethodNames(), group.getSize()));
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of distinct fingerprints among the recorded failures.
 	 *
-	 * @return the relevant recorded {@link TestFailure} instances (never null)
+	 * @return the number of failure groups
 	 */
-	public synchronized Collection<TestFailure> getFailures() {
+	public synchronized int getFailureGroupCount() {
 
-		return failedMethodNames.stream().map(failureMap::get).collect(Collectors.toList());
+		return fingerprintGroupMap.size() + (int) getUnindexedFailures()//
+			.getGroups()
+			.stream()
+			.filter(entry -> !fingerprintGroupMap.containsKey(entry.getKey()))
+			.count();
+	}
+
+	/**
+	 * Retrieves the names of the test methods for which the most recently
+	 * recorded result is a failure.
+	 *
+	 * @return the names of the failed test methods, in the order in which they
+	 *         failed first (never null)
+	 */
+	public synchronized List<TestMethodName> getFailedMethodNames() {
+
+		List<TestMethodName> methodNames = new ArrayList<>(failureMap.keySet());
+		methodNames.addAll(getUnindexedFailures().getMethodNames());
+		return methodNames;
 	}
 
 	public synchronized boolean isEmpty() {
 
-		return failedMethodNames.isEmpty();
+		return failureMap.isEmpty() && getUnindexedFailures().getMethodNames().isEmpty();
 	}
 
 	public synchronized int size() {
 
-		return failedMethodNames.size();
+		return failureMap.size() + getUnindexedFailures().getMethodNames().size();
+	}
+
+	/**
+	 * Closes and deletes the underlying {@link TestFailureSpool}.
+	 */
+	@Override
+	public synchronized void close() {
+
+		failureSpool.close();
+	}
+
+	/**
+	 * Scans the spool for the failures beyond the in-memory index, unless it
+	 * was scanned since the last recorded result.
+	 */
+	private UnindexedFailures getUnindexedFailures() {
+
+		if (unindexedFailures == null) {
+			UnindexedFailures failures = new UnindexedFailures();
+			if (unindexedOffset != UNDEFINED_OFFSET) {
+				// the spool also contains later failures of indexed test methods
+				failureSpool.readFailures(unindexedOffset).forEach((methodName, failure) -> {
+					if (!failureMap.containsKey(methodName)) {
+						failures.add(methodName, failure);
+					}
+				});
+			}
+			unindexedFailures = failures;
+		}
+		return unindexedFailures;
+	}
+
+	private void removeFromGroup(TestMethodName methodName, String fingerprint) {
+
+		Set<TestMethodName> group = fingerprintGroupMap.getOrDefault(fingerprint, Collections.emptySet());
+		group.remove(methodName);
+		if (group.isEmpty()) {
+			fingerprintGroupMap.remove(fingerprint);
+		}
+	}
+
+	private static class UnindexedFailures {
+
+		private final List<TestMethodName> methodNames;
+		private final Map<String, UnindexedGroup> groups;
+
+		public UnindexedFailures() {
+
+			this.methodNames = new ArrayList<>();
+			this.groups = new LinkedHashMap<>();
+		}
+
+		public void add(TestMethodName methodName, SpooledFailure failure) {
+
+			methodNames.add(methodName);
+			groups.computeIfAbsent(failure.getFingerprint(), dummy -> new UnindexedGroup(failure.getOffset())).add(methodName);
+		}
+
+		public List<TestMethodName> getMethodNames() {
+
+			return methodNames;
+		}
+
+		public Set<Map.Entry<String, UnindexedGroup>> getGroups() {
+
+			return groups.entrySet();
+		}
+
+		public UnindexedGroup getGroup(String fingerprint) {
+
+			return groups.get(fingerprint);
+		}
+	}
+
+	private static class UnindexedGroup {
+
+		private final long offset;
+		private final List<TestMethodName> methodNames;
+		private int size;
+
+		public UnindexedGroup(long offset) {
+
+			this.offset = offset;
+			this.methodNames = new ArrayList<>();
+			this.size = 0;
+		}
+
+		public void add(TestMethodName methodName) {
+
+			if (methodNames.size() < MAX_UNINDEXED_GROUP_METHOD_NAMES) {
+				methodNames.add(methodName);
+			}
+			size++;
+		}
+
+		/**
+		 * @return the offset of the failure of the first test method
+		 */
+		public long getOffset() {
+
+			return offset;
+		}
+
+		public List<TestMethodName> getMethodNames() {
+
+			return methodNames;
+		}
+
+		public int getSize() {
+
+			return size;
+		}
 	}
 }
@@ -3,15 +3,46 @@ package com.softicar.gradle.test.logger.plugin.test.run;
 public class FinishedTestRunMetrics extends TestRunMetrics {
 
 	private final long duration;
+	private final long startTimestamp;
+	private final long endTimestamp;
 
-	public FinishedTestRunMetrics(int index, int runningCount, long duration) {
+	public FinishedTestRunMetrics(int index, int runningCount, String worker, long startTimestamp, long endTimestamp) {
 
-		super(index, runningCount);
-		this.duration = duration;
+		super(index, runningCount, worker);
+		this.duration = Math.max(0, endTimestamp - startTimestamp) / 1000;
+		this.startTimestamp = startTimestamp;
+		this.endTimestamp = endTimestamp;
 	}
 
+	/**
+	 * Returns the duration of the test, in milliseconds.
+	 *
+	 * @return the duration
+	 */
 	public long getDuration() {
 
 		return duration;
 	}
+
+	/**
+	 * Returns the point in time at which the test started, in microseconds
+	 * since the epoch.
+	 *
+	 * @return the start timestamp
+	 */
+	public long getStartTimestamp() {
+
+		return startTimestamp;
+	}
+
+	/**
+	 * Returns the point in time at which the test ended, in microseconds since
+	 * the epoch.
+	 *
+	 * @return the end timestamp
+	 */
+	public long getEndTimestamp() {
+
+		return endTimestamp;
+	}
 }
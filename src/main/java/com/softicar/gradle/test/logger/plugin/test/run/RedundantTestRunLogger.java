@@ -1,8 +1,11 @@
 package com.softicar.gradle.test.logger.plugin.test.run;
 
 import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import org.gradle.api.logging.Logger;
 
 public class RedundantTestRunLogger {
@@ -16,7 +19,20 @@ public class RedundantTestRunLogger {
 
 	public void log(TestRunTracker testRunTracker) {
 
-		Map<TestMethodName, Integer> redundantTestRunMap = testRunTracker.getRedundantTestRunMap();
+		log(List.of(testRunTracker));
+	}
+
+	/**
+	 * Logs the redundant test runs of several {@link TestRunTracker} instances,
+	 * e.g. of the test tasks of several projects, as a single report.
+	 *
+	 * @param testRunTrackers
+	 *            the {@link TestRunTracker} instances (never <i>null</i>)
+	 */
+	public void log(Collection<TestRunTracker> testRunTrackers) {
+
+		Map<TestMethodName, Integer> redundantTestRunMap = new TreeMap<>();
+		testRunTrackers.forEach(it -> it.getRedundantTestRunMap().forEach((methodName, count) -> redundantTestRunMap.merge(methodName, count, Integer::sum)));
 		if (!redundantTestRunMap.isEmpty()) {
 			logger.lifecycle(String.format("WARNING: %s test(s) were executed several times:", redundantTestRunMap.size()));
 			logger.lifecycle("");
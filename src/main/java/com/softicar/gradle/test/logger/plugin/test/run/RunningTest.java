@@ -0,0 +1,55 @@
+package com.softicar.gradle.test.logger.plugin.test.run;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A test method execution that was started but has not ended yet, as tracked
+ * by {@link TestRunTracker}.
+ */
+public class RunningTest {
+
+	private final int index;
+	private final TestMethodName methodName;
+	private final String worker;
+	private final long startTimestamp;
+
+	public RunningTest(int index, TestMethodName methodName, String worker, long startTimestamp) {
+
+		this.index = index;
+		this.methodName = methodName;
+		this.worker = worker;
+		this.startTimestamp = startTimestamp;
+	}
+
+	public int getIndex() {
+
+		return index;
+	}
+
+	public TestMethodName getMethodName() {
+
+		return methodName;
+	}
+
+	public String getWorker() {
+
+		return worker;
+	}
+
+	/**
+	 * @return the start timestamp, as returned by {@link System#nanoTime()}
+	 */
+	public long getStartTimestamp() {
+
+		return startTimestamp;
+	}
+
+	/**
+	 * @return the time since the start of the test, in milliseconds
+	 */
+	public long getRunningTime() {
+
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimestamp);
+	}
+}
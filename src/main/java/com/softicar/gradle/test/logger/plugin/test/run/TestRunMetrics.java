@@ -4,11 +4,13 @@ public class TestRunMetrics {
 
 	private final int index;
 	private final int runningCount;
+	private final String worker;
 
-	public TestRunMetrics(int index, int runningCount) {
+	public TestRunMetrics(int index, int runningCount, String worker) {
 
 		this.index = index;
 		this.runningCount = runningCount;
+		this.worker = worker;
 	}
 
 	public int getIndex() {
@@ -20,4 +22,15 @@ public class TestRunMetrics {
 
 		return runningCount;
 	}
+
+	/**
+	 * Returns the name of the test worker process that executes the test, e.g.
+	 * <i>Gradle Test Executor 3</i>.
+	 *
+	 * @return the worker name (never <i>null</i>)
+	 */
+	public String getWorker() {
+
+		return worker;
+	}
 }
@@ -1,52 +1,173 @@
 package com.softicar.gradle.test.logger.plugin.test.run;
 
 import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodNameRegistry;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.gradle.api.tasks.testing.TestDescriptor;
 
+/**
+ * Tracks the start and the end of test method executions.
+ * <p>
+ * This class is thread-safe, and does not use locks. Running tests are keyed
+ * by their {@link TestDescriptor} instance, which Gradle passes to both the
+ * start and the end notification of a test. Hence, concurrent executions of
+ * the same test method, e.g. in different projects, are tracked separately.
+ * <p>
+ * Durations are measured with {@link System#nanoTime()}, and are thus
+ * unaffected by changes of the wall clock. Timestamps are derived from the
+ * same clock, relative to the wall-clock time at which the tracker was
+ * created.
+ * <p>
+ * Each test is attributed to the test worker process that executes it, as
+ * determined from the parent chain of its {@link TestDescriptor}.
+ */
 public class TestRunTracker {
 
-	private volatile int startedTests;
-	private volatile Map<TestMethodName, Integer> testIndexMap;
-	private volatile Map<TestMethodName, Long> testStartTimestampMap;
-	private volatile Map<TestMethodName, Integer> testRunCounterMap;
+	private static final long UNDEFINED_TIMESTAMP = Long.MIN_VALUE;
+	private static final String WORKER_DESCRIPTOR_PREFIX = "Gradle Test Executor";
+	private static final String UNKNOWN_WORKER = "Unknown Test Executor";
 
-	public TestRunTracker() {
+	private final TestMethodNameRegistry methodNameRegistry;
+	private final AtomicInteger startedTests;
+	private final AtomicInteger runningTests;
+	private final Map<TestDescriptor, RunningTest> runningTestMap;
+	private final Map<TestMethodName, Integer> testRunCounterMap;
+	private final AtomicLong firstStartTimestamp;
+	private final AtomicLong lastEndTimestamp;
+	private final long originNanoTime;
+	private final long originEpochMicros;
 
-		this.startedTests = 0;
-		this.testIndexMap = new TreeMap<>();
-		this.testStartTimestampMap = new TreeMap<>();
-		this.testRunCounterMap = new TreeMap<>();
+	public TestRunTracker(TestMethodNameRegistry methodNameRegistry) {
+
+		this.methodNameRegistry = Objects.requireNonNull(methodNameRegistry);
+		this.startedTests = new AtomicInteger();
+		this.runningTests = new AtomicInteger();
+		this.runningTestMap = new ConcurrentHashMap<>();
+		this.testRunCounterMap = new ConcurrentHashMap<>();
+		this.firstStartTimestamp = new AtomicLong(UNDEFINED_TIMESTAMP);
+		this.lastEndTimestamp = new AtomicLong(UNDEFINED_TIMESTAMP);
+		this.originNanoTime = System.nanoTime();
+		this.originEpochMicros = System.currentTimeMillis() * 1000;
+	}
+
+	public TestRunMetrics start(TestDescriptor descriptor) {
+
+		long now = System.nanoTime();
+		firstStartTimestamp.compareAndSet(UNDEFINED_TIMESTAMP, now);
+
+		int index = startedTests.incrementAndGet();
+		int runningCount = runningTests.incrementAndGet();
+		String worker = getWorker(descriptor);
+		TestMethodName methodName = methodNameRegistry.get(descriptor);
+		RunningTest previous = runningTestMap.put(descriptor, new RunningTest(index, methodName, worker, now));
+		if (previous != null) {
+			runningCount = runningTests.decrementAndGet();
+		}
+		testRunCounterMap.merge(methodName, 1, Integer::sum);
+		return new TestRunMetrics(index, runningCount, worker);
+	}
+
+	/**
+	 * Marks the end of the test method execution that was started for the
+	 * given {@link TestDescriptor}.
+	 * <p>
+	 * If no matching start was tracked, the returned metrics have an index and
+	 * a duration of 0.
+	 *
+	 * @param descriptor
+	 *            the descriptor of the finished test method (never <i>null</i>)
+	 * @return the {@link FinishedTestRunMetrics} (never <i>null</i>)
+	 */
+	public FinishedTestRunMetrics end(TestDescriptor descriptor) {
+
+		long now = System.nanoTime();
+		lastEndTimestamp.accumulateAndGet(now, Math::max);
+
+		RunningTest runningTest = runningTestMap.remove(descriptor);
+		if (runningTest != null) {
+			return new FinishedTestRunMetrics(//
+				runningTest.getIndex(),
+				runningTests.decrementAndGet(),
+				runningTest.getWorker(),
+				toEpochMicros(runningTest.getStartTimestamp()),
+				toEpochMicros(now));
+		} else {
+			return new FinishedTestRunMetrics(0, runningTests.get(), getWorker(descriptor), toEpochMicros(now), toEpochMicros(now));
+		}
 	}
 
-	public synchronized TestRunMetrics start(TestDescriptor descriptor) {
+	/**
+	 * Determines the wall-clock time between the start of the first test and
+	 * the end of the last test.
+	 *
+	 * @return the makespan in milliseconds; 0 if no test has ended yet
+	 */
+	public long getMakespan() {
 
-		TestMethodName methodName = new TestMethodName(descriptor);
-		startedTests++;
-		testIndexMap.put(methodName, startedTests);
-		testStartTimestampMap.put(methodName, System.currentTimeMillis());
-		testRunCounterMap.compute(methodName, (dummy, runs) -> runs == null? 1 : runs + 1);
-		return new TestRunMetrics(startedTests, testIndexMap.size());
+		long firstStart = firstStartTimestamp.get();
+		long lastEnd = lastEndTimestamp.get();
+		if (firstStart != UNDEFINED_TIMESTAMP && lastEnd != UNDEFINED_TIMESTAMP) {
+			return TimeUnit.NANOSECONDS.toMillis(Math.max(0, lastEnd - firstStart));
+		} else {
+			return 0;
+		}
 	}
 
-	public synchronized FinishedTestRunMetrics end(TestDescriptor descriptor) {
+	/**
+	 * Returns a snapshot of the test method executions that were started but
+	 * have not ended yet.
+	 *
+	 * @return the running tests, ordered by index (never <i>null</i>)
+	 */
+	public List<RunningTest> getRunningTests() {
 
-		TestMethodName methodName = new TestMethodName(descriptor);
-		Integer index = testIndexMap.remove(methodName);
-		Long startTime = testStartTimestampMap.remove(methodName);
-		long duration = System.currentTimeMillis() - startTime;
-		return new FinishedTestRunMetrics(index, testIndexMap.size(), duration);
+		return runningTestMap//
+			.values()
+			.stream()
+			.sorted(Comparator.comparingInt(RunningTest::getIndex))
+			.collect(Collectors.toList());
 	}
 
-	public synchronized Map<TestMethodName, Integer> getRedundantTestRunMap() {
+	public Map<TestMethodName, Integer> getRedundantTestRunMap() {
 
 		return testRunCounterMap//
 			.entrySet()
 			.stream()
 			.filter(entry -> entry.getValue() > 1)
-			.collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+			.collect(Collectors.toMap(Entry::getKey, Entry::getValue, (a, b) -> a, TreeMap::new));
+	}
+
+	private long toEpochMicros(long nanoTime) {
+
+		return originEpochMicros + (nanoTime - originNanoTime) / 1000;
+	}
+
+	/**
+	 * Determines the name of the test worker process that executes the given
+	 * test or test class, e.g. <i>Gradle Test Executor 3</i>.
+	 *
+	 * @param descriptor
+	 *            the descriptor of a test or test class (never <i>null</i>)
+	 * @return the worker name (never <i>null</i>)
+	 */
+	public String getWorker(TestDescriptor descriptor) {
+
+		for (TestDescriptor parent = descriptor.getParent(); parent != null; parent = parent.getParent()) {
+			String name = parent.getName();
+			if (name != null && name.startsWith(WORKER_DESCRIPTOR_PREFIX)) {
+				return name;
+			}
+		}
+		return UNKNOWN_WORKER;
 	}
 }
@@ -0,0 +1,67 @@
+package com.softicar.gradle.test.logger.plugin.test.schedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Distributes test classes over a fixed number of partitions, such that the
+ * partitions have similar total durations.
+ * <p>
+ * Uses the <i>longest processing time first</i> heuristic: test classes are
+ * sorted by descending duration, and each test class is assigned to the
+ * partition with the lowest total duration so far. Ties are broken by class
+ * name and partition index, so the result is deterministic.
+ */
+public class TestClassPartitioner {
+
+	private final int partitionCount;
+
+	public TestClassPartitioner(int partitionCount) {
+
+		this.partitionCount = Math.max(1, partitionCount);
+	}
+
+	/**
+	 * Partitions the given test classes.
+	 *
+	 * @param classDurations
+	 *            the expected duration of each test class, in milliseconds
+	 *            (never <i>null</i>)
+	 * @return the {@link TestClassPartitioning} (never <i>null</i>)
+	 */
+	public TestClassPartitioning partition(Map<String, Long> classDurations) {
+
+		List<Entry<String, Long>> sortedClasses = classDurations//
+			.entrySet()
+			.stream()
+			.sorted(Entry.<String, Long> comparingByValue(Comparator.reverseOrder()).thenComparing(Entry.comparingByKey()))
+			.collect(Collectors.toList());
+
+		List<List<String>> partitions = new ArrayList<>();
+		long[] durations = new long[partitionCount];
+		PriorityQueue<Integer> queue = new PriorityQueue<>(Comparator.<Integer> comparingLong(index -> durations[index]).thenComparing(index -> index));
+		for (int index = 0; index < partitionCount; index++) {
+			partitions.add(new ArrayList<>());
+			queue.add(index);
+		}
+
+		for (Entry<String, Long> entry: sortedClasses) {
+			int index = queue.poll();
+			partitions.get(index).add(entry.getKey());
+			durations[index] += entry.getValue();
+			queue.add(index);
+		}
+
+		long longestClassDuration = sortedClasses.isEmpty()? 0 : sortedClasses.get(0).getValue();
+		List<Long> durationList = new ArrayList<>();
+		for (long duration: durations) {
+			durationList.add(duration);
+		}
+		return new TestClassPartitioning(partitions, durationList, longestClassDuration);
+	}
+}
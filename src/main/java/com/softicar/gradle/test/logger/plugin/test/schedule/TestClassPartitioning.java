@@ -0,0 +1,75 @@
+package com.softicar.gradle.test.logger.plugin.test.schedule;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An assignment of test classes to a fixed number of partitions, e.g. forks
+ * or shards, along with the expected duration of each partition.
+ */
+public class TestClassPartitioning {
+
+	private final List<List<String>> partitions;
+	private final List<Long> durations;
+	private final long longestClassDuration;
+
+	public TestClassPartitioning(List<List<String>> partitions, List<Long> durations, long longestClassDuration) {
+
+		this.partitions = Collections.unmodifiableList(partitions);
+		this.durations = Collections.unmodifiableList(durations);
+		this.longestClassDuration = longestClassDuration;
+	}
+
+	/**
+	 * Returns the names of the test classes in each partition.
+	 *
+	 * @return the partitions (never <i>null</i>)
+	 */
+	public List<List<String>> getPartitions() {
+
+		return partitions;
+	}
+
+	/**
+	 * Returns the expected duration of each partition, in milliseconds.
+	 *
+	 * @return the partition durations (never <i>null</i>)
+	 */
+	public List<Long> getDurations() {
+
+		return durations;
+	}
+
+	/**
+	 * Returns the expected duration of the longest partition, in milliseconds.
+	 *
+	 * @return the makespan
+	 */
+	public long getMakespan() {
+
+		return durations.stream().mapToLong(Long::longValue).max().orElse(0);
+	}
+
+	/**
+	 * Returns the sum of the expected durations of all test classes, in
+	 * milliseconds.
+	 *
+	 * @return the total duration
+	 */
+	public long getTotalDuration() {
+
+		return durations.stream().mapToLong(Long::longValue).sum();
+	}
+
+	/**
+	 * Returns the minimum makespan that any partitioning could achieve, in
+	 * milliseconds.
+	 *
+	 * @return the makespan lower bound
+	 */
+	public long getMakespanLowerBound() {
+
+		long averageDuration = partitions.isEmpty()? 0 : (getTotalDuration() + partitions.size() - 1) / partitions.size();
+		return Math.max(averageDuration, longestClassDuration);
+	}
+}
@@ -0,0 +1,112 @@
+package com.softicar.gradle.test.logger.plugin.test.schedule;
+
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistory;
+import com.softicar.gradle.test.logger.plugin.test.history.TestDurationHistoryBuild;
+import com.softicar.gradle.test.logger.plugin.test.shard.TestShardAssigner;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Compares the actual makespan of the test classes executed in the current
+ * build with the makespan that a longest-first distribution of the test
+ * classes over the available forks would achieve.
+ * <p>
+ * The expected duration of each test class is taken from the most recent
+ * previous build in which the class was executed. Test classes without a
+ * recorded duration are assumed to take the average duration of the others.
+ * <p>
+ * This is a report only, the distribution is not applied to the test task.
+ * Gradle hands the test classes to its forks round-robin, in the order in
+ * which it discovers the class files, and each fork executes its classes in
+ * turn. A plug-in can neither change that order nor pin a test class to a
+ * fork. The shards of {@link TestShardAssigner} apply the same longest-first
+ * distribution across several test task executions instead. The actual makespan
+ * is measured in the Gradle daemon, from the start of the first test to the
+ * end of the last test, as reported by the test events. It thus excludes the
+ * startup of the forks, and includes the delay of the test event delivery.
+ */
+public class TestClassScheduleLogger {
+
+	private static final int MAX_CLASSES_PER_FORK_LINE = 3;
+
+	private final Logger logger;
+
+	public TestClassScheduleLogger(Logger logger) {
+
+		this.logger = logger;
+	}
+
+	public void log(TestDurationHistory history, int forkCount, long actualMakespan) {
+
+		List<TestDurationHistoryBuild> builds = history.getBuilds();
+		if (builds.isEmpty()) {
+			return;
+		}
+
+		Set<String> currentClasses = history.getClassDurations(builds.get(builds.size() - 1)).keySet();
+		Map<String, Long> expectedDurations = getExpectedDurations(history, builds.subList(0, builds.size() - 1), currentClasses);
+		if (expectedDurations.isEmpty()) {
+			logger.lifecycle("Test class scheduling: no test class durations were recorded in previous builds.");
+			logger.lifecycle("");
+			return;
+		}
+
+		int knownClassCount = expectedDurations.size();
+		long averageDuration = expectedDurations.values().stream().mapToLong(Long::longValue).sum() / knownClassCount;
+		currentClasses.forEach(className -> expectedDurations.putIfAbsent(className, averageDuration));
+
+		TestClassPartitioning partitioning = new TestClassPartitioner(forkCount).partition(expectedDurations);
+
+		logger.lifecycle(String.format("Test class scheduling for %s fork(s):", forkCount));
+		logger.lifecycle("");
+		logger.lifecycle(String.format("Recorded durations: %s of %s test class(es)", knownClassCount, currentClasses.size()));
+		logger.lifecycle(String.format("Predicted makespan (longest first): %s", formatDuration(partitioning.getMakespan())));
+		logger.lifecycle(String.format("Makespan lower bound: %s", formatDuration(partitioning.getMakespanLowerBound())));
+		logger.lifecycle(String.format("Actual makespan: %s (from test events, with forks assigned by Gradle)", formatDuration(actualMakespan)));
+		logger.lifecycle("");
+		logger.lifecycle("Longest-first distribution (report only, not applied):");
+
+		List<List<String>> partitions = partitioning.getPartitions();
+		for (int index = 0; index < partitions.size(); index++) {
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Fork #%s >  %s  %s",
+							index + 1,
+							formatDuration(partitioning.getDurations().get(index)),
+							getClassesString(partitions.get(index))));
+		}
+		logger.lifecycle("");
+	}
+
+	private Map<String, Long> getExpectedDurations(TestDurationHistory history, List<TestDurationHistoryBuild> previousBuilds, Set<String> classNames) {
+
+		Map<String, Long> expectedDurations = new TreeMap<>();
+		for (TestDurationHistoryBuild build: previousBuilds) {
+			history.getClassDurations(build).forEach((className, duration) -> {
+				if (classNames.contains(className)) {
+					expectedDurations.put(className, duration);
+				}
+			});
+		}
+		return expectedDurations;
+	}
+
+	private String getClassesString(List<String> classNames) {
+
+		String classes = String.join(", ", classNames.subList(0, Math.min(classNames.size(), MAX_CLASSES_PER_FORK_LINE)));
+		if (classNames.size() > MAX_CLASSES_PER_FORK_LINE) {
+			classes += String.format(" (+%s more)", classNames.size() - MAX_CLASSES_PER_FORK_LINE);
+		}
+		return classes;
+	}
+
+	private String formatDuration(long duration) {
+
+		return String.format("%.2fs", duration / 1000d);
+	}
+}
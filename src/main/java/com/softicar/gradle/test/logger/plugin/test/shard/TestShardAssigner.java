@@ -0,0 +1,70 @@
+package com.softicar.gradle.test.logger.plugin.test.shard;
+
+import com.softicar.gradle.test.logger.plugin.test.schedule.TestClassPartitioner;
+import com.softicar.gradle.test.logger.plugin.test.schedule.TestClassPartitioning;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Assigns test classes to one of several shards, e.g. CI nodes that execute
+ * the same test task.
+ * <p>
+ * The assignment only depends on the given class names and durations, so all
+ * shards compute the same assignment, as long as they see the same classes and
+ * the same durations. Classes with a known duration are distributed with
+ * {@link TestClassPartitioner}, so that the shards have similar expected
+ * durations. Other classes are assigned by the hash code of their name, which
+ * is stable across JVMs.
+ */
+public class TestShardAssigner {
+
+	private final int index;
+	private final int total;
+
+	public TestShardAssigner(int index, int total) {
+
+		if (total < 1 || index < 0 || index >= total) {
+			throw new IllegalArgumentException(String.format("Illegal shard index %s of %s shard(s).", index, total));
+		}
+		this.index = index;
+		this.total = total;
+	}
+
+	/**
+	 * Assigns the given test classes to the shards, and returns the assignment
+	 * of this shard.
+	 *
+	 * @param classNames
+	 *            the names of all top-level test classes (never <i>null</i>)
+	 * @param classDurations
+	 *            the known durations of test classes, in milliseconds (never
+	 *            <i>null</i>)
+	 * @return the {@link TestShardAssignment} of this shard (never
+	 *         <i>null</i>)
+	 */
+	public TestShardAssignment assign(Collection<String> classNames, Map<String, Long> classDurations) {
+
+		Map<String, Long> knownDurations = new TreeMap<>();
+		TreeSet<String> assignedClassNames = new TreeSet<>();
+		for (String className: new TreeSet<>(classNames)) {
+			Long duration = classDurations.get(className);
+			if (duration != null) {
+				knownDurations.put(className, duration);
+			} else if (Math.floorMod(className.hashCode(), total) == index) {
+				assignedClassNames.add(className);
+			}
+		}
+
+		TestClassPartitioning partitioning = new TestClassPartitioner(total).partition(knownDurations);
+		assignedClassNames.addAll(partitioning.getPartitions().get(index));
+		return new TestShardAssignment(
+			index,
+			total,
+			assignedClassNames,
+			new TreeSet<>(classNames).size(),
+			partitioning.getDurations().get(index),
+			partitioning.getTotalDuration());
+	}
+}
@@ -0,0 +1,104 @@
+package com.softicar.gradle.test.logger.plugin.test.shard;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The test classes that are assigned to one shard, along with their expected
+ * duration.
+ */
+public class TestShardAssignment {
+
+	private final int index;
+	private final int total;
+	private final Set<String> classNames;
+	private final int totalClassCount;
+	private final long expectedDuration;
+	private final long totalExpectedDuration;
+
+	public TestShardAssignment(int index, int total, Set<String> classNames, int totalClassCount, long expectedDuration, long totalExpectedDuration) {
+
+		this.index = index;
+		this.total = total;
+		this.classNames = Collections.unmodifiableSet(classNames);
+		this.totalClassCount = totalClassCount;
+		this.expectedDuration = expectedDuration;
+		this.totalExpectedDuration = totalExpectedDuration;
+	}
+
+	/**
+	 * Returns the index of the shard, from 0 to {@link #getTotal()} - 1.
+	 *
+	 * @return the shard index
+	 */
+	public int getIndex() {
+
+		return index;
+	}
+
+	/**
+	 * Returns the total number of shards.
+	 *
+	 * @return the shard count
+	 */
+	public int getTotal() {
+
+		return total;
+	}
+
+	/**
+	 * Returns the names of the top-level classes that are assigned to this
+	 * shard.
+	 *
+	 * @return the class names (never <i>null</i>)
+	 */
+	public Set<String> getClassNames() {
+
+		return classNames;
+	}
+
+	/**
+	 * Returns the number of top-level classes of all shards.
+	 *
+	 * @return the total class count
+	 */
+	public int getTotalClassCount() {
+
+		return totalClassCount;
+	}
+
+	/**
+	 * Returns the expected duration of this shard, in milliseconds, based on
+	 * the classes with a known duration.
+	 *
+	 * @return the expected duration
+	 */
+	public long getExpectedDuration() {
+
+		return expectedDuration;
+	}
+
+	/**
+	 * Returns the expected duration of all shards, in milliseconds, based on
+	 * the classes with a known duration.
+	 *
+	 * @return the total expected duration
+	 */
+	public long getTotalExpectedDuration() {
+
+		return totalExpectedDuration;
+	}
+
+	/**
+	 * Determines whether the given class is assigned to this shard.
+	 *
+	 * @param className
+	 *            the name of a top-level class (never <i>null</i>)
+	 * @return <i>true</i> if the class is assigned to this shard; <i>false</i>
+	 *         otherwise
+	 */
+	public boolean contains(String className) {
+
+		return classNames.contains(className);
+	}
+}
@@ -0,0 +1,81 @@
+package com.softicar.gradle.test.logger.plugin.test.shard;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.FileTreeElement;
+import org.gradle.api.file.RelativePath;
+import org.gradle.api.specs.Spec;
+
+/**
+ * Selects the class files of the test classes that are assigned to the
+ * current shard.
+ * <p>
+ * Directories and other files are always selected. The test task excludes
+ * all elements that do not satisfy this spec.
+ * <p>
+ * Nested classes are assigned to the shard of their top-level class. The
+ * assignment is computed when the filter is used for the first time, i.e.
+ * when the test task is executed.
+ */
+public class TestShardFilter implements Spec<FileTreeElement> {
+
+	private final TestShardAssigner assigner;
+	private final Supplier<FileCollection> classesDirsSupplier;
+	private final Supplier<Map<String, Long>> classDurationsSupplier;
+	private TestShardAssignment assignment;
+
+	public TestShardFilter(TestShardAssigner assigner, Supplier<FileCollection> classesDirsSupplier, Supplier<Map<String, Long>> classDurationsSupplier) {
+
+		this.assigner = Objects.requireNonNull(assigner);
+		this.classesDirsSupplier = Objects.requireNonNull(classesDirsSupplier);
+		this.classDurationsSupplier = Objects.requireNonNull(classDurationsSupplier);
+		this.assignment = null;
+	}
+
+	@Override
+	public boolean isSatisfiedBy(FileTreeElement element) {
+
+		if (element.isDirectory()) {
+			return true;
+		} else {
+			return getClassName(element.getRelativePath()).map(getAssignment()::contains).orElse(true);
+		}
+	}
+
+	/**
+	 * Returns the {@link TestShardAssignment} of the current shard, and
+	 * computes it if necessary.
+	 *
+	 * @return the {@link TestShardAssignment} (never <i>null</i>)
+	 */
+	public synchronized TestShardAssignment getAssignment() {
+
+		if (assignment == null) {
+			Set<String> classNames = new TreeSet<>();
+			classesDirsSupplier.get().getAsFileTree().visit(details -> {
+				if (!details.isDirectory()) {
+					getClassName(details.getRelativePath()).ifPresent(classNames::add);
+				}
+			});
+			assignment = assigner.assign(classNames, classDurationsSupplier.get());
+		}
+		return assignment;
+	}
+
+	private static Optional<String> getClassName(RelativePath relativePath) {
+
+		String path = relativePath.getPathString();
+		if (path.endsWith(".class")) {
+			String className = path.substring(0, path.length() - ".class".length()).replace('/', '.');
+			int nestedIndex = className.indexOf('$');
+			return Optional.of(nestedIndex >= 0? className.substring(0, nestedIndex) : className);
+		} else {
+			return Optional.empty();
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package com.softicar.gradle.test.logger.plugin.test.timeline;
+
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline.WorkerTimeline;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Logs how well the test worker processes (forks) of a test task were
+ * utilized, based on a {@link TestTimeline}.
+ * <p>
+ * For each fork, the share of the time in which it executed tests is logged,
+ * along with its idle gaps. For the whole task, the effective parallelism is
+ * logged, as well as the <i>tail</i>, i.e. the time at the end of the task in
+ * which at most one fork was still executing tests.
+ */
+public class ForkUtilizationLogger {
+
+	/**
+	 * Idle gaps shorter than this (in microseconds) are not counted.
+	 */
+	private static final long MIN_GAP = 1_000_000;
+
+	private final Logger logger;
+
+	public ForkUtilizationLogger(Logger logger) {
+
+		this.logger = logger;
+	}
+
+	public void log(String taskPath, TestTimeline timeline) {
+
+		List<WorkerTimeline> workerTimelines = timeline.getWorkerTimelines();
+		if (workerTimelines.isEmpty()) {
+			return;
+		}
+
+		List<List<long[]>> busyIntervalLists = new ArrayList<>();
+		long taskStart = Long.MAX_VALUE;
+		long taskEnd = Long.MIN_VALUE;
+		for (WorkerTimeline workerTimeline: workerTimelines) {
+			List<long[]> busyIntervals = getBusyIntervals(workerTimeline);
+			busyIntervalLists.add(busyIntervals);
+			taskStart = Math.min(taskStart, busyIntervals.get(0)[0]);
+			taskEnd = Math.max(taskEnd, busyIntervals.get(busyIntervals.size() - 1)[1]);
+		}
+
+		long span = Math.max(1, taskEnd - taskStart);
+		logger.lifecycle(String.format("Fork utilization of %s (%s fork(s), %s):", taskPath, workerTimelines.size(), formatDuration(span)));
+		logger.lifecycle("");
+
+		long totalBusy = 0;
+		for (int index = 0; index < workerTimelines.size(); index++) {
+			List<long[]> busyIntervals = busyIntervalLists.get(index);
+			long busy = busyIntervals.stream().mapToLong(interval -> interval[1] - interval[0]).sum();
+			totalBusy += busy;
+			logger
+				.lifecycle(
+					String
+						.format(//
+							"Fork #%s >  %s  busy: %.1f%%  idle: %s in %s gap(s), longest: %s",
+							index + 1,
+							workerTimelines.get(index).getWorker(),
+							100d * busy / span,
+							formatDuration(span - busy),
+							countGaps(busyIntervals, taskStart, taskEnd),
+							formatDuration(getLongestGap(busyIntervals, taskStart, taskEnd))));
+		}
+
+		logger.lifecycle("");
+		logger.lifecycle(String.format("Effective parallelism: %.1f of %s fork(s)", (double) totalBusy / span, workerTimelines.size()));
+		logger.lifecycle(String.format("Single-fork tail: %s", formatDuration(getTail(busyIntervalLists, taskStart, taskEnd))));
+		logger.lifecycle("");
+	}
+
+	/**
+	 * Merges the overlapping test executions of the given worker into
+	 * disjoint intervals, ordered by start.
+	 */
+	private List<long[]> getBusyIntervals(WorkerTimeline workerTimeline) {
+
+		List<long[]> executions = new ArrayList<>();
+		for (int index = 0; index < workerTimeline.size(); index++) {
+			executions.add(new long[] { workerTimeline.getStartTimestamp(index), workerTimeline.getEndTimestamp(index) });
+		}
+		executions.sort(Comparator.comparingLong(interval -> interval[0]));
+
+		List<long[]> busyIntervals = new ArrayList<>();
+		for (long[] execution: executions) {
+			long[] last = busyIntervals.isEmpty()? null : busyIntervals.get(busyIntervals.size() - 1);
+			if (last != null && execution[0] <= last[1]) {
+				last[1] = Math.max(last[1], execution[1]);
+			} else {
+				busyIntervals.add(new long[] { execution[0], execution[1] });
+			}
+		}
+		return busyIntervals;
+	}
+
+	private List<Long> getGaps(List<long[]> busyIntervals, long taskStart, long taskEnd) {
+
+		List<Long> gaps = new ArrayList<>();
+		long previousEnd = taskStart;
+		for (long[] interval: busyIntervals) {
+			gaps.add(interval[0] - previousEnd);
+			previousEnd = interval[1];
+		}
+		gaps.add(taskEnd - previousEnd);
+		return gaps;
+	}
+
+	private long countGaps(List<long[]> busyIntervals, long taskStart, long taskEnd) {
+
+		return getGaps(busyIntervals, taskStart, taskEnd).stream().filter(gap -> gap >= MIN_GAP).count();
+	}
+
+	private long getLongestGap(List<long[]> busyIntervals, long taskStart, long taskEnd) {
+
+		return getGaps(busyIntervals, taskStart, taskEnd).stream().mapToLong(Long::longValue).max().orElse(0);
+	}
+
+	/**
+	 * Determines the time between the last moment at which at least two forks
+	 * were busy, and the end of the task.
+	 */
+	private long getTail(List<List<long[]>> busyIntervalLists, long taskStart, long taskEnd) {
+
+		List<long[]> events = new ArrayList<>();
+		for (List<long[]> busyIntervals: busyIntervalLists) {
+			for (long[] interval: busyIntervals) {
+				events.add(new long[] { interval[0], +1 });
+				events.add(new long[] { interval[1], -1 });
+			}
+		}
+		// at equal times, process ends before starts
+		events.sort(Comparator.<long[]> comparingLong(event -> event[0]).thenComparingLong(event -> event[1]));
+
+		long lastParallelEnd = taskStart;
+		int busyForks = 0;
+		for (long[] event: events) {
+			int previousBusyForks = busyForks;
+			busyForks += (int) event[1];
+			if (previousBusyForks >= 2 && busyForks < 2) {
+				lastParallelEnd = event[0];
+			}
+		}
+		return taskEnd - lastParallelEnd;
+	}
+
+	private String formatDuration(long micros) {
+
+		return String.format("%.2fs", micros / 1_000_000d);
+	}
+}
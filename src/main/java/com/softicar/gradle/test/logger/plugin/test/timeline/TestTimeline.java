@@ -0,0 +1,104 @@
+package com.softicar.gradle.test.logger.plugin.test.timeline;
+
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records the executions of test methods per test worker process.
+ * <p>
+ * Timestamps are given in microseconds since the epoch.
+ */
+public class TestTimeline {
+
+	private final Map<String, WorkerTimeline> workerTimelines;
+
+	public TestTimeline() {
+
+		this.workerTimelines = new LinkedHashMap<>();
+	}
+
+	public synchronized void add(String worker, TestMethodName methodName, long startTimestamp, long endTimestamp) {
+
+		workerTimelines.computeIfAbsent(worker, WorkerTimeline::new).add(methodName, startTimestamp, endTimestamp);
+	}
+
+	/**
+	 * Returns the timelines of all workers, in the order in which the workers
+	 * executed their first test.
+	 *
+	 * @return the worker timelines (never <i>null</i>)
+	 */
+	public synchronized List<WorkerTimeline> getWorkerTimelines() {
+
+		return Collections.unmodifiableList(new ArrayList<>(workerTimelines.values()));
+	}
+
+	public synchronized boolean isEmpty() {
+
+		return workerTimelines.isEmpty();
+	}
+
+	/**
+	 * The test method executions of a single test worker process, in the
+	 * order in which they ended.
+	 */
+	public static class WorkerTimeline {
+
+		private final String worker;
+		private final List<TestMethodName> methodNames;
+		private long[] startTimestamps;
+		private long[] endTimestamps;
+		private int size;
+
+		public WorkerTimeline(String worker) {
+
+			this.worker = worker;
+			this.methodNames = new ArrayList<>();
+			this.startTimestamps = new long[16];
+			this.endTimestamps = new long[16];
+			this.size = 0;
+		}
+
+		public String getWorker() {
+
+			return worker;
+		}
+
+		public int size() {
+
+			return size;
+		}
+
+		public TestMethodName getMethodName(int index) {
+
+			return methodNames.get(index);
+		}
+
+		public long getStartTimestamp(int index) {
+
+			return startTimestamps[index];
+		}
+
+		public long getEndTimestamp(int index) {
+
+			return endTimestamps[index];
+		}
+
+		void add(TestMethodName methodName, long startTimestamp, long endTimestamp) {
+
+			if (size == startTimestamps.length) {
+				startTimestamps = Arrays.copyOf(startTimestamps, size * 2);
+				endTimestamps = Arrays.copyOf(endTimestamps, size * 2);
+			}
+			methodNames.add(methodName);
+			startTimestamps[size] = startTimestamp;
+			endTimestamps[size] = endTimestamp;
+			size++;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.softicar.gradle.test.logger.plugin.test.timeline;
+
+import com.softicar.gradle.test.logger.plugin.test.json.JsonStrings;
+import com.softicar.gradle.test.logger.plugin.test.method.TestMethodName;
+import com.softicar.gradle.test.logger.plugin.test.timeline.TestTimeline.WorkerTimeline;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes a {@link TestTimeline} as a file in the <i>Trace Event Format</i>,
+ * which can be viewed with <code>chrome://tracing</code> or
+ * <a href="https://ui.perfetto.dev/">Perfetto</a>.
+ * <p>
+ * Each test worker process is represented as a thread, and each test method
+ * execution as a complete event.
+ */
+public class TestTimelineTraceWriter {
+
+	private static final int PROCESS_ID = 1;
+
+	private final String taskPath;
+
+	public TestTimelineTraceWriter(String taskPath) {
+
+		this.taskPath = taskPath;
+	}
+
+	public void write(TestTimeline timeline, File file) {
+
+		file.getParentFile().mkdirs();
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+			writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+			writer.write(createMetadataEvent("process_name", 0, taskPath));
+
+			List<WorkerTimeline> workerTimelines = timeline.getWorkerTimelines();
+			for (int threadId = 1; threadId <= workerTimelines.size(); threadId++) {
+				WorkerTimeline workerTimeline = workerTimelines.get(threadId - 1);
+				writer.write(",\n");
+				writer.write(createMetadataEvent("thread_name", threadId, workerTimeline.getWorker()));
+				for (int index = 0; index < workerTimeline.size(); index++) {
+					writer.write(",\n");
+					writer.write(createCompleteEvent(threadId, workerTimeline, index));
+				}
+			}
+
+			writer.write("\n]}\n");
+		} catch (IOException exception) {
+			throw new UncheckedIOException(exception);
+		}
+	}
+
+	private String createMetadataEvent(String name, int threadId, String value) {
+
+		StringBuilder builder = new StringBuilder();
+		builder.append("{\"name\":\"").append(name).append("\",\"ph\":\"M\",\"pid\":").append(PROCESS_ID);
+		builder.append(",\"tid\":").append(threadId);
+		builder.append(",\"args\":{\"name\":");
+		JsonStrings.appendQuoted(value, builder);
+		return builder.append("}}").toString();
+	}
+
+	private String createCompleteEvent(int threadId, WorkerTimeline workerTimeline, int index) {
+
+		TestMethodName methodName = workerTimeline.getMethodName(index);
+		long start = workerTimeline.getStartTimestamp(index);
+		long end = workerTimeline.getEndTimestamp(index);
+
+		StringBuilder builder = new StringBuilder();
+		builder.append("{\"name\":");
+		JsonStrings.appendQuoted(methodName.getMethodName(), builder);
+		builder.append(",\"cat\":");
+		JsonStrings.appendQuoted(methodName.getClassName(), builder);
+		builder.append(",\"ph\":\"X\",\"ts\":").append(start);
+		builder.append(",\"dur\":").append(Math.max(0, end - start));
+		builder.append(",\"pid\":").append(PROCESS_ID);
+		builder.append(",\"tid\":").append(threadId);
+		return builder.append('}').toString();
+	}
+}
@@ -0,0 +1,125 @@
+package com.softicar.gradle.test.logger.plugin.test.watchdog;
+
+import com.softicar.gradle.test.logger.plugin.test.run.RunningTest;
+import com.softicar.gradle.test.logger.plugin.test.run.TestRunTracker;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.gradle.api.logging.Logger;
+
+/**
+ * Periodically scans the tests that are tracked as running by a
+ * {@link TestRunTracker}, and reports each test that runs longer than a given
+ * threshold.
+ * <p>
+ * For each reported test, a thread dump of the test worker process that
+ * executes it is written to a file, so that the cause of a hanging test can
+ * be analyzed even if the build is eventually aborted by a timeout.
+ * <p>
+ * Scanning happens in a daemon thread, from {@link #start()} until
+ * {@link #close()}.
+ */
+public class HungTestWatchdog implements AutoCloseable {
+
+	private static final long MIN_SCAN_PERIOD_MILLIS = 1000;
+	private static final long MAX_SCAN_PERIOD_MILLIS = 10000;
+
+	private final Logger logger;
+	private final TestRunTracker testRunTracker;
+	private final long threshold;
+	private final TestWorkerProcessFinder processFinder;
+	private final TestWorkerThreadDumper threadDumper;
+	private final Set<Integer> reportedTests;
+	private ScheduledExecutorService executor;
+
+	/**
+	 * @param logger
+	 *            the logger (never <i>null</i>)
+	 * @param testRunTracker
+	 *            the tracker of the running tests (never <i>null</i>)
+	 * @param threshold
+	 *            the running time in milliseconds after which a test is
+	 *            reported
+	 * @param threadDumpDirectory
+	 *            the directory to write thread dumps to (never <i>null</i>)
+	 */
+	public HungTestWatchdog(Logger logger, TestRunTracker testRunTracker, long threshold, File threadDumpDirectory) {
+
+		this.logger = Objects.requireNonNull(logger);
+		this.testRunTracker = Objects.requireNonNull(testRunTracker);
+		this.threshold = threshold;
+		this.processFinder = new TestWorkerProcessFinder();
+		this.threadDumper = new TestWorkerThreadDumper(threadDumpDirectory);
+		this.reportedTests = new HashSet<>();
+		this.executor = null;
+	}
+
+	public synchronized void start() {
+
+		if (executor == null) {
+			long period = Math.max(MIN_SCAN_PERIOD_MILLIS, Math.min(MAX_SCAN_PERIOD_MILLIS, threshold / 4));
+			executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "SoftiCAR Test Watchdog");
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.scheduleWithFixedDelay(this::scan, period, period, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public synchronized void close() {
+
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	private void scan() {
+
+		try {
+			for (RunningTest runningTest: testRunTracker.getRunningTests()) {
+				long runningTime = runningTest.getRunningTime();
+				if (runningTime >= threshold && reportedTests.add(runningTest.getIndex())) {
+					report(runningTest, runningTime);
+				}
+			}
+		} catch (RuntimeException exception) {
+			// a failing scan must not cancel subsequent scans
+			logger.warn("Test watchdog failed to scan running tests.", exception);
+		}
+	}
+
+	private void report(RunningTest runningTest, long runningTime) {
+
+		logger
+			.warn(
+				String
+					.format(//
+						"Hung test detected: Test #%s  %s  has been running for %.0fs in %s",
+						runningTest.getIndex(),
+						runningTest.getMethodName(),
+						runningTime / 1000d,
+						runningTest.getWorker()));
+
+		Optional<ProcessHandle> process = processFinder.find(runningTest.getWorker());
+		if (process.isPresent()) {
+			try {
+				String fileName = String.format("thread-dump-test-%s-pid-%s.txt", runningTest.getIndex(), process.get().pid());
+				File file = threadDumper.dump(process.get(), fileName);
+				logger.warn(String.format("Thread dump of %s: %s", runningTest.getWorker(), file));
+			} catch (IOException exception) {
+				logger.warn(String.format("Failed to create thread dump of %s: %s", runningTest.getWorker(), exception.getMessage()));
+			}
+		} else {
+			logger.warn(String.format("Failed to create thread dump: process of %s not found", runningTest.getWorker()));
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.softicar.gradle.test.logger.plugin.test.watchdog;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Finds the local process of a Gradle test worker, e.g.
+ * <i>Gradle Test Executor 3</i>.
+ * <p>
+ * Test workers are descendants of the process that executes the build, and
+ * receive the name of the worker as an argument on their command line. Gradle
+ * passes that argument in single quotes, e.g.
+ * <i>'Gradle Test Executor 3'</i>, so surrounding quotes are ignored.
+ */
+public class TestWorkerProcessFinder {
+
+	public Optional<ProcessHandle> find(String worker) {
+
+		Pattern commandLinePattern = Pattern.compile(Pattern.quote(worker) + "(\\D|$)");
+		return ProcessHandle//
+			.current()
+			.descendants()
+			.filter(ProcessHandle::isAlive)
+			.filter(process -> isWorker(process, worker, commandLinePattern))
+			.findFirst();
+	}
+
+	private boolean isWorker(ProcessHandle process, String worker, Pattern commandLinePattern) {
+
+		ProcessHandle.Info info = process.info();
+		Optional<String[]> arguments = info.arguments();
+		if (arguments.isPresent()) {
+			return Stream.of(arguments.get()).map(this::unquote).anyMatch(worker::equals);
+		} else {
+			return info.commandLine().map(commandLine -> commandLinePattern.matcher(commandLine).find()).orElse(false);
+		}
+	}
+
+	private String unquote(String argument) {
+
+		if (argument.length() >= 2 && (argument.startsWith("'") && argument.endsWith("'") || argument.startsWith("\"") && argument.endsWith("\""))) {
+			return argument.substring(1, argument.length() - 1);
+		} else {
+			return argument;
+		}
+	}
+}
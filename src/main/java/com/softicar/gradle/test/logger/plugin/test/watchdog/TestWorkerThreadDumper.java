@@ -0,0 +1,71 @@
+package com.softicar.gradle.test.logger.plugin.test.watchdog;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a thread dump of a local Java process to a file, using
+ * <code>jcmd &lt;pid&gt; Thread.print</code>.
+ * <p>
+ * The <i>jcmd</i> executable of the running JDK is preferred. If it does not
+ * exist, <i>jcmd</i> is expected on the <i>PATH</i>.
+ */
+public class TestWorkerThreadDumper {
+
+	private static final long TIMEOUT_SECONDS = 30;
+
+	private final File directory;
+
+	public TestWorkerThreadDumper(File directory) {
+
+		this.directory = Objects.requireNonNull(directory);
+	}
+
+	/**
+	 * Writes a thread dump of the given process to a file with the given name.
+	 *
+	 * @param process
+	 *            the process to dump (never <i>null</i>)
+	 * @param fileName
+	 *            the name of the file in the dump directory (never
+	 *            <i>null</i>)
+	 * @return the file that contains the thread dump (never <i>null</i>)
+	 * @throws IOException
+	 *             if <i>jcmd</i> could not be executed, or did not succeed
+	 */
+	public File dump(ProcessHandle process, String fileName) throws IOException {
+
+		directory.mkdirs();
+		File file = new File(directory, fileName);
+		Process jcmd = new ProcessBuilder(getJcmdExecutable(), Long.toString(process.pid()), "Thread.print", "-l")//
+			.redirectErrorStream(true)
+			.redirectOutput(file)
+			.start();
+		try {
+			if (!jcmd.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				jcmd.destroyForcibly();
+				throw new IOException("jcmd did not finish within %s seconds".formatted(TIMEOUT_SECONDS));
+			} else if (jcmd.exitValue() != 0) {
+				throw new IOException("jcmd failed with exit code %s, see: %s".formatted(jcmd.exitValue(), file));
+			}
+		} catch (InterruptedException exception) {
+			jcmd.destroyForcibly();
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for jcmd", exception);
+		}
+		return file;
+	}
+
+	private String getJcmdExecutable() {
+
+		File jcmd = new File(new File(System.getProperty("java.home"), "bin"), isWindows()? "jcmd.exe" : "jcmd");
+		return jcmd.canExecute()? jcmd.getAbsolutePath() : "jcmd";
+	}
+
+	private boolean isWindows() {
+
+		return System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+	}
+}
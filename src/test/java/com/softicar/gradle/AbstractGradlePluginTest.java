@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.util.Comparator;
 import java.util.Locale;
 import java.util.Optional;
@@ -55,6 +56,15 @@ public class AbstractGradlePluginTest extends Assert {
 		}
 	}
 
+	protected String readFile(String path) {
+
+		try {
+			return Files.readString(new File(testProjectDir.getRoot(), path).toPath());
+		} catch (IOException exception) {
+			throw new RuntimeException(exception);
+		}
+	}
+
 	protected void assertContains(String expectedText, String fulltext) {
 
 		if (!fulltext.contains(expectedText)) {
@@ -1,6 +1,8 @@
 package com.softicar.gradle.dependency.validation.plugin;
 
 import com.softicar.gradle.AbstractGradlePluginTest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
 import org.junit.Before;
@@ -59,4 +61,107 @@ public class SofticarDependencyValidationPluginTest extends AbstractGradlePlugin
 
 		assertContains("Encountered an unexpected downgrade of 'commons-codec:commons-codec' from [1.14.0] to [1.13.0].", result.getOutput());
 	}
+
+	@Test
+	public void testWithSeveralProjects() {
+
+		publishLibraries(true);
+		appendSubprojects();
+
+		// the projects are validated concurrently
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("softicarDependencyValidation", "--continue", "--parallel")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("com.example:lib -- 2 versions: [1.0], [2.0] -- resolved: 2.0", result.getOutput());
+		assertContains("Dependency validation error in: c", result.getOutput());
+		assertContains("Encountered an unexpected downgrade of 'com.example:lib' from [2.0.0] to [1.0.0].", result.getOutput());
+		assertMissing("Dependency validation error in: a", result.getOutput());
+		assertMissing("Dependency validation error in: b", result.getOutput());
+	}
+
+	@Test
+	public void testWithMissingArtifacts() {
+
+		publishLibraries(false);
+		appendSubprojects();
+
+		// the artifacts are resolved as well, so the missing JARs fail the validation
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("softicarDependencyValidation", "--continue")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("lib-2.0.jar", result.getOutput());
+		assertMissing("Dependency validation error in: c", result.getOutput());
+	}
+
+	private void appendSubprojects() {
+
+		mkdirs("a");
+		mkdirs("b");
+		mkdirs("c");
+		appendToFile("settings.gradle", """
+				include 'a', 'b', 'c'
+				""");
+		appendToFile("build.gradle", """
+				subprojects {
+					apply plugin: 'com.softicar.gradle.java.library'
+					apply plugin: 'com.softicar.gradle.dependency.validation'
+					repositories {
+						maven { url = "${rootDir}/repo" }
+					}
+					dependencies {
+						implementation "com.example:app:1.0" // depends on com.example:lib:2.0
+						implementation "com.example:lib:1.0"
+					}
+					configurations.all {
+						resolutionStrategy.force project.name == 'c'? "com.example:lib:1.0" : "com.example:lib:2.0"
+					}
+				}
+				""");
+	}
+
+	private void publishLibraries(boolean withJars) {
+
+		publishPom("com.example", "lib", "1.0", withJars);
+		publishPom("com.example", "lib", "2.0", withJars);
+		publishPom("com.example", "app", "1.0", withJars, "com.example:lib:2.0");
+	}
+
+	private void publishPom(String group, String name, String version, boolean withJar, String...dependencies) {
+
+		String dependencyElements = Stream//
+			.of(dependencies)
+			.map(dependency -> dependency.split(":"))
+			.map(parts -> """
+					<dependency>
+						<groupId>%s</groupId>
+						<artifactId>%s</artifactId>
+						<version>%s</version>
+					</dependency>
+					""".formatted(parts[0], parts[1], parts[2]))
+			.collect(Collectors.joining());
+		String path = "repo/%s/%s/%s".formatted(group.replace('.', '/'), name, version);
+		mkdirs(path);
+		appendToFile(path + "/%s-%s.pom".formatted(name, version), """
+				<project>
+					<modelVersion>4.0.0</modelVersion>
+					<groupId>%s</groupId>
+					<artifactId>%s</artifactId>
+					<version>%s</version>
+					<dependencies>
+				%s	</dependencies>
+				</project>
+				""".formatted(group, name, version, dependencyElements));
+		if (withJar) {
+			// the content of the JAR is irrelevant for the resolution
+			appendToFile(path + "/%s-%s.jar".formatted(name, version), "");
+		}
+	}
 }
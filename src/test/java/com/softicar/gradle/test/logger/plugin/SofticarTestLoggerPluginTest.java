@@ -1,9 +1,21 @@
 package com.softicar.gradle.test.logger.plugin;
 
 import com.softicar.gradle.AbstractGradlePluginTest;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -52,6 +64,7 @@ public class SofticarTestLoggerPluginTest extends AbstractGradlePluginTest {
 
 		assertMissing("Test #1 (running: 1)  test  [com.example.SomeTest]  > started", result.getOutput());
 		assertMissing("Test #1 (running: 0)  test  [com.example.SomeTest]  > SUCCESS", result.getOutput());
+		assertMissing("testQuarantine", result.getOutput());
 	}
 
 	@Test
@@ -120,6 +133,7 @@ public class SofticarTestLoggerPluginTest extends AbstractGradlePluginTest {
 
 		assertContainsFailureDetails(output);
 		assertContainsFailureSummary(output);
+		assertFalse(new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-failures.spool").exists());
 	}
 
 	@Test
@@ -162,6 +176,1333 @@ public class SofticarTestLoggerPluginTest extends AbstractGradlePluginTest {
 		assertContainsFailureSummary(output);
 	}
 
+	@Test
+	public void testWithFailingTestsOfSameRootCause() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Before;
+				import org.junit.Test;
+
+				public class SomeTest {
+					private static int counter = 0;
+					@Before
+					public void setup() {
+						throw new IllegalStateException("fixture failure #" + ++counter);
+					}
+					@Test
+					public void firstTest() {
+						// nothing to do
+					}
+					@Test
+					public void secondTest() {
+						// nothing to do
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		String output = result.getOutput();
+		assertContains("Details of 2 failed test(s):", output);
+		assertContains("(1 distinct failure(s), each logged once)", output);
+		assertContains("Failure #1 >  ", output);
+		assertMissing("Failure #2 >  ", output);
+		assertContains("The same failure occurred in 1 other test(s):", output);
+		assertContains("Summary of 2 failed test(s):", output);
+	}
+
+	@Test
+	public void testWithFailingTestsBeyondIndexLimit() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import java.util.stream.Collectors;
+				import java.util.stream.IntStream;
+				import org.junit.Assert;
+				import org.junit.Test;
+				import org.junit.runner.RunWith;
+				import org.junit.runners.Parameterized;
+				import org.junit.runners.Parameterized.Parameters;
+
+				@RunWith(Parameterized.class)
+				public class SomeTest {
+					@Parameters
+					public static Iterable<Integer> getParameters() {
+						return IntStream.range(0, 1003).boxed().collect(Collectors.toList());
+					}
+					private final int parameter;
+					public SomeTest(int parameter) {
+						this.parameter = parameter;
+					}
+					@Test
+					public void test() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		// failures beyond the in-memory index are read back from the spool, and grouped as well
+		String output = result.getOutput();
+		assertContains("Details of 1003 failed test(s):", output);
+		assertContains("(1 distinct failure(s), each logged once)", output);
+		assertContains("Failure #1 >  test[0]  [com.example.SomeTest]", output);
+		assertContains("The same failure occurred in 1002 other test(s):", output);
+		assertContains("    ... and 982 more (see summary)", output);
+		assertMissing("Failure #2 >  ", output);
+		assertContains("Summary of 1003 failed test(s):", output);
+		assertContains("test[1002]  [com.example.SomeTest]", output);
+	}
+
+	@Test
+	public void testWithVerboseSummary() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void goodTest() {
+						// nothing to do
+					}
+					@Test
+					public void slowTest() throws Exception {
+						Thread.sleep(1500);
+					}
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments(
+				"-Pcom.softicar.test.logger.verbose=summary",
+				"-Pcom.softicar.test.logger.verbose.interval=1",
+				"-Pcom.softicar.test.logger.verbose.threshold=1",
+				"test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		String output = result.getOutput();
+		assertContains("] Tests: 3 finished (+", output);
+		assertContains(", 1 failed, 0 skipped, 0 running", output);
+		assertContains("badTest  [com.example.SomeTest]  > FAILURE", output);
+		assertContains("slowTest  [com.example.SomeTest]  > SUCCESS", output);
+		assertMissing("goodTest  [com.example.SomeTest]  > SUCCESS", output);
+		assertMissing("> started", output);
+	}
+
+	@Test
+	public void testWithHistory() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.history=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Slowest 1 of 1 test(s):", output);
+		assertContains("Slow Test #1 >  ", output);
+		assertContains("test  [com.example.SomeTest]  (last 1 build(s): ", output);
+		assertContains("Slowest 1 of 1 test class(es):", output);
+		assertContains("Slow Test Class #1 >  ", output);
+		assertTrue(new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-duration-history.bin").exists());
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.history=true", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("test  [com.example.SomeTest]  (last 2 build(s): ", result.getOutput());
+	}
+
+	@Test
+	public void testWithSchedule() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "OtherTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class OtherTest {
+					@Test
+					public void test() throws Exception {
+						Thread.sleep(100);
+					}
+				}
+				""");
+		appendToFile("build.gradle", "test.maxParallelForks = 2");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.schedule=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("Test class scheduling: no test class durations were recorded in previous builds.", result.getOutput());
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.schedule=true", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Test class scheduling for 2 fork(s):", output);
+		assertContains("Recorded durations: 2 of 2 test class(es)", output);
+		assertContains("Predicted makespan (longest first): ", output);
+		assertContains("Actual makespan: ", output);
+		assertContains("Longest-first distribution (report only, not applied):", output);
+		assertContains("com.example.OtherTest", output);
+	}
+
+	@Test
+	public void testWithSameTestInTwoForks() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() throws Exception {
+						Thread.sleep(1000);
+					}
+				}
+				""");
+		for (String suite: List.of("FirstSuite", "SecondSuite")) {
+			appendToFile(new File(testFolder, suite + ".java"), """
+					package com.example;
+
+					import org.junit.runner.RunWith;
+					import org.junit.runners.Suite;
+					import org.junit.runners.Suite.SuiteClasses;
+
+					@RunWith(Suite.class)
+					@SuiteClasses(SomeTest.class)
+					public class %s {
+						// nothing to add
+					}
+					""".formatted(suite));
+		}
+		appendToFile("build.gradle", """
+				test.maxParallelForks = 2
+				test.include '**/*Suite.class'
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.verbose=true", "test", "--max-workers=2")
+			.withPluginClasspath()
+			.build();
+
+		// both forks execute the same test method at the same time
+		String output = result.getOutput();
+		assertContains("(running: 2)  test  [com.example.SomeTest]  > started", output);
+		assertContains("(running: 0)  test  [com.example.SomeTest]  > SUCCESS", output);
+		assertContains("Redundant Test #1 >  2 x  test  [com.example.SomeTest]", output);
+		assertMissing("(running: -", output);
+	}
+
+	@Test
+	public void testWithProgress() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+					@Test
+					public void otherTest() {
+						// nothing to do
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.progress=true", "-Pcom.softicar.test.logger.progress.interval=0", "test")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("] Progress: 1 test(s), ", result.getOutput());
+		assertContains("remaining: unknown (no previous build)", result.getOutput());
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.progress=true", "-Pcom.softicar.test.logger.progress.interval=0", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("] Progress: 1 of ~2 test(s) (", result.getOutput());
+		assertContains(", remaining: ~", result.getOutput());
+
+		// a partial run must not shrink the expected tests of the next full run
+		appendToFile(new File(testFolder, "OtherTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class OtherTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+				}
+				""");
+		GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.progress=true", "test", "--tests", "com.example.OtherTest")
+			.withPluginClasspath()
+			.build();
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.progress=true", "-Pcom.softicar.test.logger.progress.interval=0", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("] Progress: 1 of ~3 test(s) (", result.getOutput());
+	}
+
+	@Test
+	public void testWithRegressionAgainstBaselineFile() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void slowTest() throws Exception {
+						Thread.sleep(1500);
+					}
+				}
+				""");
+		appendToFile("test-duration-baseline.txt", """
+				test 1 com.example.SomeTest slowTest
+				package 100 com.example
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.regression=fail", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		String output = result.getOutput();
+		assertContains("WARNING: 2 test duration regression(s), compared to test-duration-baseline.txt:", output);
+		assertContains("Regression #1 >  Package  0.10s -> ", output);
+		assertContains("Regression #2 >  Test  0.00s -> ", output);
+		assertContains("slowTest  [com.example.SomeTest]", output);
+		assertContains("2 test duration regression(s) detected, compared to test-duration-baseline.txt.", output);
+	}
+
+	@Test
+	public void testWithRegressionUpdate() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+				}
+				""");
+		appendToFile("test-duration-baseline.txt", "package 60000 com.example");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.regression.update=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("Test duration baseline updated: ", result.getOutput());
+		String baseline = readFile("test-duration-baseline.txt");
+		assertContains("package 60000 com.example", baseline);
+		assertContains(" com.example.SomeTest test", baseline);
+		assertContains("class ", baseline);
+	}
+
+	@Test
+	public void testWithTimeline() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() throws Exception {
+						Thread.sleep(100);
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "OtherTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class OtherTest {
+					@Test
+					public void test() throws Exception {
+						Thread.sleep(100);
+					}
+				}
+				""");
+		appendToFile("build.gradle", "test.maxParallelForks = 2");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.timeline=true", "test", "--max-workers=2")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Fork utilization of :test (2 fork(s), ", output);
+		assertContains("Fork #1 >  Gradle Test Executor ", output);
+		assertContains("Effective parallelism: ", output);
+		assertContains("Single-fork tail: ", output);
+		assertTrue(new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-timeline.json").exists());
+	}
+
+	@Test
+	public void testWithHistograms() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void test() {
+						// nothing to do
+					}
+					@Test
+					public void otherTest() throws Exception {
+						Thread.sleep(100);
+					}
+				}
+				""");
+
+		GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.histograms=true", "test")
+			.withPluginClasspath()
+			.build();
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.histograms=true", "-Pcom.softicar.test.logger.history=true", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Test duration percentiles of :", output);
+		assertContains("Current build >  n: 2  p50: ", output);
+		assertContains("All builds    >  n: 4  p50: ", output);
+		assertContains("Test Class #1 >  n: 2  p50: ", output);
+		assertTrue(new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-duration-histograms.bin").exists());
+
+		// a duration history file is not mistaken for a histogram file
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments(
+				"-Pcom.softicar.test.logger.histograms=true",
+				"-Pcom.softicar.test.logger.histograms.merge=build/softicar-test-logger/test-duration-history.bin",
+				"test",
+				"--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		output = result.getOutput();
+		assertContains("Unsupported test duration histogram file: ", output);
+		assertContains("All builds    >  n: 6  p50: ", output);
+	}
+
+	@Test
+	public void testWithFixtures() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.BeforeClass;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@BeforeClass
+					public static void setupClass() throws Exception {
+						Thread.sleep(1000);
+					}
+					@Test
+					public void test() {
+						// nothing to do
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.fixtures=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Fixture overhead of 1 test class(es): ", output);
+		assertContains("Fixture Overhead #1 >  1.", output);
+		assertContains("com.example.SomeTest", output);
+	}
+
+	@Test
+	public void testWithProfile() {
+
+		// the test workers use the JVM of the test, which must provide the JFR
+		Assume.assumeTrue(Runtime.version().feature() >= 15 && ModuleLayer.boot().findModule("jdk.jfr").isPresent());
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void allocatingTest() {
+						long sum = 0;
+						for (int i = 0; i < 100000; i++) {
+							sum += new byte[1000].length;
+						}
+						System.out.println(sum);
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.profile=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("Test profile of 1 test(s) from 1 JFR recording(s):", result.getOutput());
+		assertContains("allocatingTest  [com.example.SomeTest]", result.getOutput());
+		assertContains("Profile: ", result.getOutput());
+		assertTrue(new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-profile.csv").exists());
+		assertEquals(1, new File(testProjectDir.getRoot(), "build/softicar-test-logger/jfr").list((dummy, name) -> name.matches("worker-\\d+\\.jfr")).length);
+	}
+
+	@Test
+	public void testWithShards() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		for (int index = 0; index < 6; index++) {
+			appendToFile(new File(testFolder, "SomeTest%s.java".formatted(index)), """
+					package com.example;
+
+					import org.junit.Test;
+
+					public class SomeTest%s {
+						@Test
+						public void test() {
+							// nothing to do
+						}
+					}
+					""".formatted(index));
+		}
+		appendToFile("test-duration-baseline.txt", "class 3000 com.example.SomeTest0\nclass 2000 com.example.SomeTest1\nclass 1000 com.example.SomeTest2");
+
+		StringBuilder output = new StringBuilder();
+		for (int index = 0; index < 3; index++) {
+			BuildResult result = GradleRunner//
+				.create()
+				.withProjectDir(testProjectDir.getRoot())
+				.withArguments(//
+					"-Pcom.softicar.test.logger.verbose=true",
+					"-Pcom.softicar.test.logger.shard.total=3",
+					"-Pcom.softicar.test.logger.shard.index=" + index,
+					"test")
+				.withPluginClasspath()
+				.build();
+			assertContains("Test shard %s of 3 (index %s): ".formatted(index + 1, index), result.getOutput());
+			output.append(result.getOutput());
+		}
+
+		for (int index = 0; index < 6; index++) {
+			String line = "test  [com.example.SomeTest%s]  > SUCCESS".formatted(index);
+			assertEquals(1, output.toString().split(Pattern.quote(line), -1).length - 1);
+		}
+		assertContains("expected duration: 3.00s of 6.00s", output.toString());
+		assertContains("expected duration: 2.00s of 6.00s", output.toString());
+		assertContains("expected duration: 1.00s of 6.00s", output.toString());
+	}
+
+	@Test
+	public void testWithImpact() throws IOException {
+
+		File mainFolder = mkdirs("src/main/java/com/example");
+		appendToFile(new File(mainFolder, "Foo.java"), """
+				package com.example;
+
+				public class Foo {
+					public int get() {
+						return 1;
+					}
+				}
+				""");
+		appendToFile(new File(mainFolder, "Bar.java"), """
+				package com.example;
+
+				public class Bar {
+					public int get() {
+						return 2;
+					}
+				}
+				""");
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "FooTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class FooTest {
+					@Test
+					public void test() {
+						Assert.assertTrue(new Foo().get() > 0);
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "BarTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class BarTest {
+					@Test
+					public void test() {
+						Assert.assertTrue(new Bar().get() > 0);
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.impact=true", "-Pcom.softicar.test.logger.verbose=true", "test")
+			.withPluginClasspath()
+			.build();
+		assertContains("Test impact: executing all 2 test class(es), since no previous index exists", result.getOutput());
+
+		File fooFile = new File(mainFolder, "Foo.java");
+		Files.writeString(fooFile.toPath(), Files.readString(fooFile.toPath()).replace("return 1;", "return 3;"));
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.impact=true", "-Pcom.softicar.test.logger.verbose=true", "test")
+			.withPluginClasspath()
+			.build();
+		assertContains("Test impact: executing 1 of 2 test class(es), affected by ", result.getOutput());
+		assertContains("test  [com.example.FooTest]  > SUCCESS", result.getOutput());
+		assertMissing("test  [com.example.BarTest]  > SUCCESS", result.getOutput());
+
+		// resources cannot be attributed to classes
+		appendToFile(new File(mkdirs("src/main/resources/com/example"), "bar.txt"), "changed");
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.impact=true", "-Pcom.softicar.test.logger.verbose=true", "test")
+			.withPluginClasspath()
+			.build();
+		assertContains("Test impact: executing all 2 test class(es), since build files, resources or external libraries changed", result.getOutput());
+	}
+
+	@Test
+	public void testWithFailFast() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		for (int index = 0; index < 20; index++) {
+			appendToFile(new File(testFolder, "SomeTest%02d.java".formatted(index)), """
+					package com.example;
+
+					import org.junit.Assert;
+					import org.junit.Test;
+
+					public class SomeTest%02d {
+						@Test
+						public void badTest() throws Exception {
+							Thread.sleep(100);
+							Assert.fail("intended failure");
+						}
+					}
+					""".formatted(index));
+		}
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.failfast.threshold=3", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("Fail-fast: cancelling the test run, since 3 test(s) failed (threshold: 3). Terminating 1 test worker(s).", result.getOutput());
+		assertContains("badTest  [com.example.SomeTest02]", result.getOutput());
+		assertMissing("badTest  [com.example.SomeTest19]", result.getOutput());
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.failfast.threshold=1", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("badTest  [com.example.SomeTest00]", result.getOutput());
+		assertMissing("badTest  [com.example.SomeTest19]", result.getOutput());
+	}
+
+	@Test
+	public void testWithOutputLimit() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void goodTest() {
+						System.out.println("output of good test");
+					}
+					@Test
+					public void badTest() {
+						System.out.println("discarded output of bad test");
+						System.err.println("kept output of bad test");
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.output.limit=24", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("Output of the failed test:", result.getOutput());
+		assertContains("earlier character(s) omitted)", result.getOutput());
+		assertContains("kept output of bad test", result.getOutput());
+		assertMissing("discarded output of bad test", result.getOutput());
+		assertMissing("output of good test", result.getOutput());
+	}
+
+	@Test
+	public void testWithConfigurationCache() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void goodTest() {
+						// nothing to do
+					}
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("--configuration-cache", "-Pcom.softicar.test.logger.verbose=true", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("Configuration cache entry stored.", result.getOutput());
+		assertContains("Test #2 (running: 0)  ", result.getOutput());
+		assertContains("Summary of 1 failed test(s):", result.getOutput());
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("--configuration-cache", "-Pcom.softicar.test.logger.verbose=true", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		assertContains("Reusing configuration cache.", result.getOutput());
+		assertContains("Test #2 (running: 0)  ", result.getOutput());
+		assertContains("Summary of 1 failed test(s):", result.getOutput());
+	}
+
+	@Test
+	public void testWithSeveralProjects() {
+
+		appendToFile("settings.gradle", """
+				include 'a', 'b'
+				""");
+		appendToFile("build.gradle", """
+				subprojects {
+					apply plugin: 'com.softicar.gradle.java.library'
+					apply plugin: 'com.softicar.gradle.test.logger'
+					repositories {
+						mavenCentral()
+					}
+					dependencies {
+						testImplementation "junit:junit:4.12"
+					}
+				}
+				""");
+		for (String project: List.of("a", "b")) {
+			File testFolder = mkdirs(project + "/src/test/java/com/example/" + project);
+			appendToFile(new File(testFolder, "SomeTest.java"), """
+					package com.example.%s;
+
+					import org.junit.Assert;
+					import org.junit.Test;
+
+					public class SomeTest {
+						@Test
+						public void badTest() {
+							Assert.fail("intended failure");
+						}
+					}
+					""".formatted(project));
+		}
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.history=true", "test", "--continue")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		String output = result.getOutput();
+		assertContains("Summary of 2 failed test(s):", output);
+		assertContains("badTest  [com.example.a.SomeTest]", output);
+		assertContains("badTest  [com.example.b.SomeTest]", output);
+		assertMissing("Summary of 1 failed test(s):", output);
+		// the reports of each project precede the failures of all projects
+		assertTrue(output.lastIndexOf("Slowest 1 of 1 test(s):") < output.indexOf("Summary of 2 failed test(s):"));
+	}
+
+	@Test
+	public void testWithRecycle() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "ATest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class ATest {
+					public static byte[] retained;
+					@Test
+					public void test() {
+						System.gc();
+						retained = new byte[64 * 1024 * 1024];
+						System.gc();
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "BTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class BTest {
+					public static byte[] retained;
+					@Test
+					public void test() {
+						System.gc();
+						retained = new byte[64 * 1024 * 1024];
+						System.gc();
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "CTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class CTest {
+					public static byte[] retained;
+					@Test
+					public void test() {
+						System.gc();
+						retained = new byte[64 * 1024 * 1024];
+						System.gc();
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "DTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class DTest {
+					public static byte[] retained;
+					@Test
+					public void test() {
+						System.gc();
+						retained = new byte[64 * 1024 * 1024];
+						System.gc();
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.recycle=true", "-Pcom.softicar.test.logger.recycle.heap=20", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Heap and GC time of 1 test worker(s):", output);
+		assertContains("crossed the threshold at test ", output);
+		assertContains("Next build: forkEvery ", output);
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.recycle=true", "-Pcom.softicar.test.logger.recycle.heap=20", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		output = result.getOutput();
+		assertContains("Worker recycling: applying forkEvery ", output);
+		assertContains("Recycled test worker(s): ", output);
+		assertContains("GC time during tests: ", output);
+		assertMissing("(previous build: ", output);
+		Matcher matcher = Pattern.compile("Next build: forkEvery (\\d+)").matcher(output);
+		assertTrue(matcher.find());
+		long forkEvery = Long.parseLong(matcher.group(1));
+
+		// with a higher threshold, the workers stay below it, and forkEvery grows
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.recycle=true", "-Pcom.softicar.test.logger.recycle.heap=90", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		output = result.getOutput();
+		assertContains(String.format("Worker recycling: applying forkEvery %s,", forkEvery), output);
+		assertMissing("crossed the threshold at test ", output);
+		assertContains(String.format("Next build: forkEvery %s", 2 * forkEvery), output);
+	}
+
+	@Test
+	public void testWithLeaks() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "CleanTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class CleanTest {
+					@Test
+					public void test() throws Exception {
+						Thread.sleep(200);
+					}
+				}
+				""");
+		appendToFile(new File(testFolder, "LeakyTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class LeakyTest {
+					@Test
+					public void test() throws Exception {
+						new Thread(() -> {
+							try {
+								Thread.sleep(60000);
+							} catch (InterruptedException exception) {
+								// nothing to do
+							}
+						}, "leaky-thread").start();
+						Thread.sleep(200);
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.leaks=true", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("WARNING: 1 test class(es) left threads or file handles behind:", output);
+		assertContains("Leaking Test Class #1 >  com.example.LeakyTest  [Gradle Test Executor ", output);
+		assertContains("threads: 1 (leaky-thread)", output);
+		assertMissing("com.example.CleanTest  [", output);
+	}
+
+	@Test
+	public void testWithEvents() throws IOException {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void goodTest() {
+						// nothing to do
+					}
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.events=true", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		File file = new File(testProjectDir.getRoot(), "build/softicar-test-logger/test-events-test.jsonl.gz");
+		List<String> lines;
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8))) {
+			lines = reader.lines().collect(Collectors.toList());
+		}
+		assertEquals(4, lines.size());
+		String events = String.join("\n", lines);
+		assertContains("{\"event\":\"start\",\"task\":\":test\",", events);
+		assertContains("\"class\":\"com.example.SomeTest\",\"method\":\"goodTest\",\"result\":\"SUCCESS\"", events);
+		assertContains("\"method\":\"badTest\",\"result\":\"FAILURE\"", events);
+		assertContains("\"exceptions\":[\"java.lang.AssertionError: intended failure\"]", events);
+	}
+
+	@Test
+	public void testWithWatchdog() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void slowTest() throws Exception {
+						Thread.sleep(5000);
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.watchdog.threshold=1", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Hung test detected: Test #1  slowTest  [com.example.SomeTest]  has been running for ", output);
+		assertContains("Thread dump of Gradle Test Executor ", output);
+		assertTrue(new File(testProjectDir.getRoot(), "build/softicar-test-logger/thread-dumps").isDirectory());
+	}
+
+	@Test
+	public void testWithRetryOfFlakyTest() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import java.io.File;
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void flakyTest() throws Exception {
+						if (new File("flaky.marker").createNewFile()) {
+							Assert.fail("intended failure");
+						}
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.retry.budget=2", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("Retried 1 failed test(s), 1 of which succeeded:", output);
+		assertContains("Flaky Test #1 >  flakyTest  [com.example.SomeTest]", output);
+		assertContains("Quarantined 1 flaky test(s) in: ", output);
+		assertMissing("Summary of 1 failed test(s):", output);
+		assertContains("com.example.SomeTest flakyTest", readFile("test-quarantine.txt"));
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("Executed 1 quarantined test(s), 0 of which failed:", result.getOutput());
+		assertContains("Quarantined Test #1 >  SUCCESS  flakyTest  [com.example.SomeTest]", result.getOutput());
+	}
+
+	@Test
+	public void testWithRetryOfPersistentFailure() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		for (int build = 0; build < 2; build++) {
+			BuildResult result = GradleRunner//
+				.create()
+				.withProjectDir(testProjectDir.getRoot())
+				.withArguments("-Pcom.softicar.test.logger.retry.budget=5", "check")
+				.withPluginClasspath()
+				.buildAndFail();
+
+			String output = result.getOutput();
+			assertMissing("Task :test UP-TO-DATE", output);
+			assertContains("Retried 1 failed test(s), 0 of which succeeded:", output);
+			assertContains("Persistent Failure #1 >  ", output);
+		}
+	}
+
+	@Test
+	public void testWithRetryBudgetExceeded() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+					@Test
+					public void otherBadTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.retry.budget=1", "test")
+			.withPluginClasspath()
+			.buildAndFail();
+
+		String output = result.getOutput();
+		assertContains("2 test(s) failed, which exceeds the retry budget of 1 test(s).", output);
+		assertMissing("Retried ", output);
+	}
+
+	@Test
+	public void testWithRetryAndIgnoreFailures() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void badTest() {
+						Assert.fail("intended failure");
+					}
+					@Test
+					public void otherBadTest() {
+						Assert.fail("intended failure");
+					}
+				}
+				""");
+		appendToFile("build.gradle", "test.ignoreFailures = true");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.retry.budget=1", "test")
+			.withPluginClasspath()
+			.build();
+
+		String output = result.getOutput();
+		assertContains("2 test(s) failed, which exceeds the retry budget of 1 test(s).", output);
+		assertMissing("Retried ", output);
+
+		result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.retry.budget=2", "test", "--rerun-tasks")
+			.withPluginClasspath()
+			.build();
+
+		output = result.getOutput();
+		assertContains("Retried 2 failed test(s), 0 of which succeeded:", output);
+		assertContains("Persistent Failure #2 >  ", output);
+		assertContains("Summary of 2 failed test(s):", output);
+	}
+
+	@Test
+	public void testWithRetryAndQuarantineFile() {
+
+		File testFolder = mkdirs("src/test/java/com/example");
+		appendToFile(new File(testFolder, "SomeTest.java"), """
+				package com.example;
+
+				import java.io.File;
+				import org.junit.Assert;
+				import org.junit.Test;
+
+				public class SomeTest {
+					@Test
+					public void flakyTest() throws Exception {
+						if (new File("flaky.marker").createNewFile()) {
+							Assert.fail("intended failure");
+						}
+					}
+				}
+				""");
+
+		BuildResult result = GradleRunner//
+			.create()
+			.withProjectDir(testProjectDir.getRoot())
+			.withArguments("-Pcom.softicar.test.logger.retry.budget=1", "-Pcom.softicar.test.logger.retry.quarantine=config/quarantine.txt", "test")
+			.withPluginClasspath()
+			.build();
+
+		assertContains("Quarantined 1 flaky test(s) in: ", result.getOutput());
+		assertContains("com.example.SomeTest flakyTest", readFile("config/quarantine.txt"));
+		assertFalse(new File(testProjectDir.getRoot(), "test-quarantine.txt").exists());
+	}
+
 	private void assertContainsFailureSummary(String output) {
 
 		assertContains("Summary of 1 failed test(s):", output);